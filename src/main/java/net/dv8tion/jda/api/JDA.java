@@ -37,6 +37,7 @@ import net.dv8tion.jda.api.requests.restaction.*;
 import net.dv8tion.jda.api.sharding.ShardManager;
 import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.cache.CacheStats;
 import net.dv8tion.jda.api.utils.cache.CacheView;
 import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
@@ -992,6 +993,50 @@ public interface JDA extends IGuildChannelContainer
     @Nonnull
     List<Guild> getMutualGuilds(@Nonnull Collection<User> users);
 
+    /**
+     * The amount of {@link Guild Guilds} that have the provided user cached as a member.
+     * <br>This is equivalent to {@code getMutualGuilds(user).size()}, without building the list.
+     *
+     * @param  user
+     *         The user
+     *
+     * @throws IllegalArgumentException
+     *         If the provided user is null
+     *
+     * @return The amount of mutual guilds
+     *
+     * @see    #getMutualGuilds(User...)
+     */
+    int getMutualGuildCount(@Nonnull User user);
+
+    /**
+     * Statistics about the entities currently held by the caches of this session.
+     * <br>The counts are computed without traversing any entities.
+     *
+     * @return {@link CacheStats} for this session
+     *
+     * @see    #getCacheStats(Guild)
+     */
+    @Nonnull
+    CacheStats getCacheStats();
+
+    /**
+     * Statistics about the entities currently held by the caches of the provided guild.
+     * <br>Users are not included, since they are shared between guilds.
+     *
+     * @param  guild
+     *         The guild
+     *
+     * @throws IllegalArgumentException
+     *         If the provided guild is null
+     *
+     * @return {@link CacheStats} for the guild
+     *
+     * @see    #getCacheStats()
+     */
+    @Nonnull
+    CacheStats getCacheStats(@Nonnull Guild guild);
+
     /**
      * Attempts to retrieve a {@link net.dv8tion.jda.api.entities.User User} object based on the provided id.
      *
@@ -24,13 +24,16 @@ import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.dv8tion.jda.api.hooks.IEventManager;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.RateLimitStore;
 import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.RestResponseCache;
 import net.dv8tion.jda.api.utils.*;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.managers.PresenceImpl;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
@@ -74,6 +77,8 @@ public class JDABuilder
     protected ConcurrentMap<String, String> contextMap = null;
     protected SessionController controller = null;
     protected VoiceDispatchInterceptor voiceDispatchInterceptor = null;
+    protected RestResponseCache responseCache = null;
+    protected RateLimitStore rateLimitStore = null;
     protected OkHttpClient.Builder httpClientBuilder = null;
     protected OkHttpClient httpClient = null;
     protected WebSocketFactory wsFactory = null;
@@ -92,6 +97,8 @@ public class JDABuilder
     protected EnumSet<ConfigFlag> flags = ConfigFlag.getDefault();
     protected ChunkingFilter chunkingFilter = ChunkingFilter.ALL;
     protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
+    protected long presenceCoalescingWindow = 0;
+    protected int messageCacheChannelLimit = 0, messageCacheLimit = 0;
     protected GatewayEncoding encoding = GatewayEncoding.JSON;
 
     private JDABuilder(@Nullable String token, int intents)
@@ -566,6 +573,51 @@ public class JDABuilder
         return setFlag(ConfigFlag.USE_RELATIVE_RATELIMIT, enable);
     }
 
+    /**
+     * Whether REST requests should be executed without blocking a thread of the rate-limit pool.
+     * <br>By default, each bucket worker waits for the response of its request on a thread of the
+     * {@link #setRateLimitPool(ScheduledExecutorService) rate-limit pool}, which means the amount of requests
+     * in flight is limited by the size of that pool.
+     *
+     * <p>When enabled, requests are enqueued on the dispatcher of the {@link okhttp3.OkHttpClient OkHttpClient}
+     * and their responses are handled by its threads. The rate-limit pool is then only used to schedule the bucket workers,
+     * and the amount of requests in flight is limited by the {@link okhttp3.Dispatcher Dispatcher} instead.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enable
+     *         True, to execute requests asynchronously
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setAsyncRequestsEnabled(boolean enable)
+    {
+        return setFlag(ConfigFlag.ASYNC_REQUESTS, enable);
+    }
+
+    /**
+     * Whether identical GET requests which are in flight at the same time should share a single HTTP request.
+     * <br>This only applies to queued requests without a body or additional headers, for the same compiled route.
+     * A request which is queued while another request for that route is still waiting for its response
+     * will be completed with the same response, instead of sending another request.
+     *
+     * <p>Every request still has its own callbacks, checks, deadline, and can be cancelled individually.
+     * The HTTP request is only cancelled once every request sharing it has been cancelled.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enable
+     *         True, to share in-flight GET requests
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setRequestDeduplicationEnabled(boolean enable)
+    {
+        return setFlag(ConfigFlag.REQUEST_DEDUPLICATION, enable);
+    }
+
     /**
      * Enable specific cache flags.
      * <br>This will not disable any currently set cache flags.
@@ -710,6 +762,70 @@ public class JDABuilder
         return this;
     }
 
+    /**
+     * Sets the window in which repeated presence updates of the same member are coalesced.
+     * <br>The first {@code PRESENCE_UPDATE} of a member starts the window, updates within the window only replace the pending payload.
+     * Once the window has passed, only the latest payload is applied to the cache and fires events.
+     *
+     * <p>This trades event latency for less work on presence heavy {@link GatewayIntent#GUILD_PRESENCES GUILD_PRESENCES} sessions,
+     * since members often send multiple updates in quick succession.
+     * Coalesced updates are applied after any events received during their window, and are only flushed while the gateway receives messages.
+     *
+     * <p>Default: {@code 0} (disabled)
+     *
+     * @param  window
+     *         The window, or {@code 0} to handle every update immediately
+     * @param  unit
+     *         The time unit of the window
+     *
+     * @throws IllegalArgumentException
+     *         If the window is negative or the unit is null
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setPresenceCoalescingWindow(long window, @Nonnull TimeUnit unit)
+    {
+        Checks.notNegative(window, "Window");
+        Checks.notNull(unit, "TimeUnit");
+        this.presenceCoalescingWindow = unit.toMillis(window);
+        return this;
+    }
+
+    /**
+     * Enables the message cache, which keeps the most recent messages of each channel.
+     * <br>Cached messages are provided as the previous state in {@link net.dv8tion.jda.api.events.message.MessageUpdateEvent MessageUpdateEvent},
+     * {@link net.dv8tion.jda.api.events.message.MessageDeleteEvent MessageDeleteEvent}, and {@link net.dv8tion.jda.api.events.message.MessageBulkDeleteEvent MessageBulkDeleteEvent}.
+     * {@link net.dv8tion.jda.api.entities.channel.middleman.MessageChannel#retrieveMessageById(long) MessageChannel.retrieveMessageById(id)} also
+     * returns cached messages without making a request.
+     *
+     * <p>Messages are stored as their raw payload and evicted in the order they were received,
+     * once either the channel limit or the total limit is exceeded.
+     * This requires the {@link GatewayIntent#MESSAGE_CONTENT MESSAGE_CONTENT} intent to cache the message content.
+     *
+     * <p>Default: {@code 0, 0} (disabled)
+     *
+     * @param  channelLimit
+     *         The maximum amount of messages to cache per channel
+     * @param  totalLimit
+     *         The maximum amount of messages to cache in total, or {@code 0} to disable the message cache
+     *
+     * @throws IllegalArgumentException
+     *         If either limit is negative, or the channel limit is 0 while the total limit is not
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setMessageCacheSize(int channelLimit, int totalLimit)
+    {
+        Checks.notNegative(channelLimit, "Channel limit");
+        Checks.notNegative(totalLimit, "Total limit");
+        Checks.check(totalLimit == 0 || channelLimit > 0, "Channel limit must be positive if the message cache is enabled");
+        this.messageCacheChannelLimit = channelLimit;
+        this.messageCacheLimit = totalLimit;
+        return this;
+    }
+
     /**
      * Sets the {@link org.slf4j.MDC MDC} mappings to use in JDA.
      * <br>If sharding is enabled JDA will automatically add a {@code jda.shard} context with the format {@code [SHARD_ID / TOTAL]}
@@ -1140,6 +1256,30 @@ public class JDABuilder
         return setFlag(ConfigFlag.BULK_DELETE_SPLIT, enabled);
     }
 
+    /**
+     * Whether members should be created while their chunks arrive during guild setup.
+     * <br>By default, JDA buffers the payload of every member until chunking of the guild is completed.
+     * For large guilds this can require several times the memory of the finished cache during startup.
+     *
+     * <p>When enabled, the guild is cached once chunking starts and every chunk is immediately turned into members,
+     * applying the {@link net.dv8tion.jda.api.utils.MemberCachePolicy MemberCachePolicy} right away.
+     * The {@link net.dv8tion.jda.api.events.guild.GuildReadyEvent GuildReadyEvent} and other events of the guild
+     * are still only fired once chunking is completed.
+     * However, the guild and its members are accessible through the cache before that.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enabled
+     *         True, to create members while chunking
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setStreamingMemberSetupEnabled(boolean enabled)
+    {
+        return setFlag(ConfigFlag.STREAMING_MEMBER_SETUP, enabled);
+    }
+
     /**
      * Enables/Disables the use of a Shutdown hook to clean up JDA.
      * <br>When the Java program closes shutdown hooks are run. This is used as a last-second cleanup
@@ -1428,6 +1568,51 @@ public class JDABuilder
         return this;
     }
 
+    /**
+     * Configures a cache for the responses of GET requests.
+     * <br>Requests for a route with a valid cached response are completed without sending an HTTP request,
+     * which saves both latency and rate-limit budget for data that rarely changes, such as emojis or invites.
+     *
+     * <p>Cached responses are invalidated by successful requests on mutating routes and by related gateway events.
+     * Responses are only cached for routes with a configured time to live, see {@link net.dv8tion.jda.api.requests.DefaultRestResponseCache DefaultRestResponseCache}.
+     *
+     * <p>Default: <b>null (disabled)</b>
+     *
+     * @param  cache
+     *         The response cache, or null to disable caching
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     *
+     * @see    RestResponseCache
+     */
+    @Nonnull
+    public JDABuilder setRestResponseCache(@Nullable RestResponseCache cache)
+    {
+        this.responseCache = cache;
+        return this;
+    }
+
+    /**
+     * Configures a store for the rate-limit bucket hashes and limits learned from responses.
+     * <br>The store is loaded on startup, which means the first requests after a restart are placed into their
+     * correct buckets right away, instead of being queued one at a time until the first response reveals the bucket.
+     *
+     * <p>Default: <b>null (disabled)</b>
+     *
+     * @param  store
+     *         The store, or null to disable persisting rate-limit information
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     *
+     * @see    net.dv8tion.jda.api.requests.FileRateLimitStore FileRateLimitStore
+     */
+    @Nonnull
+    public JDABuilder setRateLimitStore(@Nullable RateLimitStore store)
+    {
+        this.rateLimitStore = store;
+        return this;
+    }
+
     /**
      * The {@link ChunkingFilter} to filter which guilds should use member chunking.
      *
@@ -1775,11 +1960,14 @@ public class JDABuilder
         threadingConfig.setRateLimitPool(rateLimitPool, shutdownRateLimitPool);
         threadingConfig.setEventPool(eventPool, shutdownEventPool);
         threadingConfig.setAudioPool(audioPool, shutdownAudioPool);
-        SessionConfig sessionConfig = new SessionConfig(controller, httpClient, wsFactory, voiceDispatchInterceptor, flags, maxReconnectDelay, largeThreshold);
+        SessionConfig sessionConfig = new SessionConfig(controller, httpClient, wsFactory, voiceDispatchInterceptor, responseCache, rateLimitStore, flags, maxReconnectDelay, largeThreshold);
         MetaConfig metaConfig = new MetaConfig(maxBufferSize, contextMap, cacheFlags, flags);
 
         JDAImpl jda = new JDAImpl(authConfig, sessionConfig, threadingConfig, metaConfig);
         jda.setMemberCachePolicy(memberCachePolicy);
+        jda.setPresenceCoalescingWindow(presenceCoalescingWindow);
+        if (messageCacheLimit > 0)
+            jda.setMessageCache(new MessageCache(messageCacheChannelLimit, messageCacheLimit));
         // We can only do member chunking with the GUILD_MEMBERS intent
         if ((intents & GatewayIntent.GUILD_MEMBERS.getRawValue()) == 0)
             jda.setChunkingFilter(ChunkingFilter.NONE);
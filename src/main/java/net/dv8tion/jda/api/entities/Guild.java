@@ -57,10 +57,12 @@ import net.dv8tion.jda.api.requests.restaction.pagination.PaginationAction;
 import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.ImageProxy;
 import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.api.utils.PermissionMatrix;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.api.utils.cache.MemberCacheView;
 import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
 import net.dv8tion.jda.api.utils.cache.SortedSnowflakeCacheView;
+import net.dv8tion.jda.api.utils.concurrent.MemberSubscriber;
 import net.dv8tion.jda.api.utils.concurrent.Task;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
 import net.dv8tion.jda.internal.requests.DeferredRestAction;
@@ -1280,6 +1282,50 @@ public interface Guild extends IGuildChannelContainer, ISnowflake
     @Nonnull
     MemberCacheView getMemberCache();
 
+    /**
+     * Computes the effective permissions of all cached members in the provided channels at once.
+     * <br>This is much faster than checking every member individually, since members with the same roles
+     * share their permissions, unless they have member specific overrides.
+     *
+     * <p>The matrix is a snapshot and does not reflect any later changes to roles, overrides, or the member cache.
+     *
+     * @param  channels
+     *         The channels to compute the permissions for
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided or any of the channels is from a different guild
+     *
+     * @return {@link PermissionMatrix} of all cached members and the provided channels
+     *
+     * @see    Member#getPermissions(GuildChannel)
+     */
+    @Nonnull
+    PermissionMatrix getPermissionMatrix(@Nonnull Collection<? extends GuildChannel> channels);
+
+    /**
+     * Computes the effective permissions of all cached members in the provided channels at once.
+     * <br>This is much faster than checking every member individually, since members with the same roles
+     * share their permissions, unless they have member specific overrides.
+     *
+     * <p>The matrix is a snapshot and does not reflect any later changes to roles, overrides, or the member cache.
+     *
+     * @param  channels
+     *         The channels to compute the permissions for
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided or any of the channels is from a different guild
+     *
+     * @return {@link PermissionMatrix} of all cached members and the provided channels
+     *
+     * @see    Member#getPermissions(GuildChannel)
+     */
+    @Nonnull
+    default PermissionMatrix getPermissionMatrix(@Nonnull GuildChannel... channels)
+    {
+        Checks.noneNull(channels, "Channels");
+        return getPermissionMatrix(Arrays.asList(channels));
+    }
+
     /**
      * Sorted {@link SnowflakeCacheView} of
      * all cached {@link ScheduledEvent ScheduledEvents} of this Guild.
@@ -2610,6 +2656,29 @@ public interface Guild extends IGuildChannelContainer, ISnowflake
     @Nonnull
     Task<Void> loadMembers(@Nonnull Consumer<Member> callback);
 
+    /**
+     * Streams all members of this guild to the provided subscriber, only as fast as it requests them.
+     * <br>This will use the configured {@link net.dv8tion.jda.api.utils.MemberCachePolicy MemberCachePolicy}
+     * to decide which members to retain in cache.
+     *
+     * <p>Unlike {@link #loadMembers(Consumer)}, the member chunks are only requested once the subscriber requests the first members,
+     * and members are only passed to the subscriber as it requests them.
+     * Discord sends all chunks of a guild without waiting for the subscriber,
+     * so members which arrive faster than the subscriber consumes them are buffered until they are requested.
+     * A slow subscriber can therefore end up with all members of the guild in memory at once.
+     *
+     * <p><b>This requires the privileged GatewayIntent.GUILD_MEMBERS to be enabled!</b>
+     *
+     * @param  subscriber
+     *         The {@link MemberSubscriber} receiving the members
+     *
+     * @throws IllegalArgumentException
+     *         If the subscriber is null
+     * @throws IllegalStateException
+     *         If the {@link GatewayIntent#GUILD_MEMBERS GatewayIntent.GUILD_MEMBERS} is not enabled
+     */
+    void subscribeMembers(@Nonnull MemberSubscriber subscriber);
+
     /**
      * Load the member for the specified {@link UserSnowflake}.
      * <br>If the member is already loaded it will be retrieved from {@link #getMemberById(long)}
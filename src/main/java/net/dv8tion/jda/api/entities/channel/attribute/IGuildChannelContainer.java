@@ -164,7 +164,7 @@ public interface IGuildChannelContainer
     @Nullable
     default GuildChannel getGuildChannelById(long id)
     {
-        //TODO-v5-unified-channel-cache
+        // JDA and Guild override this with a lookup in their unified channel cache
         GuildChannel channel = getTextChannelById(id);
         if (channel == null)
             channel = getNewsChannelById(id);
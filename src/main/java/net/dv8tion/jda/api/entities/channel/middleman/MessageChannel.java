@@ -54,9 +54,11 @@ import net.dv8tion.jda.internal.requests.restaction.pagination.MessagePagination
 import net.dv8tion.jda.internal.requests.restaction.pagination.ReactionPaginationActionImpl;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.EncodingUtil;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.InputStream;
 import java.util.*;
@@ -733,6 +735,8 @@ public interface MessageChannel extends Channel, Formattable
      * <p>The {@link Message#getMember() Message.getMember()} method will always return null for the resulting message.
      * To retrieve the member you can use {@code getGuild().retrieveMember(message.getAuthor())}.
      *
+     * <p>This always makes a request, use {@link #getCachedMessageById(long)} to check the message cache first.
+     *
      * <p>The following {@link net.dv8tion.jda.api.requests.ErrorResponse ErrorResponses} are possible:
      * <ul>
      *     <li>{@link net.dv8tion.jda.api.requests.ErrorResponse#MISSING_ACCESS MISSING_ACCESS}
@@ -829,6 +833,46 @@ public interface MessageChannel extends Channel, Formattable
         return retrieveMessageById(Long.toUnsignedString(messageId));
     }
 
+    /**
+     * The {@link net.dv8tion.jda.api.entities.Message Message} with the provided id from the message cache.
+     * <br>The message cache is disabled by default, it can be enabled with {@link net.dv8tion.jda.api.JDABuilder#setMessageCacheSize(int, int)}.
+     *
+     * <p>The cache only contains messages received while the bot was connected, which have not been evicted yet.
+     * The returned message reflects the last received state, use {@link #retrieveMessageById(String)} to get the current state.
+     *
+     * @param  messageId
+     *         The id of the message
+     *
+     * @throws IllegalArgumentException
+     *         If the provided {@code messageId} is not a valid snowflake
+     *
+     * @return Possibly-null cached message
+     */
+    @Nullable
+    default Message getCachedMessageById(@Nonnull String messageId)
+    {
+        return getCachedMessageById(MiscUtil.parseSnowflake(messageId));
+    }
+
+    /**
+     * The {@link net.dv8tion.jda.api.entities.Message Message} with the provided id from the message cache.
+     * <br>The message cache is disabled by default, it can be enabled with {@link net.dv8tion.jda.api.JDABuilder#setMessageCacheSize(int, int)}.
+     *
+     * <p>The cache only contains messages received while the bot was connected, which have not been evicted yet.
+     * The returned message reflects the last received state, use {@link #retrieveMessageById(long)} to get the current state.
+     *
+     * @param  messageId
+     *         The id of the message
+     *
+     * @return Possibly-null cached message
+     */
+    @Nullable
+    default Message getCachedMessageById(long messageId)
+    {
+        MessageCache messageCache = ((JDAImpl) getJDA()).getMessageCache();
+        return messageCache == null ? null : messageCache.get(this, messageId);
+    }
+
     /**
      * Attempts to delete a {@link net.dv8tion.jda.api.entities.Message Message} from the Discord servers that has
      * the same id as the id provided.
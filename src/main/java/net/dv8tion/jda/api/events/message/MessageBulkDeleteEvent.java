@@ -17,6 +17,7 @@ package net.dv8tion.jda.api.events.message;
 
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
 import net.dv8tion.jda.api.entities.channel.unions.GuildMessageChannelUnion;
 import net.dv8tion.jda.api.events.Event;
@@ -43,12 +44,19 @@ public class MessageBulkDeleteEvent extends Event
 {
     protected final GuildMessageChannel channel;
     protected final List<String> messageIds;
+    protected final List<Message> cachedMessages;
 
     public MessageBulkDeleteEvent(@Nonnull JDA api, long responseNumber, @Nonnull GuildMessageChannel channel, @Nonnull List<String> messageIds)
+    {
+        this(api, responseNumber, channel, messageIds, Collections.emptyList());
+    }
+
+    public MessageBulkDeleteEvent(@Nonnull JDA api, long responseNumber, @Nonnull GuildMessageChannel channel, @Nonnull List<String> messageIds, @Nonnull List<Message> cachedMessages)
     {
         super(api, responseNumber);
         this.channel = channel;
         this.messageIds = Collections.unmodifiableList(messageIds);
+        this.cachedMessages = Collections.unmodifiableList(cachedMessages);
     }
 
     /**
@@ -83,4 +91,16 @@ public class MessageBulkDeleteEvent extends Event
     {
         return messageIds;
     }
+
+    /**
+     * The deleted messages which were still cached by the message cache.
+     * <br>This is always empty, unless the message cache is enabled with {@link net.dv8tion.jda.api.JDABuilder#setMessageCacheSize(int, int)}.
+     *
+     * @return Immutable list of the cached messages, in no particular order
+     */
+    @Nonnull
+    public List<Message> getCachedMessages()
+    {
+        return cachedMessages;
+    }
 }
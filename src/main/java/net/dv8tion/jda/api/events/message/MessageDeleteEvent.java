@@ -16,17 +16,20 @@
 package net.dv8tion.jda.api.events.message;
 
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Indicates that a Message was deleted in a {@link net.dv8tion.jda.api.entities.channel.middleman.MessageChannel MessageChannel}.
  * 
  * <p>Can be used to detect when a Message is deleted. No matter if private or guild.
  *
- * <p><b>JDA does not have a cache for messages and is not able to provide previous information due to limitations by the
- * Discord API!</b>
+ * <p><b>JDA does not cache messages by default and is not able to provide previous information due to limitations by the
+ * Discord API!</b> If the message cache is enabled with {@link net.dv8tion.jda.api.JDABuilder#setMessageCacheSize(int, int)},
+ * the deleted message is available through {@link #getCachedMessage()} while it is still cached.
  *
  * <p><b>Requirements</b><br>
  *
@@ -38,8 +41,28 @@ import javax.annotation.Nonnull;
  */
 public class MessageDeleteEvent extends GenericMessageEvent
 {
+    private final Message cachedMessage;
+
     public MessageDeleteEvent(@Nonnull JDA api, long responseNumber, long messageId, @Nonnull MessageChannel channel)
+    {
+        this(api, responseNumber, messageId, channel, null);
+    }
+
+    public MessageDeleteEvent(@Nonnull JDA api, long responseNumber, long messageId, @Nonnull MessageChannel channel, @Nullable Message cachedMessage)
     {
         super(api, responseNumber, messageId, channel);
+        this.cachedMessage = cachedMessage;
+    }
+
+    /**
+     * The deleted message, as it was last seen by the message cache.
+     * <br>This is always null, unless the message cache is enabled with {@link net.dv8tion.jda.api.JDABuilder#setMessageCacheSize(int, int)}.
+     *
+     * @return The cached message, or null if the message was not cached
+     */
+    @Nullable
+    public Message getCachedMessage()
+    {
+        return cachedMessage;
     }
 }
@@ -29,8 +29,9 @@ import javax.annotation.Nullable;
  * <p>Can be used to detect a Message is edited in either a private or guild channel. Providing a MessageChannel and Message.
  * <br>This also includes whether a message is being pinned.
  *
- * <p><b>JDA does not have a cache for messages and is not able to provide previous information due to limitations by the
- * Discord API!</b>
+ * <p><b>JDA does not cache messages by default and is not able to provide previous information due to limitations by the
+ * Discord API!</b> If the message cache is enabled with {@link net.dv8tion.jda.api.JDABuilder#setMessageCacheSize(int, int)},
+ * the previous version of the message is available through {@link #getPreviousMessage()} while it is still cached.
  *
  * <p><b>Requirements</b><br>
  *
@@ -43,11 +44,18 @@ import javax.annotation.Nullable;
 public class MessageUpdateEvent extends GenericMessageEvent
 {
     private final Message message;
+    private final Message previous;
 
     public MessageUpdateEvent(@Nonnull JDA api, long responseNumber, @Nonnull Message message)
+    {
+        this(api, responseNumber, message, null);
+    }
+
+    public MessageUpdateEvent(@Nonnull JDA api, long responseNumber, @Nonnull Message message, @Nullable Message previous)
     {
         super(api, responseNumber, message.getIdLong(), message.getChannel());
         this.message = message;
+        this.previous = previous;
     }
 
     /**
@@ -62,6 +70,18 @@ public class MessageUpdateEvent extends GenericMessageEvent
         return message;
     }
 
+    /**
+     * The {@link net.dv8tion.jda.api.entities.Message Message} before this update, as it was last seen by the message cache.
+     * <br>This is always null, unless the message cache is enabled with {@link net.dv8tion.jda.api.JDABuilder#setMessageCacheSize(int, int)}.
+     *
+     * @return The previous Message, or null if the message was not cached
+     */
+    @Nullable
+    public Message getPreviousMessage()
+    {
+        return previous;
+    }
+
     /**
      * The author of the Message.
      *
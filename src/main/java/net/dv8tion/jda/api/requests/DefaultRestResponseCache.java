@@ -0,0 +1,349 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.internal.requests.Method;
+import net.dv8tion.jda.internal.requests.Route;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Default implementation of {@link RestResponseCache}, with a time to live per {@link Route}.
+ * <br>Responses are only cached for routes with a configured time to live.
+ * Once more than the maximum amount of responses are cached, the least recently used response is evicted.
+ *
+ * <p>A successful request on a mutating route invalidates the responses of all routes which are a prefix of it,
+ * or which it is a prefix of. For instance, adding a ban with {@code PUT guilds/1/bans/2} invalidates
+ * the cached ban list of {@code GET guilds/1/bans}.
+ * Responses of requests which were in flight during an invalidation are only discarded if the invalidation affects their route.
+ * The most recent invalidations are remembered for this, once there are too many the oldest ones are forgotten,
+ * and responses of requests sent before those are discarded regardless of their route.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * RestResponseCache cache = new DefaultRestResponseCache(1000)
+ *     .setTimeToLive(Route.Emojis.GET_EMOJIS, 5, TimeUnit.MINUTES)
+ *     .setTimeToLive(Route.Invites.GET_GUILD_INVITES, 30, TimeUnit.SECONDS);
+ * }</pre>
+ */
+public class DefaultRestResponseCache implements RestResponseCache
+{
+    // The amount of invalidations remembered for each kind of key
+    protected static final int MAX_INVALIDATIONS = 1000;
+
+    protected final ReentrantLock lock = new ReentrantLock();
+    protected final Map<Route, Long> timeToLive = new ConcurrentHashMap<>();
+    protected final LinkedHashMap<Route.CompiledRoute, CachedResponse> responses;
+    // Id of an entity in the path -> Cached routes which refer to it
+    protected final TLongObjectMap<Set<Route.CompiledRoute>> routesById = new TLongObjectHashMap<>();
+    // Path without query -> Cached routes with that path
+    protected final Map<String, Set<Route.CompiledRoute>> routesByPath = new HashMap<>();
+
+    // Every invalidation is assigned the next generation, which is recorded for the affected paths and ids
+    protected long generation = 0;
+    // Requests sent before this generation might be affected by a forgotten invalidation
+    protected long forgottenGeneration = 0;
+    // Paths of mutating requests
+    protected final InvalidationLog<String> invalidatedPaths = new InvalidationLog<>();
+    // Paths of mutating requests and all their prefixes
+    protected final InvalidationLog<String> invalidatedPrefixes = new InvalidationLog<>();
+    protected final InvalidationLog<Long> invalidatedIds = new InvalidationLog<>();
+
+    /**
+     * Creates a new cache, which holds at most the provided amount of responses.
+     *
+     * @param  maxSize
+     *         The maximum amount of cached responses
+     *
+     * @throws IllegalArgumentException
+     *         If the provided size is not positive
+     */
+    public DefaultRestResponseCache(int maxSize)
+    {
+        Checks.positive(maxSize, "Max size");
+        this.responses = new LinkedHashMap<Route.CompiledRoute, CachedResponse>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Route.CompiledRoute, CachedResponse> eldest)
+            {
+                if (size() <= maxSize)
+                    return false;
+                unindex(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Configures how long responses for the provided route stay valid.
+     * <br>A time of {@code 0} disables caching for this route.
+     *
+     * @param  route
+     *         The GET route
+     * @param  time
+     *         The time to live
+     * @param  unit
+     *         The time unit
+     *
+     * @throws IllegalArgumentException
+     *         If the route is null or not a GET route, or the time is negative
+     *
+     * @return The same cache instance, for chaining convenience
+     */
+    @Nonnull
+    public DefaultRestResponseCache setTimeToLive(@Nonnull Route route, long time, @Nonnull TimeUnit unit)
+    {
+        Checks.notNull(route, "Route");
+        Checks.notNull(unit, "TimeUnit");
+        Checks.notNegative(time, "Time");
+        Checks.check(route.getMethod() == Method.GET, "Only responses of GET routes can be cached");
+        if (time == 0)
+            timeToLive.remove(route);
+        else
+            timeToLive.put(route, unit.toMillis(time));
+        return this;
+    }
+
+    @Override
+    public long getTimeToLive(@Nonnull Route.CompiledRoute route)
+    {
+        return timeToLive.getOrDefault(route.getBaseRoute(), 0L);
+    }
+
+    @Nullable
+    @Override
+    public CachedResponse get(@Nonnull Route.CompiledRoute route)
+    {
+        return MiscUtil.locked(lock, () -> responses.get(route));
+    }
+
+    @Override
+    public long getGeneration()
+    {
+        return MiscUtil.locked(lock, () -> generation);
+    }
+
+    @Override
+    public void put(@Nonnull Route.CompiledRoute route, @Nonnull CachedResponse response, long generation)
+    {
+        String path = getPath(route);
+        TLongList ids = getIds(route);
+        MiscUtil.locked(lock, () -> {
+            // The response might be outdated by an invalidation which happened while the request was in flight
+            if (isInvalidated(path, ids, generation))
+                return;
+            if (responses.put(route, response) != null)
+                return;
+            for (TLongIterator it = ids.iterator(); it.hasNext();)
+            {
+                long id = it.next();
+                Set<Route.CompiledRoute> routes = routesById.get(id);
+                if (routes == null)
+                    routesById.put(id, routes = new HashSet<>());
+                routes.add(route);
+            }
+            routesByPath.computeIfAbsent(path, k -> new HashSet<>()).add(route);
+        });
+    }
+
+    @Override
+    public void invalidate(@Nonnull Route.CompiledRoute route)
+    {
+        String path = getPath(route);
+        TLongList ids = getIds(route);
+        MiscUtil.locked(lock, () -> {
+            long generation = ++this.generation;
+            invalidatedPaths.record(path, generation);
+
+            // Routes which are a prefix of the path
+            int end = 0;
+            while (end >= 0)
+            {
+                end = path.indexOf('/', end + 1);
+                String prefix = end < 0 ? path : path.substring(0, end);
+                invalidatedPrefixes.record(prefix, generation);
+                remove(routesByPath.get(prefix));
+            }
+
+            // Routes which the path is a prefix of, these refer to all ids of the path
+            Collection<Route.CompiledRoute> candidates = ids.isEmpty() ? responses.keySet() : routesById.get(ids.get(0));
+            if (candidates == null)
+                return;
+            List<Route.CompiledRoute> affected = new ArrayList<>();
+            for (Route.CompiledRoute cached : candidates)
+            {
+                if (isPrefix(path, getPath(cached)))
+                    affected.add(cached);
+            }
+            remove(affected);
+        });
+    }
+
+    @Override
+    public void invalidate(long id)
+    {
+        MiscUtil.locked(lock, () -> {
+            invalidatedIds.record(id, ++generation);
+            remove(routesById.get(id));
+        });
+    }
+
+    @Override
+    public void clear()
+    {
+        MiscUtil.locked(lock, () -> {
+            forgottenGeneration = ++generation;
+            invalidatedPaths.clear();
+            invalidatedPrefixes.clear();
+            invalidatedIds.clear();
+            responses.clear();
+            routesById.clear();
+            routesByPath.clear();
+        });
+    }
+
+    // Called with the lock held
+    protected boolean isInvalidated(String path, TLongList ids, long since)
+    {
+        if (since < forgottenGeneration || invalidatedPrefixes.isInvalidated(path, since))
+            return true;
+        for (int end = path.indexOf('/'); end >= 0; end = path.indexOf('/', end + 1))
+        {
+            if (invalidatedPaths.isInvalidated(path.substring(0, end), since))
+                return true;
+        }
+        for (TLongIterator it = ids.iterator(); it.hasNext();)
+        {
+            if (invalidatedIds.isInvalidated(it.next(), since))
+                return true;
+        }
+        return false;
+    }
+
+    // Called with the lock held
+    protected void remove(@Nullable Collection<Route.CompiledRoute> routes)
+    {
+        if (routes == null)
+            return;
+        for (Route.CompiledRoute cached : new ArrayList<>(routes))
+        {
+            responses.remove(cached);
+            unindex(cached);
+        }
+    }
+
+    // Called with the lock held, once the route has been removed from the responses
+    protected void unindex(Route.CompiledRoute route)
+    {
+        for (TLongIterator it = getIds(route).iterator(); it.hasNext();)
+        {
+            long id = it.next();
+            Set<Route.CompiledRoute> routes = routesById.get(id);
+            if (routes != null && routes.remove(route) && routes.isEmpty())
+                routesById.remove(id);
+        }
+        String path = getPath(route);
+        Set<Route.CompiledRoute> routes = routesByPath.get(path);
+        if (routes != null && routes.remove(route) && routes.isEmpty())
+            routesByPath.remove(path);
+    }
+
+    protected static TLongList getIds(Route.CompiledRoute route)
+    {
+        // Every numeric segment of the path is treated as the id of an entity
+        String path = getPath(route);
+        TLongList ids = new TLongArrayList(2);
+        int start = 0;
+        while (start < path.length())
+        {
+            int end = path.indexOf('/', start);
+            if (end < 0)
+                end = path.length();
+            if (end > start && isNumeric(path, start, end))
+            {
+                try
+                {
+                    ids.add(Long.parseUnsignedLong(path.substring(start, end)));
+                }
+                catch (NumberFormatException ignored) {} // Too large to be an id
+            }
+            start = end + 1;
+        }
+        return ids;
+    }
+
+    private static boolean isNumeric(String path, int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9')
+                return false;
+        }
+        return true;
+    }
+
+    protected static String getPath(Route.CompiledRoute route)
+    {
+        String path = route.getCompiledRoute();
+        int query = path.indexOf('?');
+        return query < 0 ? path : path.substring(0, query);
+    }
+
+    protected static boolean isPrefix(String prefix, String path)
+    {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    // Generation of the latest invalidation by key, in the order they happened
+    protected class InvalidationLog<K> extends LinkedHashMap<K, Long>
+    {
+        protected void record(K key, long generation)
+        {
+            // Re-inserting keeps the oldest invalidation first
+            remove(key);
+            put(key, generation);
+        }
+
+        protected boolean isInvalidated(K key, long since)
+        {
+            Long generation = get(key);
+            return generation != null && generation > since;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Long> eldest)
+        {
+            if (size() <= MAX_INVALIDATIONS)
+                return false;
+            forgottenGeneration = Math.max(forgottenGeneration, eldest.getValue());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link RateLimitStore} which keeps the snapshot in a JSON file.
+ * <br>Snapshots saved by different shards are merged, so one instance can be shared by all shards.
+ *
+ * <p>The file is replaced atomically where supported, which means an interrupted save never leaves a corrupted file.
+ * A file that cannot be read is ignored, since the rate-limiter can learn all information again.
+ */
+public class FileRateLimitStore implements RateLimitStore
+{
+    private static final Logger LOG = JDALogger.getLog(RateLimitStore.class);
+
+    protected final Path path;
+    protected final Map<String, String> hashes = new HashMap<>();
+    protected final Map<String, Integer> limits = new HashMap<>();
+
+    /**
+     * Creates a new store for the provided file, which is created on the first save.
+     *
+     * @param  path
+     *         The path of the file
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     */
+    public FileRateLimitStore(@Nonnull Path path)
+    {
+        Checks.notNull(path, "Path");
+        this.path = path;
+    }
+
+    @Nonnull
+    @Override
+    public synchronized Snapshot load()
+    {
+        if (Files.exists(path))
+        {
+            try (InputStream stream = Files.newInputStream(path))
+            {
+                DataObject json = DataObject.fromJson(stream);
+                DataObject hashes = json.getObject("hashes");
+                DataObject limits = json.getObject("limits");
+                for (String route : hashes.keys())
+                    this.hashes.putIfAbsent(route, hashes.getString(route));
+                for (String hash : limits.keys())
+                    this.limits.putIfAbsent(hash, limits.getInt(hash));
+            }
+            catch (Exception e)
+            {
+                LOG.warn("Failed to load rate-limit snapshot from {}", path, e);
+            }
+        }
+        return new Snapshot(new HashMap<>(hashes), new HashMap<>(limits));
+    }
+
+    @Override
+    public synchronized void save(@Nonnull Snapshot snapshot)
+    {
+        hashes.putAll(snapshot.getHashes());
+        limits.putAll(snapshot.getLimits());
+
+        DataObject hashesJson = DataObject.empty();
+        DataObject limitsJson = DataObject.empty();
+        hashes.forEach(hashesJson::put);
+        limits.forEach(limitsJson::put);
+        DataObject json = DataObject.empty()
+            .put("hashes", hashesJson)
+            .put("limits", limitsJson);
+
+        try
+        {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null)
+                Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "ratelimits", ".tmp");
+            Files.write(temp, json.toJson());
+            try
+            {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException e)
+            {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOG.debug("Saved {} bucket hashes to {}", hashes.size(), path);
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Failed to save rate-limit snapshot to {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.internal.requests.Method;
+import net.dv8tion.jda.internal.requests.Route;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Storage for the rate-limit information learned from responses, which is preloaded on startup.
+ *
+ * <p>Without a known bucket hash, the requests of a route are queued in a temporary bucket, one request at a time,
+ * until the first response reveals the hash. Preloading the hashes places the first requests after a restart
+ * into their correct buckets right away.
+ *
+ * <p>The store is loaded when the rate-limiter starts and saved periodically and on shutdown.
+ * When it is shared by multiple shards, implementations have to merge the saved snapshots.
+ *
+ * @see FileRateLimitStore
+ * @see net.dv8tion.jda.api.JDABuilder#setRateLimitStore(RateLimitStore)
+ */
+public interface RateLimitStore
+{
+    /**
+     * Loads the previously saved snapshot.
+     *
+     * @return The snapshot, empty if nothing was saved yet
+     */
+    @Nonnull
+    Snapshot load();
+
+    /**
+     * Saves the provided snapshot.
+     *
+     * @param snapshot
+     *        The learned rate-limit information
+     */
+    void save(@Nonnull Snapshot snapshot);
+
+    /**
+     * The bucket hashes of routes and the last known limits of buckets.
+     */
+    final class Snapshot
+    {
+        private final Map<String, String> hashes;
+        private final Map<String, Integer> limits;
+
+        /**
+         * Creates a new snapshot.
+         *
+         * @param hashes
+         *        The bucket hash for each route, keyed by method and route, for instance {@code "GET channels/{channel_id}"}
+         * @param limits
+         *        The last known limit for each bucket hash
+         */
+        public Snapshot(@Nonnull Map<String, String> hashes, @Nonnull Map<String, Integer> limits)
+        {
+            this.hashes = Collections.unmodifiableMap(hashes);
+            this.limits = Collections.unmodifiableMap(limits);
+        }
+
+        @Nonnull
+        public Map<String, String> getHashes()
+        {
+            return hashes;
+        }
+
+        @Nonnull
+        public Map<String, Integer> getLimits()
+        {
+            return limits;
+        }
+
+        public boolean isEmpty()
+        {
+            return hashes.isEmpty();
+        }
+
+        /**
+         * The key of the provided route in {@link #getHashes()}, for instance {@code "GET channels/{channel_id}"}.
+         *
+         * @param  route
+         *         The route
+         *
+         * @return The key
+         */
+        @Nonnull
+        public static String toKey(@Nonnull Route route)
+        {
+            return route.getMethod() + " " + route.getRoute();
+        }
+
+        /**
+         * Parses a key of {@link #getHashes()} back into its route.
+         *
+         * @param  key
+         *         The key, for instance {@code "GET channels/{channel_id}"}
+         *
+         * @return The route, or null if the key is invalid
+         */
+        @Nullable
+        public static Route parseKey(@Nonnull String key)
+        {
+            int separator = key.indexOf(' ');
+            if (separator < 0)
+                return null;
+            try
+            {
+                return Route.custom(Method.valueOf(key.substring(0, separator)), key.substring(separator + 1));
+            }
+            catch (IllegalArgumentException e)
+            {
+                return null;
+            }
+        }
+    }
+}
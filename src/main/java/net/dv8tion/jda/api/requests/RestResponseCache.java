@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.internal.requests.Route;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * Cache for the responses of GET requests, keyed by their {@link Route.CompiledRoute CompiledRoute}.
+ *
+ * <p>Requests for a route with a cached response that has not expired yet are completed with the cached response,
+ * without sending an HTTP request or using any rate-limit budget.
+ * Expired responses which provided an {@code ETag} are revalidated with an {@code If-None-Match} header,
+ * a {@code 304 Not Modified} response then refreshes the cached response.
+ *
+ * <p>Cached responses are invalidated by successful requests on mutating routes and by gateway events,
+ * see {@link #invalidate(Route.CompiledRoute)} and {@link #invalidate(long)}.
+ *
+ * <p>Implementations have to be thread-safe, since they are accessed by the threads of the rate-limiter and the http client.
+ *
+ * @see DefaultRestResponseCache
+ * @see net.dv8tion.jda.api.JDABuilder#setRestResponseCache(RestResponseCache)
+ */
+public interface RestResponseCache
+{
+    /**
+     * The time in milliseconds a response for the provided route stays valid.
+     *
+     * @param  route
+     *         The compiled GET route
+     *
+     * @return The time to live in milliseconds, or {@code 0} if responses for this route should not be cached
+     */
+    long getTimeToLive(@Nonnull Route.CompiledRoute route);
+
+    /**
+     * The cached response for the provided route.
+     * <br>This can return expired responses, which are still used for revalidation.
+     *
+     * @param  route
+     *         The compiled GET route
+     *
+     * @return The cached response, or null
+     */
+    @Nullable
+    CachedResponse get(@Nonnull Route.CompiledRoute route);
+
+    /**
+     * The current generation of this cache, which is incremented by every invalidation.
+     * <br>This is captured when a request is sent, to discard responses which might have been outdated by an invalidation in the meantime.
+     * Implementations should only discard responses of routes which are affected by such an invalidation.
+     *
+     * @return The current generation
+     */
+    long getGeneration();
+
+    /**
+     * Caches the response for the provided route, replacing any previous response.
+     * <br>The response is discarded if the route has been invalidated since the provided {@link #getGeneration() generation}.
+     *
+     * @param route
+     *        The compiled GET route
+     * @param response
+     *        The response to cache
+     * @param generation
+     *        The generation of this cache at the time the request was sent
+     */
+    void put(@Nonnull Route.CompiledRoute route, @Nonnull CachedResponse response, long generation);
+
+    /**
+     * Invalidates the responses affected by a successful request on the provided mutating route.
+     *
+     * @param route
+     *        The compiled route of the mutating request
+     */
+    void invalidate(@Nonnull Route.CompiledRoute route);
+
+    /**
+     * Invalidates all responses of routes which refer to the provided entity, such as a guild or channel.
+     * <br>This is used when a gateway event indicates that the entity has been modified.
+     *
+     * @param id
+     *        The id of the modified entity
+     */
+    void invalidate(long id);
+
+    /**
+     * Removes all cached responses.
+     */
+    void clear();
+
+    /**
+     * Body and headers of a successful response, with the time it expires at.
+     */
+    final class CachedResponse
+    {
+        private final okhttp3.Response response;
+        private final MediaType contentType;
+        private final byte[] body;
+        private final long expiresAt;
+
+        private CachedResponse(okhttp3.Response response, MediaType contentType, byte[] body, long expiresAt)
+        {
+            this.response = response;
+            this.contentType = contentType;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Copies the body of the provided response, without consuming it.
+         *
+         * @param  response
+         *         The successful response
+         * @param  timeToLive
+         *         The time in milliseconds this response stays valid
+         *
+         * @throws IOException
+         *         If the body could not be read
+         *
+         * @return The cached response
+         */
+        @Nonnull
+        public static CachedResponse of(@Nonnull okhttp3.Response response, long timeToLive) throws IOException
+        {
+            ResponseBody body = response.peekBody(Long.MAX_VALUE);
+            okhttp3.Response headers = response.newBuilder().body(null).build();
+            return new CachedResponse(headers, body.contentType(), body.bytes(), System.currentTimeMillis() + timeToLive);
+        }
+
+        /**
+         * The same response, valid for the provided time from now on.
+         * <br>This is used when the response has been revalidated.
+         *
+         * @param  timeToLive
+         *         The time in milliseconds this response stays valid
+         *
+         * @return The refreshed response
+         */
+        @Nonnull
+        public CachedResponse refresh(long timeToLive)
+        {
+            return new CachedResponse(response, contentType, body, System.currentTimeMillis() + timeToLive);
+        }
+
+        /**
+         * The {@code ETag} header of the response, used for revalidation.
+         *
+         * @return The entity tag, or null if the response didn't provide one
+         */
+        @Nullable
+        public String getEntityTag()
+        {
+            return response.header("etag");
+        }
+
+        /**
+         * The approximate size of this response in bytes.
+         *
+         * @return The size of the body
+         */
+        public int getSize()
+        {
+            return body.length;
+        }
+
+        public boolean isExpired()
+        {
+            return expiresAt < System.currentTimeMillis();
+        }
+
+        /**
+         * Creates a new response with the cached headers and body, which can be handled like a response from the network.
+         *
+         * @return The response
+         */
+        @Nonnull
+        @SuppressWarnings("deprecation")
+        public okhttp3.Response toResponse()
+        {
+            return response.newBuilder().body(ResponseBody.create(contentType, body)).build();
+        }
+    }
+}
@@ -16,11 +16,17 @@
 package net.dv8tion.jda.api.sharding;
 
 import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.SelfUser;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.Channel;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.entities.channel.concrete.*;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.utils.ChunkingFilter;
@@ -36,6 +42,7 @@ import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.UnlockHook;
 import net.dv8tion.jda.internal.utils.cache.ShardCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.ShardRoutingIndex;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
@@ -46,10 +53,7 @@ import org.slf4j.Logger;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.EnumSet;
-import java.util.Queue;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.IntFunction;
@@ -86,6 +90,11 @@ public class DefaultShardManager implements ShardManager
      */
     protected ShardCacheViewImpl shards;
 
+    /**
+     * {@link ShardRoutingIndex} which maps channel and user ids to the shard that has them cached.
+     */
+    protected final ShardRoutingIndex routingIndex = new ShardRoutingIndex();
+
     /**
      * This can be used to check if the ShardManager is shutting down.
      */
@@ -249,6 +258,204 @@ public class DefaultShardManager implements ShardManager
         return shard == null ? null : shard.getGuildById(id);
     }
 
+    @Nullable
+    @Override
+    public <T extends Channel> T getChannelById(@Nonnull Class<T> type, long id)
+    {
+        Checks.notNull(type, "Class");
+        JDA shard = getShardForChannel(id);
+        return shard == null ? null : shard.getChannelById(type, id);
+    }
+
+    @Nullable
+    @Override
+    public GuildChannel getGuildChannelById(long id)
+    {
+        JDA shard = getShardForChannel(id);
+        return shard == null ? null : shard.getGuildChannelById(id);
+    }
+
+    @Nullable
+    @Override
+    public GuildChannel getGuildChannelById(@Nonnull ChannelType type, long id)
+    {
+        Checks.notNull(type, "ChannelType");
+        JDA shard = getShardForChannel(id);
+        return shard == null ? null : shard.getGuildChannelById(type, id);
+    }
+
+    @Nullable
+    @Override
+    public PrivateChannel getPrivateChannelById(long id)
+    {
+        return getChannelById(PrivateChannel.class, id);
+    }
+
+    @Nullable
+    @Override
+    public PrivateChannel getPrivateChannelById(@Nonnull String id)
+    {
+        return getPrivateChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Nullable
+    @Override
+    public TextChannel getTextChannelById(long id)
+    {
+        return getChannelById(TextChannel.class, id);
+    }
+
+    @Nullable
+    @Override
+    public TextChannel getTextChannelById(@Nonnull String id)
+    {
+        return getTextChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Nullable
+    @Override
+    public NewsChannel getNewsChannelById(long id)
+    {
+        return getChannelById(NewsChannel.class, id);
+    }
+
+    @Nullable
+    @Override
+    public NewsChannel getNewsChannelById(@Nonnull String id)
+    {
+        return getNewsChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Nullable
+    @Override
+    public VoiceChannel getVoiceChannelById(long id)
+    {
+        return getChannelById(VoiceChannel.class, id);
+    }
+
+    @Nullable
+    @Override
+    public VoiceChannel getVoiceChannelById(@Nonnull String id)
+    {
+        return getVoiceChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Nullable
+    @Override
+    public StageChannel getStageChannelById(long id)
+    {
+        return getChannelById(StageChannel.class, id);
+    }
+
+    @Nullable
+    @Override
+    public StageChannel getStageChannelById(@Nonnull String id)
+    {
+        return getStageChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Nullable
+    @Override
+    public ThreadChannel getThreadChannelById(long id)
+    {
+        return getChannelById(ThreadChannel.class, id);
+    }
+
+    @Nullable
+    @Override
+    public ThreadChannel getThreadChannelById(@Nonnull String id)
+    {
+        return getThreadChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Nullable
+    @Override
+    public ForumChannel getForumChannelById(long id)
+    {
+        return getChannelById(ForumChannel.class, id);
+    }
+
+    @Nullable
+    @Override
+    public ForumChannel getForumChannelById(@Nonnull String id)
+    {
+        return getForumChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Nullable
+    @Override
+    public Category getCategoryById(long id)
+    {
+        return getChannelById(Category.class, id);
+    }
+
+    @Nullable
+    @Override
+    public Category getCategoryById(@Nonnull String id)
+    {
+        return getCategoryById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Nullable
+    @Override
+    public User getUserById(long id)
+    {
+        int shardId = routingIndex.getUserShard(id);
+        JDA shard = shardId == ShardRoutingIndex.NO_SHARD ? null : this.getShardById(shardId);
+        return shard == null ? null : shard.getUserById(id);
+    }
+
+    @Nullable
+    @Override
+    public User getUserById(@Nonnull String id)
+    {
+        return getUserById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Nonnull
+    @Override
+    public List<Guild> getMutualGuilds(@Nonnull Collection<User> users)
+    {
+        Checks.noneNull(users, "users");
+        if (users.isEmpty())
+            return ShardManager.super.getMutualGuilds(users);
+
+        // Only the shards which cache all of these users can have mutual guilds with them
+        TIntSet shardIds = null;
+        for (User user : users)
+        {
+            TIntSet userShards = new TIntHashSet(routingIndex.getUserShards(user.getIdLong()));
+            if (shardIds != null)
+                userShards.retainAll(shardIds);
+            shardIds = userShards;
+            if (shardIds.isEmpty())
+                return Collections.emptyList();
+        }
+
+        List<Guild> guilds = new ArrayList<>();
+        shardIds.forEach(shardId -> {
+            JDA shard = this.getShardById(shardId);
+            if (shard != null)
+                guilds.addAll(shard.getMutualGuilds(users));
+            return true;
+        });
+        return Collections.unmodifiableList(guilds);
+    }
+
+    @Override
+    public int getMutualGuildCount(@Nonnull User user)
+    {
+        Checks.notNull(user, "User");
+        int count = 0;
+        for (int shardId : routingIndex.getUserShards(user.getIdLong()))
+        {
+            JDA shard = this.getShardById(shardId);
+            if (shard != null)
+                count += shard.getMutualGuildCount(user);
+        }
+        return count;
+    }
+
     @Nonnull
     @Override
     public ShardCacheView getShardCache()
@@ -304,6 +511,7 @@ public class DefaultShardManager implements ShardManager
         JDA jda = this.shards.remove(shardId);
         if (jda != null)
         {
+            removeFromRoutingIndex(jda, shardId);
             if (shardingConfig.isUseShutdownNow())
                 jda.shutdownNow();
             else
@@ -355,6 +563,9 @@ public class DefaultShardManager implements ShardManager
                     });
                     queue.clear();
                 }
+                // The message cache is shared by all shards and is no longer needed
+                if (shardingConfig.getMessageCache() != null)
+                    shardingConfig.getMessageCache().clear();
                 this.executor.shutdown();
             });
         }
@@ -370,6 +581,7 @@ public class DefaultShardManager implements ShardManager
         final JDA jda = this.shards.remove(shardId);
         if (jda != null)
         {
+            removeFromRoutingIndex(jda, shardId);
             if (shardingConfig.isUseShutdownNow())
                 jda.shutdownNow();
             else
@@ -472,6 +684,20 @@ public class DefaultShardManager implements ShardManager
         }
     }
 
+    @Nullable
+    protected JDA getShardForChannel(long channelId)
+    {
+        int shardId = routingIndex.getChannelShard(channelId);
+        return shardId == ShardRoutingIndex.NO_SHARD ? null : this.getShardById(shardId);
+    }
+
+    protected void removeFromRoutingIndex(JDA jda, int shardId)
+    {
+        // Detach the old instance first, so it cannot add entries for the shard id after they are removed
+        ((JDAImpl) jda).setRoutingIndex(null);
+        routingIndex.removeShard(shardId);
+    }
+
     protected JDAImpl buildInstance(final int shardId)
     {
         OkHttpClient httpClient = sessionConfig.getHttpClient();
@@ -514,6 +740,8 @@ public class DefaultShardManager implements ShardManager
         MetaConfig metaConfig = new MetaConfig(this.metaConfig.getMaxBufferSize(), this.metaConfig.getContextMap(shardId), this.metaConfig.getCacheFlags(), this.sessionConfig.getFlags());
         final JDAImpl jda = new JDAImpl(authConfig, sessionConfig, threadingConfig, metaConfig);
         jda.setMemberCachePolicy(shardingConfig.getMemberCachePolicy());
+        jda.setPresenceCoalescingWindow(shardingConfig.getPresenceCoalescingWindow());
+        jda.setMessageCache(shardingConfig.getMessageCache());
         threadingConfig.init(jda::getIdentifierString);
         // We can only do member chunking with the GUILD_MEMBERS intent
         if ((shardingConfig.getIntents() & GatewayIntent.GUILD_MEMBERS.getRawValue()) == 0)
@@ -522,6 +750,7 @@ public class DefaultShardManager implements ShardManager
             jda.setChunkingFilter(chunkingFilter);
 
         jda.setShardManager(this);
+        jda.setRoutingIndex(routingIndex.forShard(shardId));
 
         if (eventConfig.getEventManagerProvider() != null)
             jda.setEventManager(this.eventConfig.getEventManagerProvider().apply(shardId));
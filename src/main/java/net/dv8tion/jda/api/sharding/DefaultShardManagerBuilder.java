@@ -25,7 +25,9 @@ import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.hooks.IEventManager;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.RateLimitStore;
 import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.RestResponseCache;
 import net.dv8tion.jda.api.utils.ChunkingFilter;
 import net.dv8tion.jda.api.utils.Compression;
 import net.dv8tion.jda.api.utils.MemberCachePolicy;
@@ -33,6 +35,7 @@ import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
 import net.dv8tion.jda.internal.utils.config.flags.ShardingConfigFlag;
 import net.dv8tion.jda.internal.utils.config.sharding.*;
@@ -63,6 +66,8 @@ public class  DefaultShardManagerBuilder
     protected final EnumSet<CacheFlag> automaticallyDisabled = EnumSet.noneOf(CacheFlag.class);
     protected SessionController sessionController = null;
     protected VoiceDispatchInterceptor voiceDispatchInterceptor = null;
+    protected RestResponseCache responseCache = null;
+    protected RateLimitStore rateLimitStore = null;
     protected EnumSet<CacheFlag> cacheFlags = EnumSet.allOf(CacheFlag.class);
     protected EnumSet<ConfigFlag> flags = ConfigFlag.getDefault();
     protected EnumSet<ShardingConfigFlag> shardingFlags = ShardingConfigFlag.getDefault();
@@ -92,6 +97,8 @@ public class  DefaultShardManagerBuilder
     protected ThreadFactory threadFactory = null;
     protected ChunkingFilter chunkingFilter = ChunkingFilter.ALL;
     protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
+    protected long presenceCoalescingWindow = 0;
+    protected int messageCacheChannelLimit = 0, messageCacheLimit = 0;
 
     protected DefaultShardManagerBuilder(@Nullable String token, int intents)
     {
@@ -564,6 +571,51 @@ public class  DefaultShardManagerBuilder
         return setFlag(ConfigFlag.USE_RELATIVE_RATELIMIT, enable);
     }
 
+    /**
+     * Whether REST requests should be executed without blocking a thread of the rate-limit pool.
+     * <br>By default, each bucket worker waits for the response of its request on a thread of the
+     * {@link #setRateLimitPool(ScheduledExecutorService) rate-limit pool}, which means the amount of requests
+     * in flight is limited by the size of that pool.
+     *
+     * <p>When enabled, requests are enqueued on the dispatcher of the {@link okhttp3.OkHttpClient OkHttpClient}
+     * and their responses are handled by its threads. The rate-limit pool is then only used to schedule the bucket workers,
+     * and the amount of requests in flight is limited by the {@link okhttp3.Dispatcher Dispatcher} instead.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enable
+     *         True, to execute requests asynchronously
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setAsyncRequestsEnabled(boolean enable)
+    {
+        return setFlag(ConfigFlag.ASYNC_REQUESTS, enable);
+    }
+
+    /**
+     * Whether identical GET requests which are in flight at the same time should share a single HTTP request.
+     * <br>This only applies to queued requests without a body or additional headers, for the same compiled route.
+     * A request which is queued while another request for that route is still waiting for its response
+     * will be completed with the same response, instead of sending another request.
+     *
+     * <p>Every request still has its own callbacks, checks, deadline, and can be cancelled individually.
+     * The HTTP request is only cancelled once every request sharing it has been cancelled.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enable
+     *         True, to share in-flight GET requests
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setRequestDeduplicationEnabled(boolean enable)
+    {
+        return setFlag(ConfigFlag.REQUEST_DEDUPLICATION, enable);
+    }
+
     /**
      * Enable specific cache flags.
      * <br>This will not disable any currently set cache flags.
@@ -710,6 +762,71 @@ public class  DefaultShardManagerBuilder
         return this;
     }
 
+    /**
+     * Sets the window in which repeated presence updates of the same member are coalesced.
+     * <br>The first {@code PRESENCE_UPDATE} of a member starts the window, updates within the window only replace the pending payload.
+     * Once the window has passed, only the latest payload is applied to the cache and fires events.
+     *
+     * <p>This trades event latency for less work on presence heavy {@link GatewayIntent#GUILD_PRESENCES GUILD_PRESENCES} sessions,
+     * since members often send multiple updates in quick succession.
+     * Coalesced updates are applied after any events received during their window, and are only flushed while the gateway receives messages.
+     *
+     * <p>Default: {@code 0} (disabled)
+     *
+     * @param  window
+     *         The window, or {@code 0} to handle every update immediately
+     * @param  unit
+     *         The time unit of the window
+     *
+     * @throws IllegalArgumentException
+     *         If the window is negative or the unit is null
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setPresenceCoalescingWindow(long window, @Nonnull TimeUnit unit)
+    {
+        Checks.notNegative(window, "Window");
+        Checks.notNull(unit, "TimeUnit");
+        this.presenceCoalescingWindow = unit.toMillis(window);
+        return this;
+    }
+
+    /**
+     * Enables the message cache, which keeps the most recent messages of each channel.
+     * <br>Cached messages are provided as the previous state in {@link net.dv8tion.jda.api.events.message.MessageUpdateEvent MessageUpdateEvent},
+     * {@link net.dv8tion.jda.api.events.message.MessageDeleteEvent MessageDeleteEvent}, and {@link net.dv8tion.jda.api.events.message.MessageBulkDeleteEvent MessageBulkDeleteEvent}.
+     * {@link net.dv8tion.jda.api.entities.channel.middleman.MessageChannel#retrieveMessageById(long) MessageChannel.retrieveMessageById(id)} also
+     * returns cached messages without making a request.
+     *
+     * <p>Messages are stored as their raw payload and evicted in the order they were received,
+     * once either the channel limit or the total limit is exceeded.
+     * The cache is shared by all shards, so the total limit applies to the whole shard manager.
+     * This requires the {@link GatewayIntent#MESSAGE_CONTENT MESSAGE_CONTENT} intent to cache the message content.
+     *
+     * <p>Default: {@code 0, 0} (disabled)
+     *
+     * @param  channelLimit
+     *         The maximum amount of messages to cache per channel
+     * @param  totalLimit
+     *         The maximum amount of messages to cache in total, or {@code 0} to disable the message cache
+     *
+     * @throws IllegalArgumentException
+     *         If either limit is negative, or the channel limit is 0 while the total limit is not
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setMessageCacheSize(int channelLimit, int totalLimit)
+    {
+        Checks.notNegative(channelLimit, "Channel limit");
+        Checks.notNegative(totalLimit, "Total limit");
+        Checks.check(totalLimit == 0 || channelLimit > 0, "Channel limit must be positive if the message cache is enabled");
+        this.messageCacheChannelLimit = channelLimit;
+        this.messageCacheLimit = totalLimit;
+        return this;
+    }
+
     /**
      * Sets the {@link net.dv8tion.jda.api.utils.SessionController SessionController}
      * for the resulting ShardManager instance. This can be used to sync behaviour and state between shards
@@ -748,6 +865,51 @@ public class  DefaultShardManagerBuilder
         return this;
     }
 
+    /**
+     * Configures a cache for the responses of GET requests.
+     * <br>Requests for a route with a valid cached response are completed without sending an HTTP request,
+     * which saves both latency and rate-limit budget for data that rarely changes, such as emojis or invites.
+     *
+     * <p>Cached responses are invalidated by successful requests on mutating routes and by related gateway events.
+     * Responses are only cached for routes with a configured time to live, see {@link net.dv8tion.jda.api.requests.DefaultRestResponseCache DefaultRestResponseCache}.
+     *
+     * <p>Default: <b>null (disabled)</b>
+     *
+     * @param  cache
+     *         The response cache, or null to disable caching
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    RestResponseCache
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setRestResponseCache(@Nullable RestResponseCache cache)
+    {
+        this.responseCache = cache;
+        return this;
+    }
+
+    /**
+     * Configures a store for the rate-limit bucket hashes and limits learned from responses.
+     * <br>The store is loaded on startup, which means the first requests after a restart are placed into their
+     * correct buckets right away, instead of being queued one at a time until the first response reveals the bucket.
+     *
+     * <p>Default: <b>null (disabled)</b>
+     *
+     * @param  store
+     *         The store, or null to disable persisting rate-limit information
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    net.dv8tion.jda.api.requests.FileRateLimitStore FileRateLimitStore
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setRateLimitStore(@Nullable RateLimitStore store)
+    {
+        this.rateLimitStore = store;
+        return this;
+    }
+
     /**
      * Sets the {@link org.slf4j.MDC MDC} mappings provider to use in JDA.
      * <br>If sharding is enabled JDA will automatically add a {@code jda.shard} context with the format {@code [SHARD_ID / TOTAL]}
@@ -1034,6 +1196,30 @@ public class  DefaultShardManagerBuilder
         return setFlag(ConfigFlag.BULK_DELETE_SPLIT, enabled);
     }
 
+    /**
+     * Whether members should be created while their chunks arrive during guild setup.
+     * <br>By default, JDA buffers the payload of every member until chunking of the guild is completed.
+     * For large guilds this can require several times the memory of the finished cache during startup.
+     *
+     * <p>When enabled, the guild is cached once chunking starts and every chunk is immediately turned into members,
+     * applying the {@link net.dv8tion.jda.api.utils.MemberCachePolicy MemberCachePolicy} right away.
+     * The {@link net.dv8tion.jda.api.events.guild.GuildReadyEvent GuildReadyEvent} and other events of the guild
+     * are still only fired once chunking is completed.
+     * However, the guild and its members are accessible through the cache before that.
+     *
+     * <p>Default: <b>false (disabled)</b>
+     *
+     * @param  enabled
+     *         True, to create members while chunking
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setStreamingMemberSetupEnabled(boolean enabled)
+    {
+        return setFlag(ConfigFlag.STREAMING_MEMBER_SETUP, enabled);
+    }
+
     /**
      * Enables/Disables the use of a Shutdown hook to clean up the ShardManager and it's JDA instances.
      * <br>When the Java program closes shutdown hooks are run. This is used as a last-second cleanup
@@ -2186,6 +2372,9 @@ public class  DefaultShardManagerBuilder
         checkIntents();
         boolean useShutdownNow = shardingFlags.contains(ShardingConfigFlag.SHUTDOWN_NOW);
         final ShardingConfig shardingConfig = new ShardingConfig(shardsTotal, useShutdownNow, intents, memberCachePolicy);
+        shardingConfig.setPresenceCoalescingWindow(presenceCoalescingWindow);
+        if (messageCacheLimit > 0)
+            shardingConfig.setMessageCache(new MessageCache(messageCacheChannelLimit, messageCacheLimit));
         final EventConfig eventConfig = new EventConfig(eventManagerProvider);
         listeners.forEach(eventConfig::addEventListener);
         listenerProviders.forEach(eventConfig::addEventListenerProvider);
@@ -2194,7 +2383,7 @@ public class  DefaultShardManagerBuilder
         presenceConfig.setStatusProvider(statusProvider);
         presenceConfig.setIdleProvider(idleProvider);
         final ThreadingProviderConfig threadingConfig = new ThreadingProviderConfig(rateLimitPoolProvider, gatewayPoolProvider, callbackPoolProvider, eventPoolProvider, audioPoolProvider, threadFactory);
-        final ShardingSessionConfig sessionConfig = new ShardingSessionConfig(sessionController, voiceDispatchInterceptor, httpClient, httpClientBuilder, wsFactory, audioSendFactory, flags, shardingFlags, maxReconnectDelay, largeThreshold);
+        final ShardingSessionConfig sessionConfig = new ShardingSessionConfig(sessionController, voiceDispatchInterceptor, httpClient, httpClientBuilder, wsFactory, audioSendFactory, responseCache, rateLimitStore, flags, shardingFlags, maxReconnectDelay, largeThreshold);
         final ShardingMetaConfig metaConfig = new ShardingMetaConfig(maxBufferSize, contextProvider, cacheFlags, flags, compression, encoding);
         final DefaultShardManager manager = new DefaultShardManager(this.token, this.shards, shardingConfig, eventConfig, presenceConfig, threadingConfig, sessionConfig, metaConfig, chunkingFilter);
 
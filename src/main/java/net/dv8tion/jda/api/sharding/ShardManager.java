@@ -30,6 +30,7 @@ import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.api.utils.cache.CacheStats;
 import net.dv8tion.jda.api.utils.cache.CacheView;
 import net.dv8tion.jda.api.utils.cache.ShardCacheView;
 import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
@@ -428,9 +429,8 @@ public interface ShardManager extends IGuildChannelContainer
     {
         Checks.noneNull(users, "users");
         return Collections.unmodifiableList(
-                this.getGuildCache().stream()
-                .filter(guild -> users.stream()
-                        .allMatch(guild::isMember))
+                this.getShardCache().stream()
+                .flatMap(jda -> jda.getMutualGuilds(users).stream())
                 .collect(Collectors.toList()));
     }
 
@@ -449,6 +449,61 @@ public interface ShardManager extends IGuildChannelContainer
         return this.getMutualGuilds(Arrays.asList(users));
     }
 
+    /**
+     * The amount of {@link net.dv8tion.jda.api.entities.Guild Guilds} that have the provided user cached as a member.
+     * <br>This is equivalent to {@code getMutualGuilds(user).size()}, without building the list.
+     *
+     * @param  user
+     *         The user
+     *
+     * @throws IllegalArgumentException
+     *         If the provided user is null
+     *
+     * @return The amount of mutual guilds across all shards
+     */
+    default int getMutualGuildCount(@Nonnull final User user)
+    {
+        Checks.notNull(user, "User");
+        return this.getShardCache().applyStream(stream -> stream.mapToInt(jda -> jda.getMutualGuildCount(user)).sum());
+    }
+
+    /**
+     * Statistics about the entities currently held by the caches of all shards.
+     * <br>Users that are cached by multiple shards are counted once for each shard.
+     *
+     * @return Combined {@link CacheStats} of all shards
+     *
+     * @see    JDA#getCacheStats()
+     */
+    @Nonnull
+    default CacheStats getCacheStats()
+    {
+        return this.getShardCache().applyStream(stream ->
+            stream.map(JDA::getCacheStats)
+                  .reduce(new CacheStats(Collections.emptyMap()), CacheStats::plus)
+        );
+    }
+
+    /**
+     * Statistics about the entities currently held by the caches of the provided guild.
+     *
+     * @param  guild
+     *         The guild
+     *
+     * @throws IllegalArgumentException
+     *         If the provided guild is null
+     *
+     * @return {@link CacheStats} for the guild
+     *
+     * @see    JDA#getCacheStats(Guild)
+     */
+    @Nonnull
+    default CacheStats getCacheStats(@Nonnull Guild guild)
+    {
+        Checks.notNull(guild, "Guild");
+        return guild.getJDA().getCacheStats(guild);
+    }
+
     /**
      * Attempts to retrieve a {@link net.dv8tion.jda.api.entities.User User} object based on the provided id.
      * <br>This first calls {@link #getUserById(long)}, and if the return is {@code null} then a request
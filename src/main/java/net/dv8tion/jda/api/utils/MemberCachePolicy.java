@@ -19,9 +19,10 @@ package net.dv8tion.jda.api.utils;
 import net.dv8tion.jda.annotations.Incubating;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.GuildVoiceState;
 import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.utils.cache.LRUMemberCachePolicy;
 import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.LazyVoiceState;
 
 import javax.annotation.Nonnull;
 
@@ -85,10 +86,7 @@ public interface MemberCachePolicy
      * Cache members who are connected to a voice channel.
      * <br>Requires {@link net.dv8tion.jda.api.requests.GatewayIntent#GUILD_VOICE_STATES GatewayIntent.GUILD_VOICE_STATES} and {@link net.dv8tion.jda.api.utils.cache.CacheFlag#VOICE_STATE CacheFlag.VOICE_STATE} to be enabled.
      */
-    MemberCachePolicy VOICE = (member) -> {
-        GuildVoiceState voiceState = member.getVoiceState();
-        return voiceState != null && voiceState.getChannel() != null;
-    };
+    MemberCachePolicy VOICE = (member) -> LazyVoiceState.getConnectedChannel(member) != null; // Doesn't create the voice state of members that never connected
     /**
      * Cache members who are boosting the guild. This checks {@link Member#isBoosting()}
      * <br>Requires {@link net.dv8tion.jda.api.requests.GatewayIntent#GUILD_MEMBERS GUILD_MEMBERS} to be enabled.
@@ -202,4 +200,27 @@ public interface MemberCachePolicy
             policy = policy.and(p);
         return policy;
     }
+
+    /**
+     * Creates a policy which keeps at most {@code maxSize} members in cache, unloading the least recently used members.
+     * <br>Use {@link LRUMemberCachePolicy#unloadUnless(MemberCachePolicy)} to combine this with other policies.
+     *
+     * <p><b>Example</b><br>
+     * <pre>{@code
+     * MemberCachePolicy.lru(10000).unloadUnless(MemberCachePolicy.VOICE.or(MemberCachePolicy.OWNER))
+     * }</pre>
+     *
+     * @param  maxSize
+     *         The maximum amount of members to keep in cache
+     *
+     * @throws IllegalArgumentException
+     *         If the provided size is not positive
+     *
+     * @return {@link LRUMemberCachePolicy}
+     */
+    @Nonnull
+    static LRUMemberCachePolicy lru(int maxSize)
+    {
+        return new LRUMemberCachePolicy(maxSize);
+    }
 }
@@ -21,6 +21,7 @@ import gnu.trove.map.hash.TLongObjectHashMap;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.UnlockHook;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -172,6 +173,24 @@ public class MiscUtil
         }
     }
 
+    /**
+     * Acquires the provided lock like {@link #tryLock(Lock)} and returns a hook which releases it.
+     * <br>This is meant to be used in a try-with-resources block.
+     *
+     * @param  lock
+     *         The lock to acquire
+     *
+     * @throws IllegalStateException
+     *         If the lock could not be acquired
+     *
+     * @return The hook which releases the lock once closed
+     */
+    public static UnlockHook lock(Lock lock)
+    {
+        tryLock(lock);
+        return new UnlockHook(lock);
+    }
+
     /**
      * Can be used to append a String to a formatter.
      *
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.api.utils;
+
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * Effective permissions of the cached members of a guild in a set of channels.
+ * <br>This is a snapshot, which does not reflect changes to roles, overrides, or members after its creation.
+ *
+ * <p>The matrix is computed in a single pass, members with the same roles share their permissions unless they have
+ * member specific overrides, are timed out, or own the guild.
+ * This makes the computation scale with the amount of distinct role combinations, rather than the amount of members.
+ *
+ * @see Guild#getPermissionMatrix(Collection)
+ */
+public class PermissionMatrix
+{
+    private final List<Member> members;
+    private final List<GuildChannel> channels;
+    private final long[] memberIds;
+    private final long[] channelIds;
+    // Row-major, one row per member
+    private final long[] permissions;
+
+    /**
+     * Creates a new permission matrix.
+     *
+     * @param  members
+     *         The members, sorted by id
+     * @param  channels
+     *         The channels, sorted by id
+     * @param  permissions
+     *         The raw effective permissions, with one row of {@code channels.size()} entries per member
+     */
+    public PermissionMatrix(@Nonnull List<Member> members, @Nonnull List<GuildChannel> channels, @Nonnull long[] permissions)
+    {
+        this.members = Collections.unmodifiableList(members);
+        this.channels = Collections.unmodifiableList(channels);
+        this.memberIds = members.stream().mapToLong(Member::getIdLong).toArray();
+        this.channelIds = channels.stream().mapToLong(GuildChannel::getIdLong).toArray();
+        this.permissions = permissions;
+    }
+
+    /**
+     * The members included in this matrix.
+     *
+     * @return Immutable list of members, sorted by id
+     */
+    @Nonnull
+    public List<Member> getMembers()
+    {
+        return members;
+    }
+
+    /**
+     * The channels included in this matrix.
+     *
+     * @return Immutable list of channels, sorted by id
+     */
+    @Nonnull
+    public List<GuildChannel> getChannels()
+    {
+        return channels;
+    }
+
+    /**
+     * The raw effective permissions of the member in the channel.
+     *
+     * @param  member
+     *         The member
+     * @param  channel
+     *         The channel
+     *
+     * @throws IllegalArgumentException
+     *         If either argument is null or not included in this matrix
+     *
+     * @return The raw permissions
+     *
+     * @see    Permission#getPermissions(long)
+     */
+    public long getPermissionsRaw(@Nonnull Member member, @Nonnull GuildChannel channel)
+    {
+        return permissions[indexOf(member) * channelIds.length + indexOf(channel)];
+    }
+
+    /**
+     * The effective permissions of the member in the channel.
+     *
+     * @param  member
+     *         The member
+     * @param  channel
+     *         The channel
+     *
+     * @throws IllegalArgumentException
+     *         If either argument is null or not included in this matrix
+     *
+     * @return EnumSet of the permissions
+     */
+    @Nonnull
+    public EnumSet<Permission> getPermissions(@Nonnull Member member, @Nonnull GuildChannel channel)
+    {
+        return Permission.getPermissions(getPermissionsRaw(member, channel));
+    }
+
+    /**
+     * Whether the member has all the provided permissions in the channel.
+     *
+     * @param  member
+     *         The member
+     * @param  channel
+     *         The channel
+     * @param  permissions
+     *         The permissions to check
+     *
+     * @throws IllegalArgumentException
+     *         If any argument is null or the member or channel is not included in this matrix
+     *
+     * @return True, if the member has all permissions
+     */
+    public boolean hasPermission(@Nonnull Member member, @Nonnull GuildChannel channel, @Nonnull Permission... permissions)
+    {
+        long required = toRaw(permissions);
+        return (getPermissionsRaw(member, channel) & required) == required;
+    }
+
+    /**
+     * The members that have all the provided permissions in the channel.
+     * <br>For instance, this can be used with {@link Permission#VIEW_CHANNEL} to find all members that can see a channel.
+     *
+     * @param  channel
+     *         The channel
+     * @param  permissions
+     *         The permissions to check
+     *
+     * @throws IllegalArgumentException
+     *         If any argument is null or the channel is not included in this matrix
+     *
+     * @return Immutable list of members, sorted by id
+     */
+    @Nonnull
+    public List<Member> getMembersWithPermission(@Nonnull GuildChannel channel, @Nonnull Permission... permissions)
+    {
+        long required = toRaw(permissions);
+        int column = indexOf(channel);
+        List<Member> list = new ArrayList<>();
+        for (int row = 0; row < memberIds.length; row++)
+        {
+            if ((this.permissions[row * channelIds.length + column] & required) == required)
+                list.add(members.get(row));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * The channels in which the member has all the provided permissions.
+     *
+     * @param  member
+     *         The member
+     * @param  permissions
+     *         The permissions to check
+     *
+     * @throws IllegalArgumentException
+     *         If any argument is null or the member is not included in this matrix
+     *
+     * @return Immutable list of channels, sorted by id
+     */
+    @Nonnull
+    public List<GuildChannel> getChannelsWithPermission(@Nonnull Member member, @Nonnull Permission... permissions)
+    {
+        long required = toRaw(permissions);
+        int offset = indexOf(member) * channelIds.length;
+        List<GuildChannel> list = new ArrayList<>();
+        for (int column = 0; column < channelIds.length; column++)
+        {
+            if ((this.permissions[offset + column] & required) == required)
+                list.add(channels.get(column));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PermissionMatrix[members=" + memberIds.length + ", channels=" + channelIds.length + "]";
+    }
+
+    private int indexOf(Member member)
+    {
+        Checks.notNull(member, "Member");
+        int index = Arrays.binarySearch(memberIds, member.getIdLong());
+        Checks.check(index >= 0, "Member is not included in this matrix");
+        return index;
+    }
+
+    private int indexOf(GuildChannel channel)
+    {
+        Checks.notNull(channel, "Channel");
+        int index = Arrays.binarySearch(channelIds, channel.getIdLong());
+        Checks.check(index >= 0, "Channel is not included in this matrix");
+        return index;
+    }
+
+    private static long toRaw(Permission[] permissions)
+    {
+        Checks.noneNull(permissions, "Permissions");
+        return Permission.getRaw(permissions);
+    }
+}
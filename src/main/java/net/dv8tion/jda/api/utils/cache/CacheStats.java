@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.api.utils.cache;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+import javax.annotation.Nonnull;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Snapshot of the amount of cached entities.
+ *
+ * <p>The counts are taken from the sizes of the caches, which are maintained as entities are added and removed,
+ * so creating a snapshot does not walk the cached entities.
+ *
+ * <p>The nominal sizes multiply each count with a fixed {@link Type#getNominalEntitySize() nominal size} of the entity type.
+ * They are not measured and can be far off for individual entities, especially for buffered payloads.
+ * They are only meant to weigh the counts against each other, for instance to compare configurations and detect growth.
+ *
+ * @see net.dv8tion.jda.api.JDA#getCacheStats()
+ * @see net.dv8tion.jda.api.JDA#getCacheStats(net.dv8tion.jda.api.entities.Guild)
+ */
+public class CacheStats
+{
+    private final EnumMap<Type, Long> counts = new EnumMap<>(Type.class);
+
+    /**
+     * Creates a new snapshot with the provided entity counts.
+     *
+     * @param  counts
+     *         The amount of cached entities for each type, missing types are counted as 0
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     */
+    public CacheStats(@Nonnull Map<Type, Long> counts)
+    {
+        Checks.notNull(counts, "Counts");
+        this.counts.putAll(counts);
+    }
+
+    /**
+     * The amount of cached entities of the provided type.
+     *
+     * @param  type
+     *         The cache type
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The amount of cached entities
+     */
+    public long getCount(@Nonnull Type type)
+    {
+        Checks.notNull(type, "Type");
+        return counts.getOrDefault(type, 0L);
+    }
+
+    /**
+     * The nominal size in bytes of the cached entities of the provided type.
+     * <br>This is the count multiplied with the {@link Type#getNominalEntitySize() nominal entity size}, not a measurement.
+     *
+     * @param  type
+     *         The cache type
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The nominal size in bytes
+     */
+    public long getNominalSize(@Nonnull Type type)
+    {
+        return getCount(type) * type.getNominalEntitySize();
+    }
+
+    /**
+     * The nominal size in bytes of all cached entities.
+     * <br>This is the sum of {@link #getNominalSize(Type)} for all types, not a measurement.
+     *
+     * @return The nominal size in bytes
+     */
+    public long getNominalSize()
+    {
+        long size = 0;
+        for (Map.Entry<Type, Long> entry : counts.entrySet())
+            size += entry.getValue() * entry.getKey().getNominalEntitySize();
+        return size;
+    }
+
+    /**
+     * Combines this snapshot with another snapshot, for instance of another shard.
+     *
+     * @param  other
+     *         The other snapshot
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return New snapshot with the sum of both counts
+     */
+    @Nonnull
+    public CacheStats plus(@Nonnull CacheStats other)
+    {
+        Checks.notNull(other, "CacheStats");
+        EnumMap<Type, Long> sum = new EnumMap<>(counts);
+        other.counts.forEach((type, count) -> sum.merge(type, count, Long::sum));
+        return new CacheStats(sum);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringJoiner joiner = new StringJoiner(", ", "CacheStats[", "]");
+        counts.forEach((type, count) -> joiner.add(type + "=" + count));
+        return joiner.toString();
+    }
+
+    /**
+     * The types of cached entities and buffers covered by {@link CacheStats}.
+     */
+    public enum Type
+    {
+        /** Cached {@link net.dv8tion.jda.api.entities.Member Members} */
+        MEMBER(160),
+        /** Cached {@link net.dv8tion.jda.api.entities.User Users}, these are not counted per guild */
+        USER(176),
+        /** Cached member presences, see {@link CacheFlag#ONLINE_STATUS}, {@link CacheFlag#ACTIVITY}, and {@link CacheFlag#CLIENT_STATUS} */
+        PRESENCE(96),
+        /** Cached guild channels, excluding threads */
+        CHANNEL(256),
+        /** Cached {@link net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel ThreadChannels} */
+        THREAD(288),
+        /** Cached {@link net.dv8tion.jda.api.entities.Role Roles} */
+        ROLE(176),
+        /** Cached {@link net.dv8tion.jda.api.entities.emoji.RichCustomEmoji RichCustomEmojis} */
+        EMOJI(144),
+        /** Cached {@link net.dv8tion.jda.api.entities.sticker.GuildSticker GuildStickers} */
+        STICKER(192),
+        /** Voice states of members connected to an audio channel */
+        VOICE_STATE(96),
+        /** Cached {@link net.dv8tion.jda.api.entities.ScheduledEvent ScheduledEvents} */
+        SCHEDULED_EVENT(288),
+        /** Gateway events buffered until the entity they refer to is cached */
+        EVENT_CACHE(2048),
+        /** Gateway payloads buffered while guilds are set up, such as member chunks and events for guilds that are not ready yet */
+        GUILD_SETUP(1024);
+
+        private final long nominalEntitySize;
+
+        Type(long nominalEntitySize)
+        {
+            this.nominalEntitySize = nominalEntitySize;
+        }
+
+        /**
+         * The fixed nominal size in bytes of a single entity of this type.
+         * <br>This is a typical size for the entity type, the actual size of an entity depends on its content.
+         *
+         * @return The nominal size in bytes
+         */
+        public long getNominalEntitySize()
+        {
+            return nominalEntitySize;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.api.utils.cache;
+
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link MemberCachePolicy} which bounds the number of cached members by unloading the least recently used members.
+ *
+ * <p>A member counts as used whenever the member cache policy is consulted for it,
+ * which happens for every event that updates or involves the member.
+ * Once the cache exceeds its maximum size, the least recently used members are unloaded with {@link net.dv8tion.jda.api.entities.Guild#unloadMember(long)}.
+ * Members are unloaded on the gateway thread of their shard, shortly after they were evicted.
+ *
+ * <p>Members are tracked per guild, so events for different guilds do not contend with each other.
+ * The {@link #withGuildLimit(int) guild limit} is strictly least recently used.
+ * The global limit is approximated by sampling a few guilds and unloading the oldest member among them,
+ * which means the unloaded member is one of the least recently used members, but not necessarily the oldest one.
+ *
+ * <p>You can combine this with other policies using {@link #unloadUnless(MemberCachePolicy)}.
+ * Members accepted by that policy are pinned, they are never unloaded by this policy and do not count towards the limits.
+ *
+ * <p>The same instance can be shared by all shards, in which case the limit applies to all shards combined.
+ * Members are released from this policy when they leave a guild, when the guild is removed from the cache,
+ * or when their shard shuts down.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * // Keep the 10000 most active members, but never unload members in voice channels
+ * builder.setMemberCachePolicy(MemberCachePolicy.lru(10000).unloadUnless(MemberCachePolicy.VOICE));
+ * }</pre>
+ *
+ * @see MemberCachePolicy#lru(int)
+ */
+public class LRUMemberCachePolicy implements MemberCachePolicy
+{
+    private static final Logger LOG = JDALogger.getLog(LRUMemberCachePolicy.class);
+    // Amount of guilds compared when choosing a member to unload for the global limit
+    private static final int SAMPLE_SIZE = 5;
+
+    private final int maxSize;
+    private final int maxGuildSize;
+    private final MemberCachePolicy pinned;
+
+    private final ConcurrentMap<Long, GuildMembers> guilds = new ConcurrentHashMap<>();
+    // Used to pick random guilds for sampling, guilds are only dropped once they are removed from the cache
+    private final List<GuildMembers> guildList = new CopyOnWriteArrayList<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), evictions = new LongAdder();
+
+    /**
+     * Creates a new policy which keeps at most {@code maxSize} members in cache.
+     *
+     * @param  maxSize
+     *         The maximum amount of unpinned members to keep in cache
+     *
+     * @throws IllegalArgumentException
+     *         If the provided size is not positive
+     */
+    public LRUMemberCachePolicy(int maxSize)
+    {
+        this(maxSize, Integer.MAX_VALUE, null);
+    }
+
+    protected LRUMemberCachePolicy(int maxSize, int maxGuildSize, MemberCachePolicy pinned)
+    {
+        Checks.positive(maxSize, "Max Size");
+        Checks.positive(maxGuildSize, "Max Guild Size");
+        this.maxSize = maxSize;
+        this.maxGuildSize = maxGuildSize;
+        this.pinned = pinned;
+    }
+
+    /**
+     * Creates a copy of this policy which additionally limits the amount of cached members per guild.
+     *
+     * @param  maxGuildSize
+     *         The maximum amount of unpinned members to keep in cache for each guild
+     *
+     * @throws IllegalArgumentException
+     *         If the provided size is not positive
+     *
+     * @return New policy with the additional limit
+     */
+    @Nonnull
+    public LRUMemberCachePolicy withGuildLimit(int maxGuildSize)
+    {
+        return new LRUMemberCachePolicy(maxSize, maxGuildSize, pinned);
+    }
+
+    /**
+     * Creates a copy of this policy which never unloads members accepted by the provided policy.
+     * <br>Pinned members do not count towards the limits of this policy.
+     *
+     * @param  policy
+     *         The policy deciding which members to pin
+     *
+     * @throws IllegalArgumentException
+     *         If the provided policy is null
+     *
+     * @return New policy with the pinning rule
+     */
+    @Nonnull
+    public LRUMemberCachePolicy unloadUnless(@Nonnull MemberCachePolicy policy)
+    {
+        Checks.notNull(policy, "Policy");
+        return new LRUMemberCachePolicy(maxSize, maxGuildSize, policy);
+    }
+
+    @Override
+    public boolean cacheMember(@Nonnull Member member)
+    {
+        if (pinned != null && pinned.cacheMember(member))
+        {
+            removeMember(member);
+            return true;
+        }
+
+        long guildId = member.getGuild().getIdLong();
+        List<Member> evicted = new ArrayList<>(0);
+        while (true)
+        {
+            GuildMembers guildMembers = getGuildMembers(guildId);
+            guildMembers.lock.lock();
+            try
+            {
+                // The guild was removed concurrently, start over with a new instance
+                if (guildMembers.removed)
+                    continue;
+                Entry entry = guildMembers.members.get(member.getIdLong());
+                if (entry == null)
+                {
+                    guildMembers.members.put(member.getIdLong(), new Entry(member, clock.incrementAndGet()));
+                    size.incrementAndGet();
+                    misses.increment();
+                }
+                else
+                {
+                    entry.member = member;
+                    entry.tick = clock.incrementAndGet();
+                    hits.increment();
+                }
+                while (guildMembers.members.size() > maxGuildSize)
+                    evicted.add(guildMembers.evictEldest());
+            }
+            finally
+            {
+                guildMembers.lock.unlock();
+            }
+            break;
+        }
+
+        while (size.get() > maxSize)
+        {
+            Member eldest = evictGlobal();
+            if (eldest == null)
+                break;
+            evicted.add(eldest);
+        }
+
+        // The caller might hold the member cache locks of its own shard, while the evicted member can belong to any shard.
+        // Unloading on the gateway thread of the member's shard avoids taking the locks of two shards at once.
+        for (Member eldest : evicted)
+            ((JDAImpl) eldest.getJDA()).queueGatewayTask(() -> unload(eldest));
+        return true;
+    }
+
+    /**
+     * Stops tracking the provided member.
+     * <br>This is called by JDA when a member leaves the guild, the member is not unloaded by this method.
+     *
+     * @param  member
+     *         The member to release
+     *
+     * @throws IllegalArgumentException
+     *         If the provided member is null
+     */
+    public void removeMember(@Nonnull Member member)
+    {
+        Checks.notNull(member, "Member");
+        GuildMembers guildMembers = guilds.get(member.getGuild().getIdLong());
+        if (guildMembers == null)
+            return;
+        guildMembers.lock.lock();
+        try
+        {
+            if (guildMembers.members.remove(member.getIdLong()) != null)
+                size.decrementAndGet();
+        }
+        finally
+        {
+            guildMembers.lock.unlock();
+        }
+    }
+
+    /**
+     * Stops tracking all members of the provided guild.
+     * <br>This is called by JDA when a guild is removed from the cache, the members are not unloaded by this method.
+     *
+     * @param guildId
+     *        The id of the guild to release
+     */
+    public void removeGuild(long guildId)
+    {
+        GuildMembers guildMembers = guilds.remove(guildId);
+        if (guildMembers == null)
+            return;
+        guildList.remove(guildMembers);
+        guildMembers.lock.lock();
+        try
+        {
+            guildMembers.removed = true;
+            size.addAndGet(-guildMembers.members.size());
+            guildMembers.members.clear();
+        }
+        finally
+        {
+            guildMembers.lock.unlock();
+        }
+    }
+
+    /**
+     * The amount of members currently tracked by this policy.
+     * <br>This does not include pinned members.
+     *
+     * @return The amount of tracked members
+     */
+    public int size()
+    {
+        return size.get();
+    }
+
+    /**
+     * The amount of times an already tracked member was used again.
+     *
+     * @return The hit count
+     */
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    /**
+     * The amount of times a member was used that was not tracked by this policy.
+     * <br>This includes members that were previously evicted.
+     *
+     * @return The miss count
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * The amount of members that were unloaded by this policy.
+     *
+     * @return The eviction count
+     */
+    public long getEvictionCount()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * The ratio of {@link #getHitCount() hits} to all uses of tracked members.
+     *
+     * @return The hit rate, between 0 and 1, or 1 if no member was used yet
+     */
+    public double getHitRate()
+    {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LRUMemberCachePolicy(maxSize=" + maxSize + ", maxGuildSize=" + maxGuildSize + ")";
+    }
+
+    private GuildMembers getGuildMembers(long guildId)
+    {
+        GuildMembers guildMembers = guilds.get(guildId);
+        if (guildMembers != null)
+            return guildMembers;
+        GuildMembers created = new GuildMembers();
+        guildMembers = guilds.putIfAbsent(guildId, created);
+        if (guildMembers != null)
+            return guildMembers;
+        guildList.add(created);
+        return created;
+    }
+
+    private void unload(Member member)
+    {
+        // The member might have been used again or pinned since it was evicted
+        if (isTracked(member) || pinned != null && pinned.cacheMember(member))
+            return;
+        try
+        {
+            member.getGuild().unloadMember(member.getIdLong());
+        }
+        catch (Exception e)
+        {
+            LOG.error("Failed to unload evicted member {}", member, e);
+        }
+    }
+
+    private boolean isTracked(Member member)
+    {
+        GuildMembers guildMembers = guilds.get(member.getGuild().getIdLong());
+        if (guildMembers == null)
+            return false;
+        guildMembers.lock.lock();
+        try
+        {
+            return guildMembers.members.containsKey(member.getIdLong());
+        }
+        finally
+        {
+            guildMembers.lock.unlock();
+        }
+    }
+
+    private Member evictGlobal()
+    {
+        List<GuildMembers> candidates = guildList;
+        int count = candidates.size();
+        GuildMembers oldest = null;
+        long oldestTick = Long.MAX_VALUE;
+        if (count > SAMPLE_SIZE)
+        {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < SAMPLE_SIZE; i++)
+            {
+                GuildMembers sample;
+                try
+                {
+                    sample = candidates.get(random.nextInt(count));
+                }
+                catch (IndexOutOfBoundsException e)
+                {
+                    continue; // a guild was removed concurrently
+                }
+                long tick = sample.getEldestTick();
+                if (tick < oldestTick)
+                {
+                    oldest = sample;
+                    oldestTick = tick;
+                }
+            }
+        }
+
+        // Few guilds or only empty guilds sampled, fall back to comparing all of them
+        if (oldest == null)
+        {
+            for (GuildMembers guildMembers : candidates)
+            {
+                long tick = guildMembers.getEldestTick();
+                if (tick < oldestTick)
+                {
+                    oldest = guildMembers;
+                    oldestTick = tick;
+                }
+            }
+        }
+
+        if (oldest == null)
+            return null;
+        oldest.lock.lock();
+        try
+        {
+            // Another thread might have evicted from the same guild meanwhile, just retry in that case
+            return oldest.members.isEmpty() || size.get() <= maxSize ? null : oldest.evictEldest();
+        }
+        finally
+        {
+            oldest.lock.unlock();
+        }
+    }
+
+    private static class Entry
+    {
+        private Member member;
+        private long tick;
+
+        private Entry(Member member, long tick)
+        {
+            this.member = member;
+            this.tick = tick;
+        }
+    }
+
+    private class GuildMembers
+    {
+        private final ReentrantLock lock = new ReentrantLock();
+        // In access order, the eldest entry is the least recently used member
+        private final LinkedHashMap<Long, Entry> members = new LinkedHashMap<>(16, 0.75f, true);
+        private boolean removed;
+
+        private long getEldestTick()
+        {
+            lock.lock();
+            try
+            {
+                Iterator<Entry> iterator = members.values().iterator();
+                return iterator.hasNext() ? iterator.next().tick : Long.MAX_VALUE;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        // Must hold the lock
+        private Member evictEldest()
+        {
+            Iterator<Entry> iterator = members.values().iterator();
+            Member eldest = iterator.next().member;
+            iterator.remove();
+            size.decrementAndGet();
+            evictions.increment();
+            return eldest;
+        }
+    }
+}
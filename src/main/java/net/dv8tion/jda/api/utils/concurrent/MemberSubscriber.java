@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils.concurrent;
+
+import net.dv8tion.jda.api.entities.Member;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receiver of a member stream with demand signalling.
+ * <br>This follows the contract of a Reactive Streams {@code Subscriber}, so it can easily be adapted to such libraries.
+ *
+ * <p>Members are only passed to the subscriber when they are requested through {@link Subscription#request(long)},
+ * which means the consumer decides how fast it receives the stream.
+ * Members which arrive before they are requested are buffered.
+ * Signals are never delivered concurrently, but they might be delivered on different threads,
+ * such as the event thread or the thread calling {@link Subscription#request(long)}.
+ *
+ * @see net.dv8tion.jda.api.entities.Guild#subscribeMembers(MemberSubscriber)
+ */
+public interface MemberSubscriber
+{
+    /**
+     * Called once, before any other signal.
+     * <br>No members are loaded until {@link Subscription#request(long)} is called.
+     *
+     * @param subscription
+     *        The subscription used to request members
+     */
+    void onSubscribe(@Nonnull Subscription subscription);
+
+    /**
+     * Called for each requested member.
+     *
+     * @param member
+     *        The next member
+     */
+    void onNext(@Nonnull Member member);
+
+    /**
+     * Called if the stream failed, no further signals follow.
+     *
+     * @param error
+     *        The failure, such as a {@link java.util.concurrent.TimeoutException}
+     */
+    void onError(@Nonnull Throwable error);
+
+    /**
+     * Called once every member has been delivered, no further signals follow.
+     */
+    void onComplete();
+
+    /**
+     * Demand handle of a member stream.
+     */
+    interface Subscription
+    {
+        /**
+         * Requests up to {@code n} more members.
+         * <br>The demand is cumulative, {@link Long#MAX_VALUE} effectively disables backpressure.
+         *
+         * @param  n
+         *         The amount of members to request
+         *
+         * @throws IllegalArgumentException
+         *         If n is not positive
+         */
+        void request(long n);
+
+        /**
+         * Stops the stream, members which have not been delivered yet are discarded.
+         */
+        void cancel();
+    }
+}
@@ -27,7 +27,9 @@ import net.dv8tion.jda.api.audio.factory.IAudioSendFactory;
 import net.dv8tion.jda.api.audio.hooks.ConnectionStatus;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.Channel;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.concrete.*;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.emoji.RichCustomEmoji;
 import net.dv8tion.jda.api.entities.sticker.StickerPack;
 import net.dv8tion.jda.api.entities.sticker.StickerSnowflake;
@@ -49,6 +51,8 @@ import net.dv8tion.jda.api.managers.Presence;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.requests.Request;
 import net.dv8tion.jda.api.requests.Response;
+import net.dv8tion.jda.api.requests.RateLimitStore;
+import net.dv8tion.jda.api.requests.RestResponseCache;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.restaction.CacheRestAction;
 import net.dv8tion.jda.api.requests.restaction.CommandCreateAction;
@@ -57,11 +61,14 @@ import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
 import net.dv8tion.jda.api.sharding.ShardManager;
 import net.dv8tion.jda.api.utils.*;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.cache.CacheStats;
 import net.dv8tion.jda.api.utils.cache.CacheView;
+import net.dv8tion.jda.api.utils.cache.LRUMemberCachePolicy;
 import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.entities.EntityBuilder;
+import net.dv8tion.jda.internal.entities.GuildImpl;
 import net.dv8tion.jda.internal.entities.UserImpl;
 import net.dv8tion.jda.internal.handle.EventCache;
 import net.dv8tion.jda.internal.handle.GuildSetupController;
@@ -78,7 +85,12 @@ import net.dv8tion.jda.internal.requests.restaction.CommandListUpdateActionImpl;
 import net.dv8tion.jda.internal.requests.restaction.GuildActionImpl;
 import net.dv8tion.jda.internal.utils.*;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
+import net.dv8tion.jda.internal.utils.cache.ChannelCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
+import net.dv8tion.jda.internal.utils.cache.MutualGuildIndex;
+import net.dv8tion.jda.internal.utils.cache.ShardRoutingIndex;
 import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.UserCacheViewImpl;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
@@ -88,6 +100,7 @@ import org.slf4j.Logger;
 import org.slf4j.MDC;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -99,17 +112,20 @@ public class JDAImpl implements JDA
 {
     public static final Logger LOG = JDALogger.getLog(JDA.class);
 
-    protected final SnowflakeCacheViewImpl<User> userCache = new SnowflakeCacheViewImpl<>(User.class, User::getName);
+    protected final UserCacheViewImpl userCache = new UserCacheViewImpl();
     protected final SnowflakeCacheViewImpl<Guild> guildCache = new SnowflakeCacheViewImpl<>(Guild.class, Guild::getName);
-    protected final SnowflakeCacheViewImpl<Category> categories = new SnowflakeCacheViewImpl<>(Category.class, Channel::getName);
-    protected final SnowflakeCacheViewImpl<TextChannel> textChannelCache = new SnowflakeCacheViewImpl<>(TextChannel.class, Channel::getName);
-    protected final SnowflakeCacheViewImpl<NewsChannel> newsChannelCache = new SnowflakeCacheViewImpl<>(NewsChannel.class, Channel::getName);
-    protected final SnowflakeCacheViewImpl<VoiceChannel> voiceChannelCache = new SnowflakeCacheViewImpl<>(VoiceChannel.class, Channel::getName);
-    protected final SnowflakeCacheViewImpl<StageChannel> stageChannelCache = new SnowflakeCacheViewImpl<>(StageChannel.class, Channel::getName);
-    protected final SnowflakeCacheViewImpl<ThreadChannel> threadChannelsCache = new SnowflakeCacheViewImpl<>(ThreadChannel.class, Channel::getName);
-    protected final SnowflakeCacheViewImpl<ForumChannel> forumChannelsCache = new SnowflakeCacheViewImpl<>(ForumChannel.class, Channel::getName);
-    protected final SnowflakeCacheViewImpl<PrivateChannel> privateChannelCache = new SnowflakeCacheViewImpl<>(PrivateChannel.class, Channel::getName);
+    protected final ChannelCacheViewImpl<Channel> channelCache = new ChannelCacheViewImpl<>(Channel.class);
+    protected final SnowflakeCacheViewImpl<Category> categories = channelCache.createView(Category.class, ChannelType.CATEGORY);
+    protected final SnowflakeCacheViewImpl<TextChannel> textChannelCache = channelCache.createView(TextChannel.class, ChannelType.TEXT);
+    protected final SnowflakeCacheViewImpl<NewsChannel> newsChannelCache = channelCache.createView(NewsChannel.class, ChannelType.NEWS);
+    protected final SnowflakeCacheViewImpl<VoiceChannel> voiceChannelCache = channelCache.createView(VoiceChannel.class, ChannelType.VOICE);
+    protected final SnowflakeCacheViewImpl<StageChannel> stageChannelCache = channelCache.createView(StageChannel.class, ChannelType.STAGE);
+    protected final SnowflakeCacheViewImpl<ThreadChannel> threadChannelsCache = channelCache.createView(ThreadChannel.class,
+        ChannelType.GUILD_NEWS_THREAD, ChannelType.GUILD_PUBLIC_THREAD, ChannelType.GUILD_PRIVATE_THREAD);
+    protected final SnowflakeCacheViewImpl<ForumChannel> forumChannelsCache = channelCache.createView(ForumChannel.class, ChannelType.FORUM);
+    protected final SnowflakeCacheViewImpl<PrivateChannel> privateChannelCache = channelCache.createView(PrivateChannel.class, ChannelType.PRIVATE);
     protected final LinkedList<Long> privateChannelLRU = new LinkedList<>();
+    protected final MutualGuildIndex mutualGuildIndex = new MutualGuildIndex();
 
     protected final AbstractCacheView<AudioManager> audioManagers = new CacheView.SimpleCacheView<>(AudioManager.class, m -> m.getGuild().getName());
 
@@ -142,6 +158,8 @@ public class JDAImpl implements JDA
     protected String clientId = null,  requiredScopes = "bot";
     protected ShardManager shardManager = null;
     protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
+    protected long presenceCoalescingWindow = 0;
+    protected MessageCache messageCache = null;
 
     public JDAImpl(AuthorizationConfig authConfig)
     {
@@ -244,6 +262,53 @@ public class JDAImpl implements JDA
         this.memberCachePolicy = policy;
     }
 
+    public void onMemberRemoved(Member member)
+    {
+        if (memberCachePolicy instanceof LRUMemberCachePolicy)
+            ((LRUMemberCachePolicy) memberCachePolicy).removeMember(member);
+    }
+
+    public void onGuildRemoved(long guildId)
+    {
+        if (memberCachePolicy instanceof LRUMemberCachePolicy)
+            ((LRUMemberCachePolicy) memberCachePolicy).removeGuild(guildId);
+    }
+
+    /**
+     * Runs the provided task on the gateway thread of this shard, see {@link WebSocketClient#queueGatewayTask(Runnable)}.
+     * <br>The task is dropped if this shard has no gateway connection.
+     *
+     * @param task
+     *        The task to run
+     */
+    public void queueGatewayTask(Runnable task)
+    {
+        WebSocketClient client = this.client;
+        if (client != null)
+            client.queueGatewayTask(task);
+    }
+
+    public long getPresenceCoalescingWindow()
+    {
+        return presenceCoalescingWindow;
+    }
+
+    public void setPresenceCoalescingWindow(long millis)
+    {
+        this.presenceCoalescingWindow = millis;
+    }
+
+    @Nullable
+    public MessageCache getMessageCache()
+    {
+        return messageCache;
+    }
+
+    public void setMessageCache(@Nullable MessageCache messageCache)
+    {
+        this.messageCache = messageCache;
+    }
+
     public SessionController getSessionController()
     {
         return sessionConfig.getSessionController();
@@ -259,6 +324,16 @@ public class JDAImpl implements JDA
         return sessionConfig.getVoiceDispatchInterceptor();
     }
 
+    public RestResponseCache getResponseCache()
+    {
+        return sessionConfig.getResponseCache();
+    }
+
+    public RateLimitStore getRateLimitStore()
+    {
+        return sessionConfig.getRateLimitStore();
+    }
+
     public void usedPrivateChannel(long id)
     {
         synchronized (privateChannelLRU)
@@ -268,7 +343,7 @@ public class JDAImpl implements JDA
             if (privateChannelLRU.size() > 10) // This could probably be a config option
             {
                 long removed = privateChannelLRU.removeLast();
-                privateChannelCache.remove(removed);
+                channelCache.remove(removed);
             }
         }
     }
@@ -412,6 +487,21 @@ public class JDAImpl implements JDA
         return sessionConfig.isBulkDeleteSplittingEnabled();
     }
 
+    public boolean isStreamingMemberSetup()
+    {
+        return sessionConfig.isStreamingMemberSetup();
+    }
+
+    public boolean isAsyncRequests()
+    {
+        return sessionConfig.isAsyncRequests();
+    }
+
+    public boolean isRequestDeduplication()
+    {
+        return sessionConfig.isRequestDeduplication();
+    }
+
     @Override
     public void setAutoReconnect(boolean autoReconnect)
     {
@@ -555,9 +645,48 @@ public class JDAImpl implements JDA
         Checks.notNull(users, "users");
         for(User u : users)
             Checks.notNull(u, "All users");
-        return Collections.unmodifiableList(getGuilds().stream()
-                .filter(guild -> users.stream().allMatch(guild::isMember))
-                .collect(Collectors.toList()));
+        if (users.isEmpty())
+            return getGuilds();
+
+        TLongSet guildIds = mutualGuildIndex.getMutualGuilds(users.stream().mapToLong(User::getIdLong).toArray());
+        List<Guild> guilds = new ArrayList<>(guildIds.size());
+        guildIds.forEach(id -> {
+            Guild guild = guildCache.get(id);
+            if (guild != null)
+                guilds.add(guild);
+            return true;
+        });
+        return Collections.unmodifiableList(guilds);
+    }
+
+    @Nonnull
+    @Override
+    public CacheStats getCacheStats()
+    {
+        Map<CacheStats.Type, Long> stats = new EnumMap<>(CacheStats.Type.class);
+        getGuildsView().forEachUnordered(guild -> ((GuildImpl) guild).addCacheStats(stats));
+        stats.put(CacheStats.Type.USER, getUsersView().size());
+        stats.put(CacheStats.Type.EVENT_CACHE, (long) getEventCache().size());
+        stats.put(CacheStats.Type.GUILD_SETUP, getGuildSetupController().getBufferedPayloadCount());
+        return new CacheStats(stats);
+    }
+
+    @Nonnull
+    @Override
+    public CacheStats getCacheStats(@Nonnull Guild guild)
+    {
+        Checks.notNull(guild, "Guild");
+        Map<CacheStats.Type, Long> stats = new EnumMap<>(CacheStats.Type.class);
+        ((GuildImpl) guild).addCacheStats(stats);
+        stats.put(CacheStats.Type.GUILD_SETUP, (long) getGuildSetupController().getBufferedPayloadCount(guild.getIdLong()));
+        return new CacheStats(stats);
+    }
+
+    @Override
+    public int getMutualGuildCount(@Nonnull User user)
+    {
+        Checks.notNull(user, "User");
+        return mutualGuildIndex.getGuildCount(user.getIdLong());
     }
 
     @Nonnull
@@ -720,6 +849,25 @@ public class JDAImpl implements JDA
         return privateChannelCache;
     }
 
+    @Nullable
+    @Override
+    public GuildChannel getGuildChannelById(long id)
+    {
+        Channel channel = channelCache.getElementById(id);
+        return channel instanceof GuildChannel ? (GuildChannel) channel : null;
+    }
+
+    @Nullable
+    @Override
+    public <T extends Channel> T getChannelById(@Nonnull Class<T> type, long id)
+    {
+        Checks.notNull(type, "Class");
+        Channel channel = channelCache.getElementById(id);
+        if (channel instanceof PrivateChannel)
+            usedPrivateChannel(id);
+        return type.isInstance(channel) ? type.cast(channel) : null;
+    }
+
     @Override
     public PrivateChannel getPrivateChannelById(@Nonnull String id)
     {
@@ -807,6 +955,8 @@ public class JDAImpl implements JDA
         //so we can shutdown from WebSocketClient properly
         closeAudioConnections();
         guildSetupController.close();
+        // The member cache policy can be shared by all shards, release the members of this shard
+        getGuildsView().forEachUnordered(guild -> onGuildRemoved(guild.getIdLong()));
 
         // stop accepting new requests
         if (requester.stop()) // returns true if no more requests will be executed
@@ -1086,6 +1236,12 @@ public class JDAImpl implements JDA
         this.shardManager = shardManager;
     }
 
+    public void setRoutingIndex(ShardRoutingIndex.Partition routing)
+    {
+        userCache.setRoutingIndex(routing);
+        channelCache.setRoutingIndex(routing);
+    }
+
     @Override
     public ShardManager getShardManager()
     {
@@ -1130,7 +1286,7 @@ public class JDAImpl implements JDA
         return client;
     }
 
-    public SnowflakeCacheViewImpl<User> getUsersView()
+    public UserCacheViewImpl getUsersView()
     {
         return userCache;
     }
@@ -1140,6 +1296,16 @@ public class JDAImpl implements JDA
         return guildCache;
     }
 
+    public MutualGuildIndex getMutualGuildIndex()
+    {
+        return mutualGuildIndex;
+    }
+
+    public ChannelCacheViewImpl<Channel> getChannelsView()
+    {
+        return channelCache;
+    }
+
     public SnowflakeCacheViewImpl<Category> getCategoriesView()
     {
         return categories;
@@ -1187,10 +1353,7 @@ public class JDAImpl implements JDA
 
     public void setSelfUser(SelfUser selfUser)
     {
-        try (UnlockHook hook = userCache.writeLock())
-        {
-            userCache.getMap().put(selfUser.getIdLong(), selfUser);
-        }
+        userCache.put(selfUser);
         this.selfUser = selfUser;
     }
 
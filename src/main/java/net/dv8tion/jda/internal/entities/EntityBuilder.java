@@ -17,7 +17,6 @@
 package net.dv8tion.jda.internal.entities;
 
 import gnu.trove.map.TLongObjectMap;
-import gnu.trove.map.hash.TLongObjectHashMap;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.audit.ActionType;
@@ -29,6 +28,7 @@ import net.dv8tion.jda.api.entities.Guild.NotificationLevel;
 import net.dv8tion.jda.api.entities.Guild.Timeout;
 import net.dv8tion.jda.api.entities.Guild.VerificationLevel;
 import net.dv8tion.jda.api.entities.MessageEmbed.*;
+import net.dv8tion.jda.api.entities.channel.Channel;
 import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.attribute.IThreadContainer;
 import net.dv8tion.jda.api.entities.channel.attribute.IWebhookContainer;
@@ -71,9 +71,13 @@ import net.dv8tion.jda.internal.handle.EventCache;
 import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.ChannelCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.ActivityInterner;
 import net.dv8tion.jda.internal.utils.cache.MemberCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.MutualGuildIndex;
 import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
 import net.dv8tion.jda.internal.utils.cache.SortedSnowflakeCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.UserCacheViewImpl;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.map.CaseInsensitiveMap;
 import org.slf4j.Logger;
@@ -98,6 +102,8 @@ public class EntityBuilder
     public static final String MISSING_USER = "MISSING_USER";
     public static final String UNKNOWN_MESSAGE_TYPE = "UNKNOWN_MESSAGE_TYPE";
     private static final Set<String> richGameFields;
+    // Shared by all shards, activities don't belong to any JDA instance
+    private static final ActivityInterner ACTIVITY_INTERNER = new ActivityInterner(4096);
     static
     {
         Set<String> tmp = new HashSet<>();
@@ -134,11 +140,11 @@ public class EntityBuilder
             getJDA().setSelfUser(selfUser);
         }
 
-        SnowflakeCacheViewImpl<User> userView = getJDA().getUsersView();
+        UserCacheViewImpl userView = getJDA().getUsersView();
         try (UnlockHook hook = userView.writeLock())
         {
             if (userView.getElementById(selfUser.getIdLong()) == null)
-                userView.getMap().put(selfUser.getIdLong(), selfUser);
+                userView.put(selfUser);
         }
 
         if (!self.isNull("application_id"))
@@ -246,6 +252,13 @@ public class EntityBuilder
 
     public GuildImpl createGuild(long guildId, DataObject guildJson, TLongObjectMap<DataObject> members, int memberCount)
     {
+        return createGuild(new PreparedGuild(guildId, guildJson, members, memberCount));
+    }
+
+    public GuildImpl createGuild(PreparedGuild prepared)
+    {
+        final long guildId = prepared.getIdLong();
+        final DataObject guildJson = prepared.getJson();
         final GuildImpl guildObj = new GuildImpl(getJDA(), guildId);
         final String name = guildJson.getString("name", "");
         final String iconId = guildJson.getString("icon", null);
@@ -260,9 +273,6 @@ public class EntityBuilder
         final DataArray scheduledEventsArray = guildJson.getArray("guild_scheduled_events");
         final DataArray emojisArray = guildJson.getArray("emojis");
         final DataArray stickersArray = guildJson.getArray("stickers");
-        final DataArray voiceStateArray = guildJson.getArray("voice_states");
-        final Optional<DataArray> featuresArray = guildJson.optArray("features");
-        final Optional<DataArray> presencesArray = guildJson.optArray("presences");
         final long ownerId = guildJson.getUnsignedLong("owner_id", 0L);
         final long afkChannelId = guildJson.getUnsignedLong("afk_channel_id", 0L);
         final long systemChannelId = guildJson.getUnsignedLong("system_channel_id", 0L);
@@ -297,7 +307,7 @@ public class EntityBuilder
                 .setLocale(DiscordLocale.from(locale))
                 .setBoostCount(boostCount)
                 .setBoostTier(boostTier)
-                .setMemberCount(memberCount)
+                .setMemberCount(prepared.getMemberCount())
                 .setNSFWLevel(Guild.NSFWLevel.fromKey(nsfwLevel))
                 .setBoostProgressBarEnabled(boostProgressBarEnabled);
 
@@ -307,21 +317,15 @@ public class EntityBuilder
             guildView.getMap().put(guildId, guildObj);
         }
 
-        guildObj.setFeatures(featuresArray.map(array ->
-            array.stream(DataArray::getString)
-                 .map(String::intern) // Prevent allocating the same feature string over and over
-                 .collect(Collectors.toSet())
-        ).orElse(Collections.emptySet()));
+        guildObj.setFeatures(prepared.getFeatures());
 
-        SnowflakeCacheViewImpl<Role> roleView = guildObj.getRolesView();
+        SortedSnowflakeCacheViewImpl<Role> roleView = guildObj.getRolesView();
         try (UnlockHook hook = roleView.writeLock())
         {
-            TLongObjectMap<Role> map = roleView.getMap();
             for (int i = 0; i < roleArray.length(); i++)
             {
                 DataObject obj = roleArray.getObject(i);
                 Role role = createRole(guildObj, obj, guildId);
-                map.put(role.getIdLong(), role);
                 if (role.getIdLong() == guildObj.getIdLong())
                     guildObj.setPublicRole(role);
             }
@@ -333,21 +337,9 @@ public class EntityBuilder
             createGuildChannel(guildObj, channelJson);
         }
 
-        TLongObjectMap<DataObject> voiceStates = Helpers.convertToMap((o) -> o.getUnsignedLong("user_id", 0L), voiceStateArray);
-        TLongObjectMap<DataObject> presences = presencesArray.map(o1 -> Helpers.convertToMap(o2 -> o2.getObject("user").getUnsignedLong("id"), o1)).orElseGet(TLongObjectHashMap::new);
-        try (UnlockHook h1 = guildObj.getMembersView().writeLock();
-             UnlockHook h2 = getJDA().getUsersView().writeLock())
-        {
-            //Add members to cache when subscriptions are disabled when they appear here
-            // this is done because we can still keep track of members in voice channels
-            for (DataObject memberJson : members.valueCollection())
-            {
-                long userId = memberJson.getObject("user").getUnsignedLong("id");
-                DataObject voiceState = voiceStates.get(userId);
-                DataObject presence = presences.get(userId);
-                updateMemberCache(createMember(guildObj, memberJson, voiceState, presence));
-            }
-        }
+        //Add members to cache when subscriptions are disabled when they appear here
+        // this is done because we can still keep track of members in voice channels
+        createGuildMembers(guildObj, prepared.getMembers(), prepared.getVoiceStates(), prepared.getPresences());
 
         if (guildObj.getOwner() == null)
             LOG.debug("Finished setup for guild with a null owner. GuildId: {} OwnerId: {}", guildId, guildJson.opt("owner_id").orElse(null));
@@ -395,6 +387,21 @@ public class EntityBuilder
         return guildObj;
     }
 
+    public void createGuildMembers(GuildImpl guildObj, Collection<PreparedGuild.PreparedMember> members, TLongObjectMap<DataObject> voiceStates, TLongObjectMap<DataObject> presences)
+    {
+        try (UnlockHook h1 = guildObj.getMembersView().writeLock();
+             UnlockHook h2 = getJDA().getUsersView().writeLock())
+        {
+            for (PreparedGuild.PreparedMember memberJson : members)
+            {
+                long userId = memberJson.getUserId();
+                DataObject voiceState = voiceStates.get(userId);
+                DataObject presence = presences.get(userId);
+                updateMemberCache(createMember(guildObj, memberJson, voiceState, presence));
+            }
+        }
+    }
+
     private void createGuildChannel(GuildImpl guildObj, DataObject channelData)
     {
         final ChannelType channelType = ChannelType.fromId(channelData.getInt("type"));
@@ -529,14 +536,16 @@ public class EntityBuilder
             if (membersView.remove(member.getIdLong()) == null)
                 return false;
             LOG.trace("Unloading member {}", member);
-            if (user.getMutualGuilds().isEmpty())
+            MutualGuildIndex mutualGuilds = getJDA().getMutualGuildIndex();
+            mutualGuilds.remove(user.getIdLong(), guild.getIdLong());
+            if (!mutualGuilds.hasGuilds(user.getIdLong()))
             {
                 // we no longer share any guilds/channels with this user so remove it from cache
                 user.setFake(true);
                 getJDA().getUsersView().remove(user.getIdLong());
             }
 
-            GuildVoiceStateImpl voiceState = (GuildVoiceStateImpl) member.getVoiceState();
+            GuildVoiceStateImpl voiceState = member.getVoiceStateIfPresent();
             if (voiceState != null)
             {
                 VoiceChannelImpl connectedChannel = (VoiceChannelImpl) voiceState.getChannel();
@@ -557,11 +566,7 @@ public class EntityBuilder
 
         if (getJDA().getUserById(user.getIdLong()) == null)
         {
-            SnowflakeCacheViewImpl<User> usersView = getJDA().getUsersView();
-            try (UnlockHook hook1 = usersView.writeLock())
-            {
-                usersView.getMap().put(user.getIdLong(), user);
-            }
+            getJDA().getUsersView().put(user);
         }
 
         try (UnlockHook hook = membersView.writeLock())
@@ -570,6 +575,7 @@ public class EntityBuilder
             if (member.isOwner())
                 guild.setOwner(member);
         }
+        getJDA().getMutualGuildIndex().add(user.getIdLong(), guild.getIdLong());
 
         long hashId = guild.getIdLong() ^ user.getIdLong();
         getJDA().getEventCache().playbackCache(EventCache.Type.USER, member.getIdLong());
@@ -584,9 +590,22 @@ public class EntityBuilder
 
     public MemberImpl createMember(GuildImpl guild, DataObject memberJson, DataObject voiceStateJson, DataObject presence)
     {
-        boolean playbackCache = false;
+        return createMember(guild, new PreparedGuild.PreparedMember(memberJson), voiceStateJson, presence);
+    }
+
+    public MemberImpl createMember(GuildImpl guild, PreparedGuild.PreparedMember prepared, DataObject voiceStateJson, DataObject presence)
+    {
+        DataObject memberJson = prepared.getJson();
         User user = createUser(memberJson.getObject("user"));
-        DataArray roleArray = memberJson.getArray("roles");
+        long[] roleIds = prepared.getRoleIds();
+        List<Role> roles = new ArrayList<>(roleIds.length);
+        for (long roleId : roleIds)
+        {
+            Role role = guild.getRoleById(roleId);
+            if (role != null)
+                roles.add(role);
+        }
+
         MemberImpl member = (MemberImpl) guild.getMember(user);
         if (member == null)
         {
@@ -594,46 +613,23 @@ public class EntityBuilder
             member = new MemberImpl(guild, user);
             member.setNickname(memberJson.getString("nick", null));
             member.setAvatarId(memberJson.getString("avatar", null));
-
-            long boostTimestamp = memberJson.isNull("premium_since")
-                ? 0
-                : Helpers.toTimestamp(memberJson.getString("premium_since"));
-            member.setBoostDate(boostTimestamp);
-
-            long timeOutTimestamp = memberJson.isNull("communication_disabled_until")
-                ? 0
-                : Helpers.toTimestamp(memberJson.getString("communication_disabled_until"));
-            member.setTimeOutEnd(timeOutTimestamp);
+            member.setBoostDate(prepared.getBoostDate());
+            member.setTimeOutEnd(prepared.getTimeOutEnd());
 
             if (!memberJson.isNull("pending"))
                 member.setPending(memberJson.getBoolean("pending"));
-            Set<Role> roles = member.getRoleSet();
-            for (int i = 0; i < roleArray.length(); i++)
-            {
-                long roleId = roleArray.getUnsignedLong(i);
-                Role role = guild.getRoleById(roleId);
-                if (role != null)
-                    roles.add(role);
-            }
+            member.setRoles(roles);
         }
         else
         {
             // Update cached member and fire events
-            List<Role> roles = new ArrayList<>(roleArray.length());
-            for (int i = 0; i < roleArray.length(); i++)
-            {
-                long roleId = roleArray.getUnsignedLong(i);
-                Role role = guild.getRoleById(roleId);
-                if (role != null)
-                    roles.add(role);
-            }
             updateMember(guild, member, memberJson, roles);
         }
 
         // Load joined_at if necessary
-        if (!memberJson.isNull("joined_at") && !member.hasTimeJoined())
+        if (prepared.getJoinDate() != 0 && !member.hasTimeJoined())
         {
-            member.setJoinDate(Helpers.toTimestamp(memberJson.getString("joined_at")));
+            member.setJoinDate(prepared.getJoinDate());
         }
 
         // Load voice state and presence if necessary
@@ -767,7 +763,7 @@ public class EntityBuilder
 
     private void updateMemberRoles(MemberImpl member, List<Role> newRoles, long responseNumber)
     {
-        Set<Role> currentRoles = member.getRoleSet();
+        List<Role> currentRoles = member.getRoles();
         //Find the roles removed.
         List<Role> removedRoles = new LinkedList<>();
         each:
@@ -785,10 +781,13 @@ public class EntityBuilder
             removedRoles.add(role);
         }
 
-        if (removedRoles.size() > 0)
-            currentRoles.removeAll(removedRoles);
-        if (newRoles.size() > 0)
-            currentRoles.addAll(newRoles);
+        if (removedRoles.size() > 0 || newRoles.size() > 0)
+        {
+            Set<Role> updatedRoles = new HashSet<>(currentRoles);
+            updatedRoles.removeAll(removedRoles);
+            updatedRoles.addAll(newRoles);
+            member.setRoles(updatedRoles);
+        }
 
         if (removedRoles.size() > 0)
         {
@@ -831,31 +830,13 @@ public class EntityBuilder
 
         DataArray activityArray = !cacheGame || presenceJson.isNull("activities") ? null : presenceJson.getArray("activities");
         DataObject clientStatusJson = !cacheStatus || presenceJson.isNull("client_status") ? null : presenceJson.getObject("client_status");
-        List<Activity> activities = new ArrayList<>();
-        boolean parsedActivity = false;
 
-        if (cacheGame && activityArray != null)
-        {
-            for (int i = 0; i < activityArray.length(); i++)
-            {
-                try
-                {
-                    activities.add(createActivity(activityArray.getObject(i)));
-                    parsedActivity = true;
-                }
-                catch (Exception ex)
-                {
-                    String userId = member.getId();
-                    if (LOG.isDebugEnabled())
-                        LOG.warn("Encountered exception trying to parse a presence! UserId: {} JSON: {}", userId, activityArray, ex);
-                    else
-                        LOG.warn("Encountered exception trying to parse a presence! UserId: {} Message: {} Enable debug for details", userId, ex.getMessage());
-                }
-            }
-        }
-        if (cacheGame && parsedActivity)
-            presence.setActivities(activities);
+        // Parsed on first access, most of these are never looked at
+        if (activityArray != null)
+            presence.setRawActivities(activityArray);
         presence.setOnlineStatus(onlineStatus);
+        // This presence didn't come from a presence update, the next one has to be handled in full
+        presence.setFingerprint(0);
         if (clientStatusJson != null)
         {
             for (String key : clientStatusJson.keys())
@@ -867,6 +848,33 @@ public class EntityBuilder
         }
     }
 
+    public static List<Activity> createActivities(DataArray activityArray)
+    {
+        if (activityArray.isEmpty())
+            return Collections.emptyList();
+        List<Activity> activities = new ArrayList<>(activityArray.length());
+        for (int i = 0; i < activityArray.length(); i++)
+        {
+            try
+            {
+                activities.add(createInternedActivity(activityArray.getObject(i)));
+            }
+            catch (Exception ex)
+            {
+                if (LOG.isDebugEnabled())
+                    LOG.warn("Encountered exception trying to parse a presence! JSON: {}", activityArray, ex);
+                else
+                    LOG.warn("Encountered exception trying to parse a presence! Message: {} Enable debug for details", ex.getMessage());
+            }
+        }
+        return Collections.unmodifiableList(activities);
+    }
+
+    public static Activity createInternedActivity(DataObject gameJson)
+    {
+        return ACTIVITY_INTERNER.intern(gameJson, EntityBuilder::createActivity);
+    }
+
     public static Activity createActivity(DataObject gameJson)
     {
         String name = String.valueOf(gameJson.get("name"));
@@ -1044,16 +1052,15 @@ public class EntityBuilder
         {
             if (guild == null)
                 guild = (GuildImpl) getJDA().getGuildsView().get(guildId);
-            SnowflakeCacheViewImpl<Category>
-                    guildCategoryView = guild.getCategoriesView(),
-                    categoryView = getJDA().getCategoriesView();
+            ChannelCacheViewImpl<GuildChannel> guildView = guild.getChannelView();
+            ChannelCacheViewImpl<Channel> globalView = getJDA().getChannelsView();
             try (
-                UnlockHook glock = guildCategoryView.writeLock();
-                UnlockHook jlock = categoryView.writeLock())
+                UnlockHook glock = guildView.writeLock();
+                UnlockHook jlock = globalView.writeLock())
             {
                 channel = new CategoryImpl(id, guild);
-                guildCategoryView.getMap().put(id, channel);
-                playbackCache = categoryView.getMap().put(id, channel) == null;
+                guildView.put(channel);
+                playbackCache = globalView.put(channel) == null;
             }
         }
 
@@ -1082,16 +1089,15 @@ public class EntityBuilder
         {
             if (guildObj == null)
                 guildObj = (GuildImpl) getJDA().getGuildsView().get(guildId);
-            SnowflakeCacheViewImpl<TextChannel>
-                    guildTextView = guildObj.getTextChannelsView(),
-                    textView = getJDA().getTextChannelsView();
+            ChannelCacheViewImpl<GuildChannel> guildView = guildObj.getChannelView();
+            ChannelCacheViewImpl<Channel> globalView = getJDA().getChannelsView();
             try (
-                UnlockHook glock = guildTextView.writeLock();
-                UnlockHook jlock = textView.writeLock())
+                UnlockHook glock = guildView.writeLock();
+                UnlockHook jlock = globalView.writeLock())
             {
                 channel = new TextChannelImpl(id, guildObj);
-                guildTextView.getMap().put(id, channel);
-                playbackCache = textView.getMap().put(id, channel) == null;
+                guildView.put(channel);
+                playbackCache = globalView.put(channel) == null;
             }
         }
 
@@ -1126,16 +1132,15 @@ public class EntityBuilder
         {
             if (guildObj == null)
                 guildObj = (GuildImpl) getJDA().getGuildsView().get(guildId);
-            SnowflakeCacheViewImpl<NewsChannel>
-                    guildNewsView = guildObj.getNewsChannelView(),
-                    newsView = getJDA().getNewsChannelView();
+            ChannelCacheViewImpl<GuildChannel> guildView = guildObj.getChannelView();
+            ChannelCacheViewImpl<Channel> globalView = getJDA().getChannelsView();
             try (
-                    UnlockHook glock = guildNewsView.writeLock();
-                    UnlockHook jlock = newsView.writeLock())
+                UnlockHook glock = guildView.writeLock();
+                UnlockHook jlock = globalView.writeLock())
             {
                 channel = new NewsChannelImpl(id, guildObj);
-                guildNewsView.getMap().put(id, channel);
-                playbackCache = newsView.getMap().put(id, channel) == null;
+                guildView.put(channel);
+                playbackCache = globalView.put(channel) == null;
             }
         }
 
@@ -1167,16 +1172,15 @@ public class EntityBuilder
         {
             if (guild == null)
                 guild = (GuildImpl) getJDA().getGuildsView().get(guildId);
-            SnowflakeCacheViewImpl<VoiceChannel>
-                    guildVoiceView = guild.getVoiceChannelsView(),
-                    voiceView = getJDA().getVoiceChannelsView();
+            ChannelCacheViewImpl<GuildChannel> guildView = guild.getChannelView();
+            ChannelCacheViewImpl<Channel> globalView = getJDA().getChannelsView();
             try (
-                UnlockHook vlock = guildVoiceView.writeLock();
-                UnlockHook jlock = voiceView.writeLock())
+                UnlockHook glock = guildView.writeLock();
+                UnlockHook jlock = globalView.writeLock())
             {
                 channel = new VoiceChannelImpl(id, guild);
-                guildVoiceView.getMap().put(id, channel);
-                playbackCache = voiceView.getMap().put(id, channel) == null;
+                guildView.put(channel);
+                playbackCache = globalView.put(channel) == null;
             }
         }
 
@@ -1210,16 +1214,15 @@ public class EntityBuilder
         {
             if (guild == null)
                 guild = (GuildImpl) getJDA().getGuildsView().get(guildId);
-            SnowflakeCacheViewImpl<StageChannel>
-                    guildStageView = guild.getStageChannelsView(),
-                    stageView = getJDA().getStageChannelView();
+            ChannelCacheViewImpl<GuildChannel> guildView = guild.getChannelView();
+            ChannelCacheViewImpl<Channel> globalView = getJDA().getChannelsView();
             try (
-                    UnlockHook vlock = guildStageView.writeLock();
-                    UnlockHook jlock = stageView.writeLock())
+                UnlockHook glock = guildView.writeLock();
+                UnlockHook jlock = globalView.writeLock())
             {
                 channel = new StageChannelImpl(id, guild);
-                guildStageView.getMap().put(id, channel);
-                playbackCache = stageView.getMap().put(id, channel) == null;
+                guildView.put(channel);
+                playbackCache = globalView.put(channel) == null;
             }
         }
 
@@ -1258,16 +1261,15 @@ public class EntityBuilder
         ThreadChannelImpl channel = ((ThreadChannelImpl) getJDA().getThreadChannelsView().get(id));
         if (channel == null)
         {
-            SnowflakeCacheViewImpl<ThreadChannel>
-                    guildThreadView = guild.getThreadChannelsView(),
-                    threadView = getJDA().getThreadChannelsView();
+            ChannelCacheViewImpl<GuildChannel> guildView = guild.getChannelView();
+            ChannelCacheViewImpl<Channel> globalView = getJDA().getChannelsView();
             try (
-                    UnlockHook vlock = guildThreadView.writeLock();
-                    UnlockHook jlock = threadView.writeLock())
+                UnlockHook glock = guildView.writeLock();
+                UnlockHook jlock = globalView.writeLock())
             {
                 channel = new ThreadChannelImpl(id, guild, type);
-                guildThreadView.getMap().put(id, channel);
-                playbackCache = threadView.getMap().put(id, channel) == null;
+                guildView.put(channel);
+                playbackCache = globalView.put(channel) == null;
             }
         }
 
@@ -1344,16 +1346,15 @@ public class EntityBuilder
         {
             if (guild == null)
                 guild = (GuildImpl) getJDA().getGuildsView().get(guildId);
-            SnowflakeCacheViewImpl<ForumChannel>
-                    guildView = guild.getForumChannelsView(),
-                    globalView = getJDA().getForumChannelsView();
+            ChannelCacheViewImpl<GuildChannel> guildView = guild.getChannelView();
+            ChannelCacheViewImpl<Channel> globalView = getJDA().getChannelsView();
             try (
-                    UnlockHook vlock = guildView.writeLock();
-                    UnlockHook jlock = globalView.writeLock())
+                UnlockHook glock = guildView.writeLock();
+                UnlockHook jlock = globalView.writeLock())
             {
                 channel = new ForumChannelImpl(id, guild);
-                guildView.getMap().put(id, channel);
-                playbackCache = globalView.getMap().put(id, channel) == null;
+                guildView.put(channel);
+                playbackCache = globalView.put(channel) == null;
             }
         }
 
@@ -1452,11 +1453,7 @@ public class EntityBuilder
 
     private void cachePrivateChannel(PrivateChannelImpl priv)
     {
-        SnowflakeCacheViewImpl<PrivateChannel> privateView = getJDA().getPrivateChannelsView();
-        try (UnlockHook hook = privateView.writeLock())
-        {
-            privateView.getMap().put(priv.getIdLong(), priv);
-        }
+        getJDA().getChannelsView().put(priv);
         api.usedPrivateChannel(priv.getIdLong());
         getJDA().getEventCache().playbackCache(EventCache.Type.CHANNEL, priv.getIdLong());
     }
@@ -1516,12 +1513,8 @@ public class EntityBuilder
         RoleImpl role = (RoleImpl) guild.getRolesView().get(id);
         if (role == null)
         {
-            SnowflakeCacheViewImpl<Role> roleView = guild.getRolesView();
-            try (UnlockHook hook = roleView.writeLock())
-            {
-                role = new RoleImpl(id, guild);
-                playbackCache = roleView.getMap().put(id, role) == null;
-            }
+            role = new RoleImpl(id, guild);
+            playbackCache = guild.getRolesView().put(role) == null;
         }
         final int color = roleJson.getInt("color");
         role.setName(roleJson.getString("name"))
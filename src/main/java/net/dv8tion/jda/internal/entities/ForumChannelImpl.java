@@ -51,11 +51,9 @@ import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.cache.SortedSnowflakeCacheViewImpl;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ForumChannelImpl extends AbstractGuildChannelImpl<ForumChannelImpl>
         implements ForumChannel,
@@ -96,10 +94,7 @@ public class ForumChannelImpl extends AbstractGuildChannelImpl<ForumChannelImpl>
     @Override
     public List<Member> getMembers()
     {
-        return Collections.unmodifiableList(getGuild().getMembers()
-                .stream()
-                .filter(m -> m.hasPermission(this, Permission.VIEW_CHANNEL))
-                .collect(Collectors.toList()));
+        return getGuild().getPermissionMatrix(this).getMembersWithPermission(this, Permission.VIEW_CHANNEL);
     }
 
     @Nonnull
@@ -237,14 +232,22 @@ public class ForumChannelImpl extends AbstractGuildChannelImpl<ForumChannelImpl>
     @Override
     public ForumChannelImpl setParentCategory(long parentCategoryId)
     {
+        if (this.parentCategoryId == parentCategoryId)
+            return this;
         this.parentCategoryId = parentCategoryId;
+        getGuild().getChannelView().markUnsorted();
+        // Permissions of the category apply to its channels
+        getGuild().invalidatePermissionCache();
         return this;
     }
 
     @Override
     public ForumChannelImpl setPosition(int position)
     {
+        if (this.position == position)
+            return this;
         this.position = position;
+        getGuild().getChannelView().markUnsorted();
         return this;
     }
 
@@ -55,11 +55,14 @@ import net.dv8tion.jda.api.requests.restaction.order.ChannelOrderAction;
 import net.dv8tion.jda.api.requests.restaction.order.RoleOrderAction;
 import net.dv8tion.jda.api.requests.restaction.pagination.AuditLogPaginationAction;
 import net.dv8tion.jda.api.utils.FileUpload;
+import net.dv8tion.jda.api.utils.PermissionMatrix;
 import net.dv8tion.jda.api.utils.cache.*;
+import net.dv8tion.jda.api.utils.concurrent.MemberSubscriber;
 import net.dv8tion.jda.api.utils.concurrent.Task;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.channel.mixin.middleman.AudioChannelMixin;
 import net.dv8tion.jda.internal.handle.EventCache;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
 import net.dv8tion.jda.internal.interactions.command.CommandImpl;
@@ -77,9 +80,14 @@ import net.dv8tion.jda.internal.requests.restaction.pagination.BanPaginationActi
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.EntityString;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.LazyVoiceState;
+import net.dv8tion.jda.internal.utils.PermissionCache;
+import net.dv8tion.jda.internal.utils.PermissionUtil;
 import net.dv8tion.jda.internal.utils.UnlockHook;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
+import net.dv8tion.jda.internal.utils.cache.ChannelCacheViewImpl;
 import net.dv8tion.jda.internal.utils.cache.MemberCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.MutualGuildIndex;
 import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
 import net.dv8tion.jda.internal.utils.cache.SortedSnowflakeCacheViewImpl;
 import net.dv8tion.jda.internal.utils.concurrent.task.GatewayTask;
@@ -92,6 +100,7 @@ import javax.annotation.Nullable;
 import java.time.OffsetDateTime;
 import java.time.temporal.TemporalAccessor;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -104,14 +113,19 @@ public class GuildImpl implements Guild
     private final long id;
     private final JDAImpl api;
 
-    private final SortedSnowflakeCacheViewImpl<Category> categoryCache = new SortedSnowflakeCacheViewImpl<>(Category.class, Channel::getName, Comparator.naturalOrder());
+    private final ChannelCacheViewImpl<GuildChannel> channelCache = new ChannelCacheViewImpl<>(GuildChannel.class);
+    private final SortedSnowflakeCacheViewImpl<Category> categoryCache = channelCache.createSortedView(Category.class, ChannelType.CATEGORY);
     private final SortedSnowflakeCacheViewImpl<ScheduledEvent> scheduledEventCache = new SortedSnowflakeCacheViewImpl<>(ScheduledEvent.class, ScheduledEvent::getName, Comparator.naturalOrder());
-    private final SortedSnowflakeCacheViewImpl<VoiceChannel> voiceChannelCache = new SortedSnowflakeCacheViewImpl<>(VoiceChannel.class, Channel::getName, Comparator.naturalOrder());
-    private final SortedSnowflakeCacheViewImpl<TextChannel> textChannelCache = new SortedSnowflakeCacheViewImpl<>(TextChannel.class, Channel::getName, Comparator.naturalOrder());
-    private final SortedSnowflakeCacheViewImpl<NewsChannel> newsChannelCache = new SortedSnowflakeCacheViewImpl<>(NewsChannel.class, Channel::getName, Comparator.naturalOrder());
-    private final SortedSnowflakeCacheViewImpl<StageChannel> stageChannelCache = new SortedSnowflakeCacheViewImpl<>(StageChannel.class, Channel::getName, Comparator.naturalOrder());
-    private final SortedSnowflakeCacheViewImpl<ThreadChannel> threadChannelCache = new SortedSnowflakeCacheViewImpl<>(ThreadChannel.class, Channel::getName, Comparator.naturalOrder());
-    private final SortedSnowflakeCacheViewImpl<ForumChannel> forumChannelCache = new SortedSnowflakeCacheViewImpl<>(ForumChannel.class, Channel::getName, Comparator.naturalOrder());
+    private final SortedSnowflakeCacheViewImpl<VoiceChannel> voiceChannelCache = channelCache.createSortedView(VoiceChannel.class, ChannelType.VOICE);
+    private final SortedSnowflakeCacheViewImpl<TextChannel> textChannelCache = channelCache.createSortedView(TextChannel.class, ChannelType.TEXT);
+    private final SortedSnowflakeCacheViewImpl<NewsChannel> newsChannelCache = channelCache.createSortedView(NewsChannel.class, ChannelType.NEWS);
+    private final SortedSnowflakeCacheViewImpl<StageChannel> stageChannelCache = channelCache.createSortedView(StageChannel.class, ChannelType.STAGE);
+    private final SortedSnowflakeCacheViewImpl<ThreadChannel> threadChannelCache = channelCache.createSortedView(ThreadChannel.class,
+        ChannelType.GUILD_NEWS_THREAD, ChannelType.GUILD_PUBLIC_THREAD, ChannelType.GUILD_PRIVATE_THREAD);
+    private final SortedSnowflakeCacheViewImpl<ForumChannel> forumChannelCache = channelCache.createSortedView(ForumChannel.class, ChannelType.FORUM);
+    // All channels except threads, in the canonical order of the client
+    private final SortedSnowflakeCacheViewImpl<GuildChannel> sortedChannelCache = channelCache.createSortedView(GuildChannel.class,
+        ChannelType.CATEGORY, ChannelType.VOICE, ChannelType.TEXT, ChannelType.NEWS, ChannelType.STAGE, ChannelType.FORUM);
     private final SortedSnowflakeCacheViewImpl<Role> roleCache = new SortedSnowflakeCacheViewImpl<>(Role.class, Role::getName, Comparator.reverseOrder());
     private final SnowflakeCacheViewImpl<RichCustomEmoji> emojicache = new SnowflakeCacheViewImpl<>(RichCustomEmoji.class, RichCustomEmoji::getName);
     private final SnowflakeCacheViewImpl<GuildSticker> stickerCache = new SnowflakeCacheViewImpl<>(GuildSticker.class, GuildSticker::getName);
@@ -128,6 +142,8 @@ public class GuildImpl implements Guild
     private int maxPresences, maxMembers;
     private int boostCount;
     private long ownerId;
+    private volatile long permissionEpoch;
+    private final PermissionCache permissionCache = new PermissionCache();
     private Set<String> features;
     private VoiceChannel afkChannel;
     private TextChannel systemChannel;
@@ -160,50 +176,14 @@ public class GuildImpl implements Guild
         //Remove everything from global cache
         // this prevents some race-conditions for getting audio managers from guilds
         SnowflakeCacheViewImpl<Guild> guildView = getJDA().getGuildsView();
-        SnowflakeCacheViewImpl<StageChannel> stageView = getJDA().getStageChannelView();
-        SnowflakeCacheViewImpl<TextChannel> textView = getJDA().getTextChannelsView();
-        SnowflakeCacheViewImpl<ThreadChannel> threadView = getJDA().getThreadChannelsView();
-        SnowflakeCacheViewImpl<NewsChannel> newsView = getJDA().getNewsChannelView();
-        SnowflakeCacheViewImpl<ForumChannel> forumView = getJDA().getForumChannelsView();
-        SnowflakeCacheViewImpl<VoiceChannel> voiceView = getJDA().getVoiceChannelsView();
-        SnowflakeCacheViewImpl<Category> categoryView = getJDA().getCategoriesView();
+        ChannelCacheViewImpl<Channel> channelsView = getJDA().getChannelsView();
 
         guildView.remove(id);
 
-        try (UnlockHook hook = stageView.writeLock())
+        try (UnlockHook hook = channelsView.writeLock())
         {
-            getStageChannelCache()
-                .forEachUnordered(chan -> stageView.getMap().remove(chan.getIdLong()));
-        }
-        try (UnlockHook hook = textView.writeLock())
-        {
-            getTextChannelCache()
-                .forEachUnordered(chan -> textView.getMap().remove(chan.getIdLong()));
-        }
-        try (UnlockHook hook = threadView.writeLock())
-        {
-            getThreadChannelsView()
-                .forEachUnordered(chan -> threadView.getMap().remove(chan.getIdLong()));
-        }
-        try (UnlockHook hook = newsView.writeLock())
-        {
-            getNewsChannelCache()
-                .forEachUnordered(chan -> newsView.getMap().remove(chan.getIdLong()));
-        }
-        try (UnlockHook hook = forumView.writeLock())
-        {
-            getForumChannelCache()
-                .forEachUnordered(chan -> forumView.getMap().remove(chan.getIdLong()));
-        }
-        try (UnlockHook hook = voiceView.writeLock())
-        {
-            getVoiceChannelCache()
-                .forEachUnordered(chan -> voiceView.getMap().remove(chan.getIdLong()));
-        }
-        try (UnlockHook hook = categoryView.writeLock())
-        {
-            getCategoryCache()
-                .forEachUnordered(chan -> categoryView.getMap().remove(chan.getIdLong()));
+            getChannelView()
+                .forEach(chan -> channelsView.remove(chan.getIdLong()));
         }
 
         // Clear audio connection
@@ -215,20 +195,17 @@ public class GuildImpl implements Guild
         audioManagerView.remove(id); //write-lock access/release
 
         //cleaning up all users that we do not share a guild with anymore
-        // Anything left in memberIds will be removed from the main userMap
-        //Use a new HashSet so that we don't actually modify the Member map so it doesn't affect Guild#getMembers for the leave event.
+        //Use a copy of the keys so that we don't actually modify the Member map so it doesn't affect Guild#getMembers for the leave event.
         TLongSet memberIds = getMembersView().keySet(); // copies keys
-        getJDA().getGuildCache().stream()
-                .map(GuildImpl.class::cast)
-                .forEach(g -> memberIds.removeAll(g.getMembersView().keySet()));
-        // Remember, everything left in memberIds is removed from the userMap
+        MutualGuildIndex mutualGuilds = getJDA().getMutualGuildIndex();
         SnowflakeCacheViewImpl<User> userView = getJDA().getUsersView();
         try (UnlockHook hook = userView.writeLock())
         {
             long selfId = getJDA().getSelfUser().getIdLong();
             memberIds.forEach(memberId -> {
-                if (memberId == selfId)
-                    return true; // don't remove selfUser from cache
+                mutualGuilds.remove(memberId, id);
+                if (memberId == selfId || mutualGuilds.hasGuilds(memberId))
+                    return true; // don't remove selfUser or users we still share a guild with from cache
                 userView.remove(memberId);
                 getJDA().getEventCache().clear(EventCache.Type.USER, memberId);
                 return true;
@@ -667,6 +644,13 @@ public class GuildImpl implements Guild
         return memberCache;
     }
 
+    @Nonnull
+    @Override
+    public PermissionMatrix getPermissionMatrix(@Nonnull Collection<? extends GuildChannel> channels)
+    {
+        return PermissionUtil.getPermissionMatrix(this, channels);
+    }
+
     @Nonnull
     @Override
     public SortedSnowflakeCacheView<ScheduledEvent> getScheduledEventCache()
@@ -744,38 +728,30 @@ public class GuildImpl implements Guild
         return stickerCache;
     }
 
+    @Nullable
+    @Override
+    public GuildChannel getGuildChannelById(long id)
+    {
+        return channelCache.getElementById(id);
+    }
+
     @Nonnull
     @Override
     public List<GuildChannel> getChannels(boolean includeHidden)
     {
-        Member self = getSelfMember();
-        Predicate<GuildChannel> filterHidden = includeHidden ? (it) -> true : it -> self.hasPermission(it, Permission.VIEW_CHANNEL);
-
-        SnowflakeCacheViewImpl<Category> categories = getCategoriesView();
-        SnowflakeCacheViewImpl<VoiceChannel> voice = getVoiceChannelsView();
-        SnowflakeCacheViewImpl<StageChannel> stage = getStageChannelsView();
-        SnowflakeCacheViewImpl<TextChannel> text = getTextChannelsView();
-        SnowflakeCacheViewImpl<NewsChannel> news = getNewsChannelView();
-        SnowflakeCacheViewImpl<ForumChannel> forum = getForumChannelsView();
-
-        List<GuildChannel> channels = new ArrayList<>((int) (categories.size() + voice.size() + stage.size() + text.size() + news.size() + forum.size()));
-
-        voice.acceptStream(stream -> stream.filter(filterHidden).forEach(channels::add));
-        stage.acceptStream(stream -> stream.filter(filterHidden).forEach(channels::add));
-        text.acceptStream(stream -> stream.filter(filterHidden).forEach(channels::add));
-        news.acceptStream(stream -> stream.filter(filterHidden).forEach(channels::add));
-        forum.acceptStream(stream -> stream.filter(filterHidden).forEach(channels::add));
+        // See AbstractGuildChannelImpl#compareTo for details on how this achieves the canonical order of the client
+        List<GuildChannel> sorted = sortedChannelCache.asList();
+        if (includeHidden)
+            return sorted;
 
-        categories.forEach(category ->
+        Member self = getSelfMember();
+        Predicate<GuildChannel> filterHidden = it -> self.hasPermission(it, Permission.VIEW_CHANNEL);
+        List<GuildChannel> channels = new ArrayList<>(sorted.size());
+        for (GuildChannel channel : sorted)
         {
-            if (!includeHidden && category.getChannels().stream().noneMatch(filterHidden))
-                return;
-
-            channels.add(category);
-        });
-
-        // See AbstractGuildChannelImpl#compareTo for details on how this achieves the canonical order of the client
-        Collections.sort(channels);
+            if (channel instanceof Category ? ((Category) channel).getChannels().stream().anyMatch(filterHidden) : filterHidden.test(channel))
+                channels.add(channel);
+        }
 
         return Collections.unmodifiableList(channels);
     }
@@ -1125,6 +1101,15 @@ public class GuildImpl implements Guild
         return new GatewayTask<>(handler, () -> handler.cancel(false));
     }
 
+    @Override
+    public void subscribeMembers(@Nonnull MemberSubscriber subscriber)
+    {
+        Checks.notNull(subscriber, "Subscriber");
+        if (!getJDA().isIntent(GatewayIntent.GUILD_MEMBERS))
+            throw new IllegalStateException("Cannot use subscribeMembers without GatewayIntent.GUILD_MEMBERS!");
+        new MemberChunkSubscription(this, subscriber, getJDA().isIntent(GatewayIntent.GUILD_PRESENCES)).start();
+    }
+
     @Nonnull
     @Override
     public CacheRestAction<Member> retrieveMemberById(long id)
@@ -1156,21 +1141,15 @@ public class GuildImpl implements Guild
             return new GatewayTask<>(CompletableFuture.completedFuture(Collections.emptyList()), () -> {});
         Checks.check(ids.length <= 100, "You can only request 100 members at once");
         MemberChunkManager chunkManager = api.getClient().getChunkManager();
-        List<Member> collect = new ArrayList<>(ids.length);
-        CompletableFuture<List<Member>> result = new CompletableFuture<>();
-        CompletableFuture<Void> handle = chunkManager.chunkGuild(this, includePresence, ids, (last, list) -> {
-            collect.addAll(list);
-            if (last)
-                result.complete(collect);
-        });
-
-        handle.exceptionally(ex -> {
-            WebSocketClient.LOG.error("Encountered exception trying to handle member chunk response", ex);
-            result.completeExceptionally(ex);
+        // Concurrent lookups for this guild are batched into a single request
+        CompletableFuture<List<Member>> result = chunkManager.retrieveMembers(this, includePresence, ids);
+        result.exceptionally(ex -> {
+            if (!(ex instanceof CancellationException))
+                WebSocketClient.LOG.error("Encountered exception trying to handle member chunk response", ex);
             return null;
         });
 
-        return new GatewayTask<>(result, () -> handle.cancel(false));
+        return new GatewayTask<>(result, () -> result.cancel(false));
     }
 
     @Nonnull
@@ -1352,10 +1331,9 @@ public class GuildImpl implements Guild
         if (audioChannel != null)
             checkGuild(audioChannel.getGuild(), "AudioChannel");
 
-        GuildVoiceState vState = member.getVoiceState();
-        if (vState == null)
+        if (!LazyVoiceState.isVoiceStateCached(member))
             throw new IllegalStateException("Cannot move a Member with disabled CacheFlag.VOICE_STATE");
-        AudioChannel channel = vState.getChannel();
+        AudioChannel channel = LazyVoiceState.getConnectedChannel(member);
         if (channel == null)
             throw new IllegalStateException("You cannot move a Member who isn't in an AudioChannel!");
 
@@ -1522,16 +1500,14 @@ public class GuildImpl implements Guild
         checkPermission(Permission.VOICE_DEAF_OTHERS);
 
         Member member = resolveMember(user);
-        if (member != null)
+        if (member != null && LazyVoiceState.isVoiceStateCached(member))
         {
-            GuildVoiceState voiceState = member.getVoiceState();
-            if (voiceState != null)
-            {
-                if (voiceState.getChannel() == null)
-                    throw new IllegalStateException("Can only deafen members who are currently in a voice channel");
-                if (voiceState.isGuildDeafened() == deafen)
-                    return new CompletedRestAction<>(getJDA(), null);
-            }
+            // Members without a voice state have never been connected
+            GuildVoiceState voiceState = LazyVoiceState.getVoiceStateIfPresent(member);
+            if (voiceState == null || voiceState.getChannel() == null)
+                throw new IllegalStateException("Can only deafen members who are currently in a voice channel");
+            if (voiceState.isGuildDeafened() == deafen)
+                return new CompletedRestAction<>(getJDA(), null);
         }
 
         DataObject body = DataObject.empty().put("deaf", deafen);
@@ -1547,16 +1523,14 @@ public class GuildImpl implements Guild
         checkPermission(Permission.VOICE_MUTE_OTHERS);
 
         Member member = resolveMember(user);
-        if (member != null)
+        if (member != null && LazyVoiceState.isVoiceStateCached(member))
         {
-            GuildVoiceState voiceState = member.getVoiceState();
-            if (voiceState != null)
-            {
-                if (voiceState.getChannel() == null)
-                    throw new IllegalStateException("Can only mute members who are currently in a voice channel");
-                if (voiceState.isGuildMuted() == mute && (mute || !voiceState.isSuppressed()))
-                    return new CompletedRestAction<>(getJDA(), null);
-            }
+            // Members without a voice state have never been connected
+            GuildVoiceState voiceState = LazyVoiceState.getVoiceStateIfPresent(member);
+            if (voiceState == null || voiceState.getChannel() == null)
+                throw new IllegalStateException("Can only mute members who are currently in a voice channel");
+            if (voiceState.isGuildMuted() == mute && (mute || !voiceState.isSuppressed()))
+                return new CompletedRestAction<>(getJDA(), null);
         }
 
         DataObject body = DataObject.empty().put("mute", mute);
@@ -1599,7 +1573,7 @@ public class GuildImpl implements Guild
         Checks.notNull(member, "Member");
         checkGuild(member.getGuild(), "Member");
         checkPermission(Permission.MANAGE_ROLES);
-        Set<Role> currentRoles = new HashSet<>(((MemberImpl) member).getRoleSet());
+        Set<Role> currentRoles = new HashSet<>(member.getRoles());
         if (rolesToAdd != null)
         {
             checkRoles(rolesToAdd, "add", "to");
@@ -2123,10 +2097,32 @@ public class GuildImpl implements Guild
 
     public GuildImpl setOwnerId(long ownerId)
     {
+        if (this.ownerId == ownerId)
+            return this;
         this.ownerId = ownerId;
+        invalidatePermissionCache();
         return this;
     }
 
+    public long getPermissionEpoch()
+    {
+        return permissionEpoch;
+    }
+
+    public PermissionCache getPermissionCache()
+    {
+        return permissionCache;
+    }
+
+    /**
+     * Invalidates the cached permissions of all members, this has to be called after a change that affects permissions.
+     * <br>Changes to the roles or timeout of a single member only invalidate that member instead.
+     */
+    public void invalidatePermissionCache()
+    {
+        permissionEpoch++;
+    }
+
     public GuildImpl setMemberCount(int count)
     {
         this.memberCount = count;
@@ -2152,6 +2148,11 @@ public class GuildImpl implements Guild
         return scheduledEventCache;
     }
 
+    public ChannelCacheViewImpl<GuildChannel> getChannelView()
+    {
+        return channelCache;
+    }
+
     public SortedSnowflakeCacheViewImpl<Category> getCategoriesView()
     {
         return categoryCache;
@@ -2220,6 +2221,25 @@ public class GuildImpl implements Guild
         return memberPresences;
     }
 
+    public void addCacheStats(Map<CacheStats.Type, Long> stats)
+    {
+        long threads = threadChannelCache.size();
+        long[] voiceStates = new long[1];
+        Consumer<AudioChannel> countConnected = channel -> voiceStates[0] += ((AudioChannelMixin<?>) channel).getConnectedMembersMap().size();
+        voiceChannelCache.forEachUnordered(countConnected);
+        stageChannelCache.forEachUnordered(countConnected);
+
+        stats.merge(CacheStats.Type.MEMBER, memberCache.size(), Long::sum);
+        stats.merge(CacheStats.Type.PRESENCE, memberPresences == null ? 0L : memberPresences.size(), Long::sum);
+        stats.merge(CacheStats.Type.CHANNEL, channelCache.size() - threads, Long::sum);
+        stats.merge(CacheStats.Type.THREAD, threads, Long::sum);
+        stats.merge(CacheStats.Type.ROLE, roleCache.size(), Long::sum);
+        stats.merge(CacheStats.Type.EMOJI, emojicache.size(), Long::sum);
+        stats.merge(CacheStats.Type.STICKER, stickerCache.size(), Long::sum);
+        stats.merge(CacheStats.Type.VOICE_STATE, voiceStates[0], Long::sum);
+        stats.merge(CacheStats.Type.SCHEDULED_EVENT, scheduledEventCache.size(), Long::sum);
+    }
+
     // -- Member Tracking --
 
     public void onMemberAdd()
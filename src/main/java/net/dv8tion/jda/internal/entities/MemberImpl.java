@@ -16,7 +16,10 @@
 
 package net.dv8tion.jda.internal.entities;
 
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TLongLongMap;
 import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongLongHashMap;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.Permission;
@@ -32,6 +35,8 @@ import net.dv8tion.jda.internal.entities.channel.mixin.attribute.IPermissionCont
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.EntityString;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.ImageHash;
+import net.dv8tion.jda.internal.utils.LazyVoiceState;
 import net.dv8tion.jda.internal.utils.PermissionUtil;
 
 import javax.annotation.Nonnull;
@@ -40,19 +45,28 @@ import java.awt.*;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
-public class MemberImpl implements Member
+public class MemberImpl implements Member, LazyVoiceState
 {
+    private static final long[] NO_ROLES = new long[0];
+
     private final JDAImpl api;
-    private final Set<Role> roles = ConcurrentHashMap.newKeySet();
-    private final GuildVoiceState voiceState;
+    // Sorted role ids, replaced on every update so readers never see a partial change
+    private volatile long[] roleIds = NO_ROLES;
+    private final boolean cacheVoiceState;
+    // Allocated on first use, most members never join a voice channel
+    private volatile GuildVoiceStateImpl voiceState;
+    // Effective permissions by channel id, only used for channels with an override for this member
+    // Every other check is cached by the guild for the role set of the member
+    private TLongLongMap permissionCache;
+    private long permissionCacheEpoch;
+    private volatile long permissionEpoch;
 
     private GuildImpl guild;
     private User user;
     private String nickname;
-    private String avatarId;
+    private ImageHash avatar;
     private long joinDate, boostDate, timeOutEnd;
     private boolean pending = false;
 
@@ -62,8 +76,7 @@ public class MemberImpl implements Member
         this.guild = guild;
         this.user = user;
         this.joinDate = 0;
-        boolean cacheState = api.isCacheFlagSet(CacheFlag.VOICE_STATE) || user.equals(api.getSelfUser());
-        this.voiceState = cacheState ? new GuildVoiceStateImpl(this) : null;
+        this.cacheVoiceState = api.isCacheFlagSet(CacheFlag.VOICE_STATE) || user.equals(api.getSelfUser());
     }
 
     public MemberPresenceImpl getPresence()
@@ -137,10 +150,33 @@ public class MemberImpl implements Member
 
     @Override
     public GuildVoiceState getVoiceState()
+    {
+        if (!cacheVoiceState)
+            return null;
+        if (voiceState == null)
+        {
+            synchronized (this)
+            {
+                if (voiceState == null)
+                    voiceState = new GuildVoiceStateImpl(this);
+            }
+        }
+        return voiceState;
+    }
+
+    @Nullable
+    @Override
+    public GuildVoiceStateImpl getVoiceStateIfPresent()
     {
         return voiceState;
     }
 
+    @Override
+    public boolean isVoiceStateCached()
+    {
+        return cacheVoiceState;
+    }
+
     @Nonnull
     @Override
     public List<Activity> getActivities()
@@ -165,7 +201,7 @@ public class MemberImpl implements Member
         MemberPresenceImpl presence = getPresence();
         if (presence == null)
             return OnlineStatus.OFFLINE;
-        OnlineStatus status = presence.getClientStatus().get(type);
+        OnlineStatus status = presence.getClientStatus(type);
         return status == null ? OnlineStatus.OFFLINE : status;
     }
 
@@ -174,7 +210,7 @@ public class MemberImpl implements Member
     public EnumSet<ClientType> getActiveClients()
     {
         MemberPresenceImpl presence = getPresence();
-        return presence == null ? EnumSet.noneOf(ClientType.class) : Helpers.copyEnumSet(ClientType.class, presence.getClientStatus().keySet());
+        return presence == null ? EnumSet.noneOf(ClientType.class) : presence.getActiveClients();
     }
 
     @Override
@@ -186,7 +222,7 @@ public class MemberImpl implements Member
     @Override
     public String getAvatarId()
     {
-        return avatarId;
+        return ImageHash.toString(avatar);
     }
 
     @Nonnull
@@ -200,7 +236,18 @@ public class MemberImpl implements Member
     @Override
     public List<Role> getRoles()
     {
-        List<Role> roleList = new ArrayList<>(roles);
+        long[] ids = roleIds;
+        if (ids.length == 0)
+            return Collections.emptyList();
+
+        GuildImpl guild = getGuild();
+        List<Role> roleList = new ArrayList<>(ids.length);
+        for (long id : ids)
+        {
+            Role role = guild.getRoleById(id);
+            if (role != null)
+                roleList.add(role);
+        }
         roleList.sort(Comparator.reverseOrder());
 
         return Collections.unmodifiableList(roleList);
@@ -378,7 +425,7 @@ public class MemberImpl implements Member
 
     public MemberImpl setAvatarId(String avatarId)
     {
-        this.avatarId = avatarId;
+        this.avatar = ImageHash.of(avatarId);
         return this;
     }
 
@@ -397,6 +444,7 @@ public class MemberImpl implements Member
     public MemberImpl setTimeOutEnd(long time)
     {
         this.timeOutEnd = time;
+        invalidatePermissionCache();
         return this;
     }
 
@@ -406,9 +454,81 @@ public class MemberImpl implements Member
         return this;
     }
 
-    public Set<Role> getRoleSet()
+    public MemberImpl setRoles(Collection<? extends Role> roles)
+    {
+        long[] ids = new long[roles.size()];
+        int i = 0;
+        for (Role role : roles)
+            ids[i++] = role.getIdLong();
+        Arrays.sort(ids);
+        this.roleIds = ids;
+        invalidatePermissionCache();
+        return this;
+    }
+
+    /**
+     * The sorted ids of the roles of this member.
+     * <br>The returned array is shared and must not be modified.
+     *
+     * @return The role ids
+     */
+    public long[] getRoleIdsRaw()
+    {
+        return roleIds;
+    }
+
+    public boolean hasRole(long roleId)
+    {
+        return Arrays.binarySearch(roleIds, roleId) >= 0;
+    }
+
+    public void removeRole(long roleId)
+    {
+        long[] ids = roleIds;
+        int index = Arrays.binarySearch(ids, roleId);
+        if (index < 0)
+            return;
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        System.arraycopy(ids, index + 1, updated, index, updated.length - index);
+        this.roleIds = updated;
+        invalidatePermissionCache();
+    }
+
+    /**
+     * The current epoch of the permissions of this member.
+     * <br>This changes whenever the guild invalidates its permissions, or the roles or timeout of this member change.
+     *
+     * @return The permission epoch
+     */
+    public long getPermissionEpoch()
+    {
+        // Both epochs only ever increase, so their sum changes whenever either of them changes
+        return getGuild().getPermissionEpoch() + permissionEpoch;
+    }
+
+    public void invalidatePermissionCache()
+    {
+        permissionEpoch++;
+    }
+
+    public synchronized long getCachedPermissions(long channelId, long epoch)
+    {
+        if (permissionCache == null || permissionCacheEpoch != epoch)
+            return -1;
+        return permissionCache.get(channelId);
+    }
+
+    public synchronized void cachePermissions(long channelId, long epoch, long permissions)
     {
-        return roles;
+        if (permissionCache == null)
+            permissionCache = new TLongLongHashMap(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, 0, -1);
+        else if (permissionCacheEpoch > epoch)
+            return; // Computed before the latest invalidation
+        if (permissionCacheEpoch != epoch)
+            permissionCache.clear();
+        permissionCacheEpoch = epoch;
+        permissionCache.put(channelId, permissions);
     }
 
     public long getBoostDateRaw()
@@ -437,7 +557,7 @@ public class MemberImpl implements Member
     @Override
     public int hashCode()
     {
-        return (guild.getIdLong() + user.getId()).hashCode();
+        return 31 * Long.hashCode(guild.getIdLong()) + Long.hashCode(user.getIdLong());
     }
 
     @Override
@@ -19,25 +19,37 @@ package net.dv8tion.jda.internal.entities;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.ClientType;
+import net.dv8tion.jda.api.utils.data.DataArray;
 
 import java.util.Collections;
-import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 
 public class MemberPresenceImpl
 {
+    private static final ClientType[] CLIENT_TYPES = ClientType.values();
+    private static final OnlineStatus[] STATUSES = OnlineStatus.values();
+    private static final int CLIENT_STATUS_BITS = 4;
+    private static final int CLIENT_STATUS_MASK = (1 << CLIENT_STATUS_BITS) - 1;
+
     private List<Activity> activities = Collections.emptyList();
-    private EnumMap<ClientType, OnlineStatus> clientStatus;
+    // Activities are only parsed once they are accessed, see EntityBuilder#createActivities
+    private DataArray rawActivities;
+    // The status of each client type, packed as (ordinal + 1) at the offset of the client type ordinal, 0 means offline
+    private volatile int clientStatus;
     private OnlineStatus status = OnlineStatus.OFFLINE;
+    // Fingerprint of the last handled presence update, see PresenceUpdateHandler
+    private long fingerprint;
 
-    public void setActivities(List<Activity> activities)
+    public synchronized void setActivities(List<Activity> activities)
     {
         this.activities = activities;
+        this.rawActivities = null;
     }
 
-    public void setClientStatus(EnumMap<ClientType, OnlineStatus> clientStatus)
+    public synchronized void setRawActivities(DataArray activities)
     {
-        this.clientStatus = clientStatus;
+        this.rawActivities = activities;
     }
 
     public void setOnlineStatus(OnlineStatus status)
@@ -45,16 +57,32 @@ public class MemberPresenceImpl
         this.status = status;
     }
 
-    public List<Activity> getActivities()
+    public synchronized List<Activity> getActivities()
     {
+        if (rawActivities != null)
+        {
+            activities = EntityBuilder.createActivities(rawActivities);
+            rawActivities = null;
+        }
         return activities;
     }
 
-    public EnumMap<ClientType, OnlineStatus> getClientStatus()
+    public OnlineStatus getClientStatus(ClientType type)
+    {
+        int raw = (clientStatus >>> shift(type)) & CLIENT_STATUS_MASK;
+        return raw == 0 ? null : STATUSES[raw - 1];
+    }
+
+    public EnumSet<ClientType> getActiveClients()
     {
-        if (clientStatus == null)
-            return new EnumMap<>(ClientType.class);
-        return clientStatus;
+        EnumSet<ClientType> clients = EnumSet.noneOf(ClientType.class);
+        int packed = clientStatus;
+        for (ClientType type : CLIENT_TYPES)
+        {
+            if (((packed >>> shift(type)) & CLIENT_STATUS_MASK) != 0)
+                clients.add(type);
+        }
+        return clients;
     }
 
     public OnlineStatus getOnlineStatus()
@@ -62,17 +90,25 @@ public class MemberPresenceImpl
         return status;
     }
 
+    public long getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    public void setFingerprint(long fingerprint)
+    {
+        this.fingerprint = fingerprint;
+    }
+
     public void setOnlineStatus(ClientType type, OnlineStatus clientStatus)
     {
-        if (this.clientStatus == null)
-        {
-            if (clientStatus == null || clientStatus == OnlineStatus.OFFLINE)
-                return;
-            this.clientStatus = new EnumMap<>(ClientType.class);
-        }
-        if (clientStatus == OnlineStatus.OFFLINE)
-            this.clientStatus.remove(type);
-        else
-            this.clientStatus.put(type, clientStatus);
+        int value = clientStatus == null || clientStatus == OnlineStatus.OFFLINE ? 0 : clientStatus.ordinal() + 1;
+        int shift = shift(type);
+        this.clientStatus = (this.clientStatus & ~(CLIENT_STATUS_MASK << shift)) | (value << shift);
+    }
+
+    private static int shift(ClientType type)
+    {
+        return type.ordinal() * CLIENT_STATUS_BITS;
     }
 }
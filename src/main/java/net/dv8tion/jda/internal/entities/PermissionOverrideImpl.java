@@ -173,13 +173,19 @@ public class PermissionOverrideImpl implements PermissionOverride
 
     public PermissionOverrideImpl setAllow(long allow)
     {
+        if (this.allow == allow)
+            return this;
         this.allow = allow;
+        ((GuildImpl) getGuild()).invalidatePermissionCache();
         return this;
     }
 
     public PermissionOverrideImpl setDeny(long deny)
     {
+        if (this.deny == deny)
+            return this;
         this.deny = deny;
+        ((GuildImpl) getGuild()).invalidatePermissionCache();
         return this;
     }
 
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.entities;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.Helpers;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The decoded parts of a guild payload, which don't depend on any cache.
+ *
+ * <p>Preparing a guild does not access the state of JDA and doesn't modify the payload.
+ * This separates decoding the payload from creating the entities, which the streaming member setup uses
+ * to create the guild before its members have arrived.
+ *
+ * @see EntityBuilder#createGuild(PreparedGuild)
+ */
+public class PreparedGuild
+{
+    private final long id;
+    private final DataObject json;
+    private final int memberCount;
+    private final Set<String> features;
+    private final TLongObjectMap<DataObject> voiceStates;
+    private final TLongObjectMap<DataObject> presences;
+    private final List<PreparedMember> members;
+
+    public PreparedGuild(long id, DataObject json, TLongObjectMap<DataObject> members, int memberCount)
+    {
+        this.id = id;
+        this.json = json;
+        this.memberCount = memberCount;
+        this.features = json.optArray("features").map(array ->
+            array.stream(DataArray::getString)
+                 .map(String::intern) // Prevent allocating the same feature string over and over
+                 .collect(Collectors.toSet())
+        ).orElse(Collections.emptySet());
+        this.voiceStates = Helpers.convertToMap((o) -> o.getUnsignedLong("user_id", 0L), json.getArray("voice_states"));
+        this.presences = json.optArray("presences")
+            .map(o1 -> Helpers.convertToMap(o2 -> o2.getObject("user").getUnsignedLong("id"), o1))
+            .orElseGet(TLongObjectHashMap::new);
+        this.members = new ArrayList<>(members.size());
+        for (DataObject member : members.valueCollection())
+            this.members.add(new PreparedMember(member));
+    }
+
+    public long getIdLong()
+    {
+        return id;
+    }
+
+    public DataObject getJson()
+    {
+        return json;
+    }
+
+    public int getMemberCount()
+    {
+        return memberCount;
+    }
+
+    public Set<String> getFeatures()
+    {
+        return features;
+    }
+
+    public TLongObjectMap<DataObject> getVoiceStates()
+    {
+        return voiceStates;
+    }
+
+    public TLongObjectMap<DataObject> getPresences()
+    {
+        return presences;
+    }
+
+    public List<PreparedMember> getMembers()
+    {
+        return members;
+    }
+
+    /**
+     * The decoded parts of a member payload.
+     * <br>Timestamps are the most expensive part of creating a member, these are parsed ahead of time.
+     */
+    public static class PreparedMember
+    {
+        private final DataObject json;
+        private final long userId;
+        private final long[] roleIds;
+        private final long joinDate, boostDate, timeOutEnd;
+
+        public PreparedMember(DataObject json)
+        {
+            this.json = json;
+            this.userId = json.getObject("user").getUnsignedLong("id");
+            DataArray roleArray = json.getArray("roles");
+            this.roleIds = new long[roleArray.length()];
+            for (int i = 0; i < roleIds.length; i++)
+                roleIds[i] = roleArray.getUnsignedLong(i);
+            this.joinDate = parseTimestamp(json, "joined_at");
+            this.boostDate = parseTimestamp(json, "premium_since");
+            this.timeOutEnd = parseTimestamp(json, "communication_disabled_until");
+        }
+
+        public DataObject getJson()
+        {
+            return json;
+        }
+
+        public long getUserId()
+        {
+            return userId;
+        }
+
+        public long[] getRoleIds()
+        {
+            return roleIds;
+        }
+
+        public long getJoinDate()
+        {
+            return joinDate;
+        }
+
+        public long getBoostDate()
+        {
+            return boostDate;
+        }
+
+        public long getTimeOutEnd()
+        {
+            return timeOutEnd;
+        }
+
+        private static long parseTimestamp(DataObject json, String key)
+        {
+            return json.isNull(key) ? 0 : Helpers.toTimestamp(json.getString(key));
+        }
+    }
+}
@@ -439,15 +439,20 @@ public class RoleImpl implements Role
 
     public RoleImpl setRawPermissions(long rawPermissions)
     {
+        if (this.rawPermissions == rawPermissions)
+            return this;
         this.rawPermissions = rawPermissions;
+        ((GuildImpl) getGuild()).invalidatePermissionCache();
         return this;
     }
 
     public RoleImpl setRawPosition(int rawPosition)
     {
-        SortedSnowflakeCacheViewImpl<Role> roleCache = (SortedSnowflakeCacheViewImpl<Role>) getGuild().getRoleCache();
-        roleCache.clearCachedLists();
+        if (this.rawPosition == rawPosition)
+            return this;
         this.rawPosition = rawPosition;
+        SortedSnowflakeCacheViewImpl<Role> roleCache = (SortedSnowflakeCacheViewImpl<Role>) getGuild().getRoleCache();
+        roleCache.markUnsorted();
         return this;
     }
 
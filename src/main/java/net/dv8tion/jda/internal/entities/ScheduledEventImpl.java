@@ -31,6 +31,7 @@ import net.dv8tion.jda.internal.utils.Checks;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.OffsetDateTime;
+import java.util.Objects;
 
 public class ScheduledEventImpl implements ScheduledEvent
 {
@@ -226,7 +227,10 @@ public class ScheduledEventImpl implements ScheduledEvent
 
     public ScheduledEventImpl setStartTime(OffsetDateTime startTime)
     {
+        if (Objects.equals(this.startTime, startTime))
+            return this;
         this.startTime = startTime;
+        ((GuildImpl) guild).getScheduledEventsView().markUnsorted();
         return this;
     }
 
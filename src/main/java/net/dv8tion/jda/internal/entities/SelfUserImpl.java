@@ -142,7 +142,7 @@ public class SelfUserImpl extends UserImpl implements SelfUser
     {
         SelfUserImpl selfUser = new SelfUserImpl(other.id, jda);
         selfUser.setName(other.name)
-                .setAvatarId(other.avatarId)
+                .setAvatarId(other.getAvatarId())
                 .setDiscriminator(other.getDiscriminator())
                 .setBot(other.bot);
         return selfUser
@@ -29,6 +29,7 @@ import net.dv8tion.jda.internal.requests.RestActionImpl;
 import net.dv8tion.jda.internal.requests.Route;
 import net.dv8tion.jda.internal.utils.EntityString;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.ImageHash;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -43,7 +44,7 @@ public class UserImpl extends UserSnowflakeImpl implements User
 
     protected short discriminator;
     protected String name;
-    protected String avatarId;
+    protected ImageHash avatar;
     protected Profile profile;
     protected long privateChannelId = 0L;
     protected boolean bot;
@@ -75,7 +76,7 @@ public class UserImpl extends UserSnowflakeImpl implements User
     @Override
     public String getAvatarId()
     {
-        return avatarId;
+        return ImageHash.toString(avatar);
     }
 
     @Nonnull
@@ -207,7 +208,7 @@ public class UserImpl extends UserSnowflakeImpl implements User
 
     public UserImpl setAvatarId(String avatarId)
     {
-        this.avatarId = avatarId;
+        this.avatar = ImageHash.of(avatarId);
         return this;
     }
 
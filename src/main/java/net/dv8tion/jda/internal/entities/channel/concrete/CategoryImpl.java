@@ -160,7 +160,11 @@ public class CategoryImpl extends AbstractGuildChannelImpl<CategoryImpl> impleme
     @Override
     public CategoryImpl setPosition(int position)
     {
+        if (this.position == position)
+            return this;
         this.position = position;
+        // This also changes the order of all channels in this category
+        getGuild().getChannelView().markUnsorted();
         return this;
     }
 
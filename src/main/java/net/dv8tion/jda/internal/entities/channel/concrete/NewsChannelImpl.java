@@ -37,9 +37,7 @@ import net.dv8tion.jda.internal.requests.Route;
 import net.dv8tion.jda.internal.utils.Checks;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class NewsChannelImpl extends AbstractStandardGuildMessageChannelImpl<NewsChannelImpl>
         implements NewsChannel,
@@ -61,9 +59,7 @@ public class NewsChannelImpl extends AbstractStandardGuildMessageChannelImpl<New
     @Override
     public List<Member> getMembers()
     {
-        return Collections.unmodifiableList(getGuild().getMembersView().stream()
-            .filter(m -> m.hasPermission(this, Permission.VIEW_CHANNEL))
-            .collect(Collectors.toList()));
+        return getGuild().getPermissionMatrix(this).getMembersWithPermission(this, Permission.VIEW_CHANNEL);
     }
 
     @Nonnull
@@ -108,11 +104,4 @@ public class NewsChannelImpl extends AbstractStandardGuildMessageChannelImpl<New
     {
         return new NewsChannelManagerImpl(this);
     }
-
-    // -- Abstract hooks --
-    @Override
-    protected void onPositionChange()
-    {
-        getGuild().getNewsChannelView().clearCachedLists();
-    }
 }
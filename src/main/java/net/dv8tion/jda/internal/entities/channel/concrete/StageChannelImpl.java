@@ -209,11 +209,4 @@ public class StageChannelImpl extends AbstractStandardGuildChannelImpl<StageChan
         this.instance = instance;
         return this;
     }
-
-    // -- Abstract Hooks --
-    @Override
-    protected void onPositionChange()
-    {
-        getGuild().getStageChannelsView().clearCachedLists();
-    }
 }
@@ -33,9 +33,7 @@ import net.dv8tion.jda.internal.managers.channel.concrete.TextChannelManagerImpl
 import net.dv8tion.jda.internal.utils.Checks;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class TextChannelImpl extends AbstractStandardGuildMessageChannelImpl<TextChannelImpl> implements
         TextChannel,
@@ -60,9 +58,7 @@ public class TextChannelImpl extends AbstractStandardGuildMessageChannelImpl<Tex
     @Override
     public List<Member> getMembers()
     {
-        return Collections.unmodifiableList(getGuild().getMembersView().stream()
-            .filter(m -> m.hasPermission(this, Permission.VIEW_CHANNEL))
-            .collect(Collectors.toList()));
+        return getGuild().getPermissionMatrix(this).getMembersWithPermission(this, Permission.VIEW_CHANNEL);
     }
 
     @Override
@@ -105,11 +101,4 @@ public class TextChannelImpl extends AbstractStandardGuildMessageChannelImpl<Tex
         this.slowmode = slowmode;
         return this;
     }
-
-    // -- Abstract hooks --
-    @Override
-    protected void onPositionChange()
-    {
-        getGuild().getTextChannelsView().clearCachedLists();
-    }
 }
@@ -57,7 +57,12 @@ public abstract class AbstractStandardGuildChannelImpl<T extends AbstractStandar
     @SuppressWarnings("unchecked")
     public T setParentCategory(long parentCategoryId)
     {
+        if (this.parentCategoryId == parentCategoryId)
+            return (T) this;
         this.parentCategoryId = parentCategoryId;
+        getGuild().getChannelView().markUnsorted();
+        // Permissions of the category apply to its channels
+        getGuild().invalidatePermissionCache();
         return (T) this;
     }
 
@@ -65,10 +70,10 @@ public abstract class AbstractStandardGuildChannelImpl<T extends AbstractStandar
     @SuppressWarnings("unchecked")
     public T setPosition(int position)
     {
-        onPositionChange();
+        if (this.position == position)
+            return (T) this;
         this.position = position;
+        getGuild().getChannelView().markUnsorted();
         return (T) this;
     }
-
-    protected abstract void onPositionChange();
 }
@@ -17,14 +17,14 @@
 package net.dv8tion.jda.internal.handle;
 
 import net.dv8tion.jda.api.entities.ScheduledEvent;
+import net.dv8tion.jda.api.entities.channel.Channel;
 import net.dv8tion.jda.api.entities.channel.ChannelType;
-import net.dv8tion.jda.api.entities.channel.concrete.*;
 import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.GuildImpl;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
-import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 public class ChannelDeleteHandler extends SocketHandler
 {
@@ -52,104 +52,22 @@ public class ChannelDeleteHandler extends SocketHandler
         switch (type)
         {
             case TEXT:
-            {
-                TextChannel channel = getJDA().getTextChannelsView().remove(channelId);
-                if (channel == null || guild == null)
-                {
-                    WebSocketClient.LOG.debug("CHANNEL_DELETE attempted to delete a text channel that is not yet cached. JSON: {}", content);
-                    return null;
-                }
-
-                guild.getTextChannelsView().remove(channel.getIdLong());
-                getJDA().handleEvent(
-                    new ChannelDeleteEvent(
-                        getJDA(), responseNumber,
-                        channel));
-                break;
-            }
             case NEWS:
-            {
-                NewsChannel channel = getJDA().getNewsChannelView().remove(channelId);
-                if (channel == null || guild == null)
-                {
-                    WebSocketClient.LOG.debug("CHANNEL_DELETE attempted to delete a news channel that is not yet cached. JSON: {}", content);
-                    return null;
-                }
-
-                guild.getNewsChannelView().remove(channel.getIdLong());
-                getJDA().handleEvent(
-                        new ChannelDeleteEvent(
-                                getJDA(), responseNumber,
-                                channel));
-                break;
-            }
             case VOICE:
-            {
-                VoiceChannel channel = getJDA().getVoiceChannelsView().remove(channelId);
-                if (channel == null || guild == null)
-                {
-                    WebSocketClient.LOG.debug("CHANNEL_DELETE attempted to delete a voice channel that is not yet cached. JSON: {}", content);
-                    return null;
-                }
-
-                //  This is done in the AudioWebSocket already
-                //  We use this instead of getAudioManager(Guild) so we don't create a new instance. Efficiency!
-                //  AudioManagerImpl manager = (AudioManagerImpl) getJDA().getAudioManagersView().get(guild.getIdLong());
-                //  if (manager != null && manager.isConnected()
-                //          && manager.getConnectedChannel().getIdLong() == channel.getIdLong())
-                //  {
-                //      manager.closeAudioConnection(ConnectionStatus.DISCONNECTED_CHANNEL_DELETED);
-                //  }
-                guild.getVoiceChannelsView().remove(channel.getIdLong());
-                getJDA().handleEvent(
-                        new ChannelDeleteEvent(
-                                getJDA(), responseNumber,
-                                channel));
-                break;
-            }
             case STAGE:
-            {
-                StageChannel channel = getJDA().getStageChannelView().remove(channelId);
-                if (channel == null || guild == null)
-                {
-                    WebSocketClient.LOG.debug("CHANNEL_DELETE attempted to delete a stage channel that is not yet cached. JSON: {}", content);
-                    return null;
-                }
-
-                guild.getStageChannelsView().remove(channel.getIdLong());
-                getJDA().handleEvent(
-                        new ChannelDeleteEvent(
-                                getJDA(), responseNumber,
-                                channel));
-                break;
-            }
-
             case CATEGORY:
-            {
-                Category category = getJDA().getCategoriesView().remove(channelId);
-                if (category == null || guild == null)
-                {
-                    WebSocketClient.LOG.debug("CHANNEL_DELETE attempted to delete a category channel that is not yet cached. JSON: {}", content);
-                    return null;
-                }
-
-                guild.getCategoriesView().remove(channelId);
-                getJDA().handleEvent(
-                    new ChannelDeleteEvent(
-                        getJDA(), responseNumber,
-                        category));
-                break;
-            }
             case FORUM:
             {
-                ForumChannel channel = getJDA().getForumChannelsView().remove(channelId);
+                Channel channel = getJDA().getChannelsView().remove(channelId);
                 if (channel == null || guild == null)
                 {
-                    WebSocketClient.LOG.debug("CHANNEL_DELETE attempted to delete a forum channel that is not yet cached. JSON: {}", content);
+                    WebSocketClient.LOG.debug("CHANNEL_DELETE attempted to delete a {} channel that is not yet cached. JSON: {}", type, content);
                     return null;
                 }
 
-                guild.getForumChannelsView().remove(channel.getIdLong());
+                guild.getChannelView().remove(channelId);
+                // Deleting a category changes the permissions of its channels
+                guild.invalidatePermissionCache();
                 getJDA().handleEvent(
                     new ChannelDeleteEvent(
                         getJDA(), responseNumber,
@@ -158,8 +76,7 @@ public class ChannelDeleteHandler extends SocketHandler
             }
             case PRIVATE:
             {
-                SnowflakeCacheViewImpl<PrivateChannel> privateView = getJDA().getPrivateChannelsView();
-                PrivateChannel channel = privateView.remove(channelId);
+                Channel channel = getJDA().getChannelsView().remove(channelId);
 
                 if (channel == null)
                 {
@@ -188,6 +105,9 @@ public class ChannelDeleteHandler extends SocketHandler
         }
 
         getJDA().getEventCache().clear(EventCache.Type.CHANNEL, channelId);
+        MessageCache messageCache = getJDA().getMessageCache();
+        if (messageCache != null)
+            messageCache.removeChannel(channelId);
         return null;
     }
 }
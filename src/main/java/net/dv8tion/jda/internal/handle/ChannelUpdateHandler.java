@@ -25,6 +25,7 @@ import net.dv8tion.jda.api.Region;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.IPermissionHolder;
 import net.dv8tion.jda.api.entities.PermissionOverride;
+import net.dv8tion.jda.api.entities.channel.Channel;
 import net.dv8tion.jda.api.entities.channel.ChannelFlag;
 import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.attribute.IThreadContainer;
@@ -33,6 +34,7 @@ import net.dv8tion.jda.api.entities.channel.concrete.NewsChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 import net.dv8tion.jda.api.entities.channel.forums.ForumTag;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.emoji.EmojiUnion;
 import net.dv8tion.jda.api.events.channel.forum.ForumTagAddEvent;
 import net.dv8tion.jda.api.events.channel.forum.ForumTagRemoveEvent;
@@ -57,7 +59,7 @@ import net.dv8tion.jda.internal.entities.channel.mixin.attribute.*;
 import net.dv8tion.jda.internal.entities.channel.mixin.middleman.AudioChannelMixin;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
 import net.dv8tion.jda.internal.utils.UnlockHook;
-import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.ChannelCacheViewImpl;
 import net.dv8tion.jda.internal.utils.cache.SortedSnowflakeCacheViewImpl;
 
 import java.util.ArrayList;
@@ -226,10 +228,8 @@ public class ChannelUpdateHandler extends SocketHandler
         if (newChannelType == ChannelType.TEXT)
         {
             //This assumes that if we're moving to a TextChannel that we're transitioning from a NewsChannel
+            // The new channel replaces the old one in the channel cache, so there is no moment where neither is cached
             NewsChannel newsChannel = (NewsChannel) channel;
-            getJDA().getNewsChannelView().remove(newsChannel.getIdLong());
-            guild.getNewsChannelView().remove(newsChannel.getIdLong());
-
             TextChannelImpl textChannel = (TextChannelImpl) builder.createTextChannel(guild, content, guild.getIdLong());
 
             //CHANNEL_UPDATE doesn't track last_message_id, so make sure to copy it over.
@@ -246,10 +246,8 @@ public class ChannelUpdateHandler extends SocketHandler
         if (newChannelType == ChannelType.NEWS)
         {
             //This assumes that if we're moving to a NewsChannel that we're transitioning from a TextChannel
+            // The new channel replaces the old one in the channel cache, so there is no moment where neither is cached
             TextChannel textChannel = (TextChannel) channel;
-            getJDA().getTextChannelsView().remove(textChannel.getIdLong());
-            guild.getTextChannelsView().remove(textChannel.getIdLong());
-
             NewsChannelImpl newsChannel = (NewsChannelImpl) builder.createNewsChannel(guild, content, guild.getIdLong());
 
             //CHANNEL_UPDATE doesn't track last_message_id, so make sure to copy it over.
@@ -281,6 +279,7 @@ public class ChannelUpdateHandler extends SocketHandler
 
         currentOverrides.forEachValue(override -> {
             channel.getPermissionOverrideMap().remove(override.getIdLong());
+            ((GuildImpl) channel.getGuild()).invalidatePermissionCache();
             addPermissionHolder(changed, guild, override.getIdLong());
             api.handleEvent(
                 new PermissionOverrideDeleteEvent(
@@ -332,6 +331,7 @@ public class ChannelUpdateHandler extends SocketHandler
             {
                 // We delete empty overrides for the @everyone role because that's what the client also does, otherwise our sync checks don't work!
                 channel.getPermissionOverrideMap().remove(overrideId);
+                ((GuildImpl) channel.getGuild()).invalidatePermissionCache();
                 api.handleEvent(
                     new PermissionOverrideDeleteEvent(
                         api, responseNumber,
@@ -356,6 +356,7 @@ public class ChannelUpdateHandler extends SocketHandler
             impl.setAllow(allow);
             impl.setDeny(deny);
             channel.getPermissionOverrideMap().put(overrideId, currentOverride);
+            ((GuildImpl) channel.getGuild()).invalidatePermissionCache();
             api.handleEvent(
                 new PermissionOverrideCreateEvent(
                     api, responseNumber,
@@ -374,17 +375,16 @@ public class ChannelUpdateHandler extends SocketHandler
         for (ThreadChannel thread : threads)
         {
             GuildImpl guild = (GuildImpl) channel.getGuild();
-            SnowflakeCacheViewImpl<ThreadChannel>
-                    guildThreadView = guild.getThreadChannelsView(),
-                    threadView = getJDA().getThreadChannelsView();
+            ChannelCacheViewImpl<GuildChannel> guildView = guild.getChannelView();
+            ChannelCacheViewImpl<Channel> globalView = getJDA().getChannelsView();
             try (
-                    UnlockHook vlock = guildThreadView.writeLock();
-                    UnlockHook jlock = threadView.writeLock())
+                    UnlockHook vlock = guildView.writeLock();
+                    UnlockHook jlock = globalView.writeLock())
             {
                 //TODO-threads: When we figure out how member chunking is going to work for thread related members
                 // we may need to revisit this to ensure they kicked out of the cache if needed.
-                threadView.getMap().remove(thread.getIdLong());
-                guildThreadView.getMap().remove(thread.getIdLong());
+                globalView.remove(thread.getIdLong());
+                guildView.remove(thread.getIdLong());
             }
         }
 
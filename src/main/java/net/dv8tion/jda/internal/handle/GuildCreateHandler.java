@@ -32,7 +32,8 @@ public class GuildCreateHandler extends SocketHandler
     {
         final long id = content.getLong("id");
         GuildImpl guild = (GuildImpl) getJDA().getGuildById(id);
-        if (guild == null)
+        // A guild which is still being set up can already be cached, if members are created while chunking
+        if (guild == null || getJDA().getGuildSetupController().isLocked(id))
         {
             // This can happen in 3 scenarios:
             //
@@ -22,6 +22,7 @@ import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.GuildImpl;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 public class GuildDeleteHandler extends SocketHandler
 {
@@ -55,6 +56,11 @@ public class GuildDeleteHandler extends SocketHandler
 
         // Detach the guild cache from the global cache (also removes users if necessary)
         guild.invalidate();
+        getJDA().onGuildRemoved(id);
+        MessageCache messageCache = getJDA().getMessageCache();
+        if (messageCache != null)
+            messageCache.removeGuild(id);
+        getJDA().getClient().<PresenceUpdateHandler>getHandler("PRESENCE_UPDATE").removePending(id);
 
         if (unavailable)
         {
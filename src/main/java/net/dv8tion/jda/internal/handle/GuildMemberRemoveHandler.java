@@ -30,6 +30,7 @@ import net.dv8tion.jda.internal.entities.MemberPresenceImpl;
 import net.dv8tion.jda.internal.entities.channel.concrete.VoiceChannelImpl;
 import net.dv8tion.jda.internal.entities.channel.mixin.middleman.AudioChannelMixin;
 import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.MutualGuildIndex;
 import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
 
 public class GuildMemberRemoveHandler extends SocketHandler
@@ -67,9 +68,12 @@ public class GuildMemberRemoveHandler extends SocketHandler
         CacheView.SimpleCacheView<MemberPresenceImpl> presences = guild.getPresenceView();
         if (presences != null)
             presences.remove(userId);
+        getJDA().getClient().<PresenceUpdateHandler>getHandler("PRESENCE_UPDATE").removePending(id, userId);
 
         User user = api.getEntityBuilder().createUser(content.getObject("user"));
         MemberImpl member = (MemberImpl) guild.getMembersView().remove(userId);
+        if (member != null)
+            getJDA().onMemberRemoved(member);
 
         if (member == null)
         {
@@ -95,7 +99,7 @@ public class GuildMemberRemoveHandler extends SocketHandler
             return null;
         }
 
-        GuildVoiceStateImpl voiceState = (GuildVoiceStateImpl) member.getVoiceState();
+        GuildVoiceStateImpl voiceState = member.getVoiceStateIfPresent();
         if (voiceState != null && voiceState.inAudioChannel()) //If this user was in an AudioChannel, fire VoiceLeaveEvent.
         {
             AudioChannel channel = voiceState.getChannel();
@@ -109,12 +113,13 @@ public class GuildMemberRemoveHandler extends SocketHandler
         }
 
         //The user is not in a different guild that we share
+        MutualGuildIndex mutualGuilds = getJDA().getMutualGuildIndex();
+        mutualGuilds.remove(userId, guild.getIdLong());
         SnowflakeCacheViewImpl<User> userView = getJDA().getUsersView();
         try (UnlockHook hook = userView.writeLock())
         {
             if (userId != getJDA().getSelfUser().getIdLong() // don't remove selfUser from cache
-                    && getJDA().getGuildsView().stream()
-                               .noneMatch(g -> g.getMemberById(userId) != null))
+                    && !mutualGuilds.hasGuilds(userId))
             {
                 userView.remove(userId);
                 getJDA().getEventCache().clear(EventCache.Type.USER, userId);
@@ -40,10 +40,11 @@ public class GuildMembersChunkHandler extends SocketHandler
         final long guildId = content.getLong("guild_id");
         DataArray members = content.getArray("members");
         GuildImpl guild = (GuildImpl) getJDA().getGuildById(guildId);
-        if (guild != null)
+        if (guild != null && api.getClient().getChunkManager().handleChunk(guildId, content))
+            return null;
+        // A guild which is still being set up can already be cached, if members are created while chunking
+        if (guild != null && !getJDA().getGuildSetupController().isLocked(guildId))
         {
-            if (api.getClient().getChunkManager().handleChunk(guildId, content))
-                return null;
             WebSocketClient.LOG.debug("Received member chunk for guild that is already in cache. GuildId: {} Count: {} Index: {}/{}",
                     guildId, members.length(), content.getInt("chunk_index"), content.getInt("chunk_count"));
             // Chunk handling
@@ -59,12 +59,13 @@ public class GuildRoleDeleteHandler extends SocketHandler
         //Allow for position to still be retrievable in event handling
         removedRole.freezePosition();
         guild.getRolesView().remove(roleId);
+        guild.invalidatePermissionCache();
 
         //Now that the role is removed from the Guild, remove it from all users and emojis.
         guild.getMembersView().forEach(m ->
         {
             MemberImpl member = (MemberImpl) m;
-            member.getRoleSet().remove(removedRole);
+            member.removeRole(roleId);
         });
 
         for (RichCustomEmoji emoji : guild.getEmojiCache())
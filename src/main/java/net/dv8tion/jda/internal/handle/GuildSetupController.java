@@ -17,7 +17,9 @@
 package net.dv8tion.jda.internal.handle;
 
 import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.TLongIntMap;
 import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
 import gnu.trove.set.TLongSet;
 import gnu.trove.set.hash.TLongHashSet;
@@ -36,8 +38,12 @@ import javax.annotation.Nullable;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("WeakerAccess")
@@ -50,13 +56,21 @@ public class GuildSetupController
 
     private final JDAImpl api;
     private final TLongObjectMap<GuildSetupNode> setupNodes = new TLongObjectHashMap<>();
-    private final TLongSet chunkingGuilds = new TLongHashSet();
+    // Guild ids mapped to their member count
+    private final TLongIntMap chunkingGuilds = new TLongIntHashMap();
     private final TLongSet unavailableGuilds = new TLongHashSet();
+    // Amount of setup nodes which contain each user, see containsMember
+    private final TLongIntMap memberReferences = new TLongIntHashMap();
+    // Amount of payloads buffered by the setup nodes, maintained by the nodes so it can be read from any thread
+    private final AtomicLong bufferedPayloads = new AtomicLong();
+    private final ConcurrentMap<Long, AtomicInteger> bufferedPayloadsByGuild = new ConcurrentHashMap<>();
 
     // TODO: Rewrite this incompleteCount system to just rely on the state of each node
     private int incompleteCount = 0;
 
     private Future<?> timeoutHandle;
+    // Identifies the current timeout, a timeout that already fired can still be queued after it was cancelled
+    private long timeoutEpoch;
 
     protected StatusListener listener = (id, oldStatus, newStatus) -> log.trace("[{}] Updated status {}->{}", id, oldStatus, newStatus);
 
@@ -70,7 +84,7 @@ public class GuildSetupController
         return api;
     }
 
-    void addGuildForChunking(long id, boolean join)
+    void addGuildForChunking(long id, boolean join, int memberCount)
     {
         log.trace("Adding guild for chunking ID: {}", id);
         if (join || incompleteCount <= 0)
@@ -78,20 +92,26 @@ public class GuildSetupController
             if (incompleteCount <= 0)
             {
                 // this happens during runtime -> chunk right away
-                sendChunkRequest(id);
+                sendChunkRequest(id, memberCount, true);
                 return;
             }
             incompleteCount++;
         }
-        chunkingGuilds.add(id);
+        chunkingGuilds.put(id, memberCount);
         tryChunking();
     }
 
     void remove(long id)
     {
         unavailableGuilds.remove(id);
-        setupNodes.remove(id);
+        GuildSetupNode node = setupNodes.remove(id);
+        if (node != null)
+        {
+            node.releaseMembers();
+            detachNode(node);
+        }
         chunkingGuilds.remove(id);
+        getJDA().getClient().getChunkScheduler().cancel(id);
         checkReady();
     }
 
@@ -109,9 +129,7 @@ public class GuildSetupController
         // If no guilds are marked as incomplete we can fire a ready
         if (incompleteCount < 1 && !client.isReady())
         {
-            if (timeoutHandle != null)
-                timeoutHandle.cancel(false);
-            timeoutHandle = null;
+            close();
             client.ready();
         }
         else if (incompleteCount <= timeoutThreshold)
@@ -132,7 +150,7 @@ public class GuildSetupController
     {
         log.trace("Adding id to setup cache {}", id);
         GuildSetupNode node = new GuildSetupNode(id, this, GuildSetupNode.Type.INIT);
-        setupNodes.put(id, node);
+        addNode(node);
         node.handleReady(obj);
         if (node.markedUnavailable)
         {
@@ -150,7 +168,7 @@ public class GuildSetupController
         {
             // Guild was unavailable for a moment, its back now so initialize it again!
             unavailableGuilds.remove(id);
-            setupNodes.put(id, new GuildSetupNode(id, this, GuildSetupNode.Type.AVAILABLE));
+            addNode(new GuildSetupNode(id, this, GuildSetupNode.Type.AVAILABLE));
         }
 
         GuildSetupNode node = setupNodes.get(id);
@@ -158,7 +176,7 @@ public class GuildSetupController
         {
             // this is a join event
             node = new GuildSetupNode(id, this, GuildSetupNode.Type.JOIN);
-            setupNodes.put(id, node);
+            addNode(node);
             // do not increment incomplete counter, it is only relevant to init guilds
         }
         else if (node.markedUnavailable && available && incompleteCount > 0)
@@ -197,6 +215,7 @@ public class GuildSetupController
                     chunkingGuilds.remove(id);
                     incompleteCount--;
                 }
+                getJDA().getClient().getChunkScheduler().cancel(id);
             }
             node.reset();
         }
@@ -221,6 +240,7 @@ public class GuildSetupController
         int index = chunk.getInt("chunk_index");
         int count = chunk.getInt("chunk_count");
         log.debug("Received member chunk for guild id: {} size: {} index: {}/{}", id, members.length(), index, count);
+        getJDA().getClient().getChunkScheduler().onChunk(members.length());
         GuildSetupNode node = setupNodes.get(id);
         if (node != null)
             node.handleMemberChunk(MemberChunkManager.isLastChunk(chunk), members);
@@ -273,14 +293,25 @@ public class GuildSetupController
     {
         GuildSetupNode node = setupNodes.get(guildId);
         if (node != null)
+        {
             node.cacheEvent(event);
+            // Interactions have to be acknowledged within 3 seconds, so their guild should finish setup first
+            if ("INTERACTION_CREATE".equals(event.getString("t", null)))
+                getJDA().getClient().getChunkScheduler().prioritize(guildId);
+        }
         else
             log.warn("Attempted to cache event for a guild that is not locked. {}", event, new IllegalStateException());
     }
 
     public void clearCache()
     {
+        setupNodes.forEachValue(node -> {
+            detachNode(node);
+            return true;
+        });
         setupNodes.clear();
+        memberReferences.clear();
+        getJDA().getClient().getChunkScheduler().clear();
         chunkingGuilds.clear();
         unavailableGuilds.clear();
         incompleteCount = 0;
@@ -292,18 +323,26 @@ public class GuildSetupController
         if (timeoutHandle != null)
             timeoutHandle.cancel(false);
         timeoutHandle = null;
+        timeoutEpoch++;
     }
 
     public boolean containsMember(long userId, @Nullable GuildSetupNode excludedNode)
     {
-        for (TLongObjectIterator<GuildSetupNode> it = setupNodes.iterator(); it.hasNext();)
-        {
-            it.advance();
-            GuildSetupNode node = it.value();
-            if (node != excludedNode && node.containsMember(userId))
-                return true;
-        }
-        return false;
+        int references = memberReferences.get(userId);
+        if (excludedNode != null && excludedNode.containsMember(userId))
+            references--;
+        return references > 0;
+    }
+
+    void addMemberReference(long userId)
+    {
+        memberReferences.adjustOrPutValue(userId, 1, 1);
+    }
+
+    void removeMemberReference(long userId)
+    {
+        if (memberReferences.adjustOrPutValue(userId, -1, 0) <= 0)
+            memberReferences.remove(userId);
     }
 
     public TLongSet getUnavailableGuilds()
@@ -311,6 +350,51 @@ public class GuildSetupController
         return unavailableGuilds;
     }
 
+    /**
+     * The amount of payloads currently buffered by all setup nodes.
+     * <br>This can be called from any thread.
+     *
+     * @return The amount of buffered payloads
+     */
+    public long getBufferedPayloadCount()
+    {
+        return bufferedPayloads.get();
+    }
+
+    /**
+     * The amount of payloads currently buffered by the setup node of the provided guild.
+     * <br>This can be called from any thread.
+     *
+     * @param  id
+     *         The guild id
+     *
+     * @return The amount of buffered payloads, 0 if the guild is not being set up
+     */
+    public int getBufferedPayloadCount(long id)
+    {
+        AtomicInteger count = bufferedPayloadsByGuild.get(id);
+        return count == null ? 0 : count.get();
+    }
+
+    void adjustBufferedPayloadCount(int delta)
+    {
+        bufferedPayloads.addAndGet(delta);
+    }
+
+    private void addNode(GuildSetupNode node)
+    {
+        GuildSetupNode previous = setupNodes.put(node.getIdLong(), node);
+        if (previous != null)
+            detachNode(previous);
+        bufferedPayloadsByGuild.put(node.getIdLong(), node.getBufferedPayloadCounter());
+    }
+
+    private void detachNode(GuildSetupNode node)
+    {
+        bufferedPayloadsByGuild.remove(node.getIdLong(), node.getBufferedPayloadCounter());
+        node.detach();
+    }
+
     public Set<GuildSetupNode> getSetupNodes()
     {
         return new HashSet<>(setupNodes.valueCollection());
@@ -348,22 +432,16 @@ public class GuildSetupController
         return chunkingGuilds.size();
     }
 
-    void sendChunkRequest(Object obj)
+    void sendChunkRequest(long id, int memberCount, boolean priority)
     {
-        log.debug("Sending chunking requests for {} guilds", obj instanceof DataArray ? ((DataArray) obj).length() : 1);
-
-        getJDA().getClient().sendChunkRequest(
-            DataObject.empty()
-                .put("guild_id", obj)
-                .put("query", "")
-                .put("limit", 0)
-        );
+        log.debug("Scheduling chunking request for guild {} with {} members", id, memberCount);
+        getJDA().getClient().getChunkScheduler().schedule(id, memberCount, priority);
     }
 
     private void tryChunking()
     {
-        chunkingGuilds.forEach((id) -> {
-            sendChunkRequest(id);
+        chunkingGuilds.forEachEntry((id, memberCount) -> {
+            sendChunkRequest(id, memberCount, false);
             return true;
         });
         chunkingGuilds.clear();
@@ -375,7 +453,9 @@ public class GuildSetupController
             return;
 
         log.debug("Starting {} second timeout for {} guilds", timeoutDuration, incompleteCount);
-        timeoutHandle = getJDA().getGatewayPool().schedule(this::onTimeout, timeoutDuration, TimeUnit.SECONDS);
+        // The nodes are only modified by the gateway thread, so the timeout is handed off to it instead of running on the pool
+        long epoch = ++timeoutEpoch;
+        timeoutHandle = getJDA().getGatewayPool().schedule(() -> getJDA().queueGatewayTask(() -> onTimeout(epoch)), timeoutDuration, TimeUnit.SECONDS);
     }
 
     public void onUnavailable(long id)
@@ -384,6 +464,15 @@ public class GuildSetupController
         log.debug("Guild with id {} is now marked unavailable. Total: {}", id, unavailableGuilds.size());
     }
 
+    private void onTimeout(long epoch)
+    {
+        if (epoch != timeoutEpoch)
+            return;
+        // The handle has fired, a later startTimeout has to be able to schedule a new one
+        timeoutHandle = null;
+        onTimeout();
+    }
+
     public void onTimeout()
     {
         if (incompleteCount < 1)
@@ -394,10 +483,15 @@ public class GuildSetupController
         {
             iterator.advance();
             GuildSetupNode node = iterator.value();
+            long id = node.getIdLong();
             iterator.remove();
-            unavailableGuilds.add(node.getIdLong());
+            // Same cleanup as remove(id), reset also invalidates a partially streamed guild
+            node.reset();
+            chunkingGuilds.remove(id);
+            getJDA().getClient().getChunkScheduler().cancel(id);
+            unavailableGuilds.add(id);
             // Inform users that the guild timed out
-            getJDA().handleEvent(new GuildTimeoutEvent(getJDA(), node.getIdLong()));
+            getJDA().handleEvent(new GuildTimeoutEvent(getJDA(), id));
         }
         incompleteCount = 0;
         checkReady();
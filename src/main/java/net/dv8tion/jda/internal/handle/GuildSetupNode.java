@@ -34,23 +34,35 @@ import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.entities.PreparedGuild;
 import net.dv8tion.jda.internal.managers.AudioManagerImpl;
 import net.dv8tion.jda.internal.utils.EntityString;
+import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.UnlockHook;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
 
 import javax.annotation.Nullable;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GuildSetupNode
 {
     private final long id;
     private final GuildSetupController controller;
-    private final List<DataObject> cachedEvents = new LinkedList<>();
+    private final List<DataObject> cachedEvents = new ArrayList<>();
+    // Amount of buffered payloads, updated whenever a payload is buffered or released so other threads can read it
+    private final AtomicInteger bufferedPayloads = new AtomicInteger();
+    // Whether this node has been removed from the controller, its payloads no longer count towards the total
+    private boolean detached = false;
     private TLongObjectMap<DataObject> members;
     private TLongSet removedMembers;
+    // Streaming setup: members are created as their chunks arrive, only their ids are kept to track progress
+    private GuildImpl streamedGuild;
+    private TLongSet streamedMembers;
+    private TLongObjectMap<DataObject> voiceStates, presences;
     private DataObject partialGuild;
     private int expectedMemberCount = 1;
     boolean requestedChunk;
@@ -88,6 +100,30 @@ public class GuildSetupNode
         return partialGuild;
     }
 
+    public int getBufferedPayloadCount()
+    {
+        return bufferedPayloads.get();
+    }
+
+    AtomicInteger getBufferedPayloadCounter()
+    {
+        return bufferedPayloads;
+    }
+
+    void detach()
+    {
+        detached = true;
+        getController().adjustBufferedPayloadCount(-bufferedPayloads.getAndSet(0));
+    }
+
+    private void adjustBufferedPayloads(int delta)
+    {
+        if (delta == 0 || detached)
+            return;
+        bufferedPayloads.addAndGet(delta);
+        getController().adjustBufferedPayloadCount(delta);
+    }
+
     public int getExpectedMemberCount()
     {
         return expectedMemberCount;
@@ -95,6 +131,8 @@ public class GuildSetupNode
 
     public int getCurrentMemberCount()
     {
+        if (streamedMembers != null)
+            return streamedMembers.size();
         TLongHashSet knownMembers = new TLongHashSet(members.keySet());
         knownMembers.removeAll(removedMembers);
         return knownMembers.size();
@@ -122,6 +160,8 @@ public class GuildSetupNode
 
     public boolean containsMember(long userId)
     {
+        if (streamedMembers != null)
+            return streamedMembers.contains(userId);
         if (members == null || members.isEmpty())
             return false;
         return members.containsKey(userId);
@@ -179,13 +219,16 @@ public class GuildSetupNode
     {
         updateStatus(GuildSetupController.Status.UNAVAILABLE);
         expectedMemberCount = 1;
+        if (partialGuild != null)
+            adjustBufferedPayloads(-1);
         partialGuild = null;
         requestedChunk = false;
-        if (members != null)
-            members.clear();
+        releaseMembers();
         if (removedMembers != null)
             removedMembers.clear();
+        adjustBufferedPayloads(-cachedEvents.size());
         cachedEvents.clear();
+        stopStreaming();
     }
 
     void handleReady(DataObject obj) {}
@@ -195,13 +238,11 @@ public class GuildSetupNode
         if (partialGuild == null)
         {
             partialGuild = obj;
+            adjustBufferedPayloads(1);
         }
         else
         {
-            for (String key : obj.keys())
-            {
-                partialGuild.put(key, obj.opt(key).orElse(null));
-            }
+            mergeGuildPayload(obj);
         }
         boolean unavailable = partialGuild.getBoolean("unavailable");
         boolean wasMarkedUnavailable = this.markedUnavailable;
@@ -230,10 +271,7 @@ public class GuildSetupNode
             GuildSetupController.log.debug("Dropping sync update due to unavailable guild");
             return;
         }
-        for (String key : obj.keys())
-        {
-            partialGuild.put(key, obj.opt(key).orElse(null));
-        }
+        mergeGuildPayload(obj);
 
         ensureMembers();
     }
@@ -248,14 +286,28 @@ public class GuildSetupNode
             GuildSetupController.log.debug("Dropping member chunk due to unavailable guild");
             return true;
         }
-        for (int index = 0; index < arr.length(); index++)
+        int memberCount;
+        if (streamedGuild != null)
         {
-            DataObject obj = arr.getObject(index);
-            long id = obj.getObject("user").getLong("id");
-            members.put(id, obj);
+            streamMembers(arr);
+            memberCount = streamedMembers.size();
+        }
+        else
+        {
+            for (int index = 0; index < arr.length(); index++)
+            {
+                DataObject obj = arr.getObject(index);
+                long id = obj.getObject("user").getLong("id");
+                if (members.put(id, obj) == null)
+                {
+                    getController().addMemberReference(id);
+                    adjustBufferedPayloads(1);
+                }
+            }
+            memberCount = members.size();
         }
 
-        if (last || members.size() >= expectedMemberCount || !getController().getJDA().chunkGuild(id))
+        if (last || memberCount >= expectedMemberCount || !getController().getJDA().chunkGuild(id))
         {
             completeSetup();
             return false;
@@ -265,22 +317,40 @@ public class GuildSetupNode
 
     void handleAddMember(DataObject member)
     {
-        if (members == null || removedMembers == null)
+        if (removedMembers == null || (members == null && streamedGuild == null))
             return;
         expectedMemberCount++;
         long userId = member.getObject("user").getLong("id");
-        members.put(userId, member);
         removedMembers.remove(userId);
+        if (streamedGuild != null)
+            streamMembers(DataArray.empty().add(member));
+        else if (members.put(userId, member) == null)
+        {
+            getController().addMemberReference(userId);
+            adjustBufferedPayloads(1);
+        }
     }
 
     void handleRemoveMember(DataObject member)
     {
-        if (members == null || removedMembers == null)
+        if (removedMembers == null || (members == null && streamedGuild == null))
             return;
         expectedMemberCount--;
         long userId = member.getObject("user").getLong("id");
-        members.remove(userId);
         removedMembers.add(userId);
+        if (streamedGuild != null)
+        {
+            if (streamedMembers.remove(userId))
+                getController().removeMemberReference(userId);
+            MemberImpl cached = (MemberImpl) streamedGuild.getMembersView().get(userId);
+            if (cached != null)
+                getController().getJDA().getEntityBuilder().updateMemberCache(cached, true);
+        }
+        else if (members.remove(userId) != null)
+        {
+            getController().removeMemberReference(userId);
+            adjustBufferedPayloads(-1);
+        }
         EventCache eventCache = getController().getJDA().getEventCache();
         if (!getController().containsMember(userId, this)) // if no other setup node contains this userId we clear it here
             eventCache.clear(EventCache.Type.USER, userId);
@@ -290,6 +360,7 @@ public class GuildSetupNode
     {
         GuildSetupController.log.trace("Caching {} event during init. GuildId: {}", event.getString("t"), id);
         cachedEvents.add(event);
+        adjustBufferedPayloads(1);
         //Check if more than 2000 events cached - suspicious
         // Print warning every 1000 events
         int cacheSize = cachedEvents.size();
@@ -305,7 +376,7 @@ public class GuildSetupNode
             if (status == GuildSetupController.Status.CHUNKING)
             {
                 GuildSetupController.log.debug("Forcing new chunk request for guild: {}", id);
-                controller.sendChunkRequest(id);
+                controller.sendChunkRequest(id, expectedMemberCount, false);
             }
         }
     }
@@ -348,16 +419,54 @@ public class GuildSetupNode
                     eventCache.clear(EventCache.Type.USER, userId);
             }
         }
+
+        if (streamedMembers != null)
+        {
+            for (TLongIterator it = streamedMembers.iterator(); it.hasNext();)
+            {
+                long userId = it.next();
+                if (!getController().containsMember(userId, this))
+                    eventCache.clear(EventCache.Type.USER, userId);
+            }
+        }
+        stopStreaming();
     }
 
     private void completeSetup()
     {
         updateStatus(GuildSetupController.Status.BUILDING);
-        JDAImpl api = getController().getJDA();
-        for (TLongIterator it = removedMembers.iterator(); it.hasNext(); )
-            members.remove(it.next());
+        if (streamedGuild == null)
+        {
+            for (TLongIterator it = removedMembers.iterator(); it.hasNext(); )
+            {
+                long userId = it.next();
+                if (members.remove(userId) != null)
+                {
+                    getController().removeMemberReference(userId);
+                    adjustBufferedPayloads(-1);
+                }
+            }
+        }
         removedMembers.clear();
-        GuildImpl guild = api.getEntityBuilder().createGuild(id, partialGuild, members, expectedMemberCount);
+        finishSetup(streamedGuild == null ? new PreparedGuild(id, partialGuild, members, expectedMemberCount) : null);
+    }
+
+    private void finishSetup(@Nullable PreparedGuild prepared)
+    {
+        JDAImpl api = getController().getJDA();
+        GuildImpl guild;
+        if (streamedGuild != null)
+        {
+            // The members have already been created while chunking
+            guild = streamedGuild;
+            guild.setMemberCount(expectedMemberCount);
+            streamedGuild = null;
+            voiceStates = presences = null;
+        }
+        else
+        {
+            guild = api.getEntityBuilder().createGuild(prepared);
+        }
         updateAudioManagerReference(guild);
         switch (type)
         {
@@ -386,8 +495,12 @@ public class GuildSetupNode
     private void ensureMembers()
     {
         expectedMemberCount = partialGuild.getInt("member_count");
-        members = new TLongObjectHashMap<>(expectedMemberCount);
+        releaseMembers();
         removedMembers = new TLongHashSet();
+        if (streamedGuild != null)
+            streamedMembers = new TLongHashSet();
+        else
+            members = new TLongObjectHashMap<>(expectedMemberCount);
         DataArray memberArray = partialGuild.getArray("members");
         if (!getController().getJDA().chunkGuild(id))
         {
@@ -395,9 +508,7 @@ public class GuildSetupNode
         }
         else if (memberArray.length() < expectedMemberCount && !requestedChunk)
         {
-            updateStatus(GuildSetupController.Status.CHUNKING);
-            getController().addGuildForChunking(id, isJoin());
-            requestedChunk = true;
+            startChunking();
         }
         else if (handleMemberChunk(false, memberArray) && !requestedChunk)
         {
@@ -408,11 +519,89 @@ public class GuildSetupNode
             GuildSetupController.log.trace(
                 "Received suspicious members with a guild payload. Attempting to chunk. " +
                 "member_count: {} members: {} actual_members: {} guild_id: {}",
-                expectedMemberCount, memberArray.length(), members.size(), id);
+                expectedMemberCount, memberArray.length(), getCurrentMemberCount(), id);
+            releaseMembers();
+            startChunking();
+        }
+    }
+
+    private void startChunking()
+    {
+        JDAImpl api = getController().getJDA();
+        if (api.isStreamingMemberSetup() && streamedGuild == null)
+        {
+            releaseMembers();
+            // Create the guild with the members of the guild payload, which include the self member,
+            //  the remaining members are created by handleMemberChunk
+            DataArray memberArray = partialGuild.getArray("members");
+            TLongObjectMap<DataObject> initialMembers = Helpers.convertToMap(o -> o.getObject("user").getUnsignedLong("id"), memberArray);
+            PreparedGuild prepared = new PreparedGuild(id, partialGuild, initialMembers, expectedMemberCount);
+            streamedGuild = api.getEntityBuilder().createGuild(prepared);
+            streamedMembers = new TLongHashSet();
+            voiceStates = prepared.getVoiceStates();
+            presences = prepared.getPresences();
+            members = null;
+        }
+        updateStatus(GuildSetupController.Status.CHUNKING);
+        getController().addGuildForChunking(id, isJoin(), expectedMemberCount);
+        requestedChunk = true;
+    }
+
+    private void streamMembers(DataArray arr)
+    {
+        List<PreparedGuild.PreparedMember> created = new ArrayList<>(arr.length());
+        for (int index = 0; index < arr.length(); index++)
+        {
+            DataObject obj = arr.getObject(index);
+            long userId = obj.getObject("user").getLong("id");
+            if (removedMembers.contains(userId))
+                continue;
+            if (streamedMembers.add(userId))
+                getController().addMemberReference(userId);
+            // Members of the guild payload are already cached, later changes are applied by the cached update events
+            if (streamedGuild.getMembersView().get(userId) == null)
+                created.add(new PreparedGuild.PreparedMember(obj));
+        }
+        getController().getJDA().getEntityBuilder().createGuildMembers(streamedGuild, created, voiceStates, presences);
+    }
+
+    private void stopStreaming()
+    {
+        if (streamedGuild == null)
+            return;
+        // Remove the partially setup guild, it is created again once the guild is available
+        releaseMembers();
+        streamedGuild.invalidate();
+        streamedGuild = null;
+        streamedMembers = null;
+        voiceStates = presences = null;
+    }
+
+    private void mergeGuildPayload(DataObject obj)
+    {
+        for (String key : obj.keys())
+        {
+            partialGuild.put(key, obj.opt(key).orElse(null));
+        }
+    }
+
+    /**
+     * Removes all members of this node from the member index of the controller.
+     * <br>This has to be called whenever the members of this node are discarded.
+     */
+    void releaseMembers()
+    {
+        GuildSetupController controller = getController();
+        if (members != null)
+        {
+            members.forEachKey(userId -> { controller.removeMemberReference(userId); return true; });
+            adjustBufferedPayloads(-members.size());
             members.clear();
-            updateStatus(GuildSetupController.Status.CHUNKING);
-            getController().addGuildForChunking(id, isJoin());
-            requestedChunk = true;
+        }
+        if (streamedMembers != null)
+        {
+            streamedMembers.forEach(userId -> { controller.removeMemberReference(userId); return true; });
+            streamedMembers.clear();
         }
     }
 
@@ -17,14 +17,18 @@
 package net.dv8tion.jda.internal.handle;
 
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
 import net.dv8tion.jda.api.events.message.MessageBulkDeleteEvent;
+import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -92,10 +96,14 @@ public class MessageBulkDeleteHandler extends SocketHandler
 
             DataArray array = content.getArray("ids");
             List<String> messages = array.stream(DataArray::getString).collect(Collectors.toList());
+            MessageCache messageCache = getJDA().getMessageCache();
+            List<Message> cached = Collections.emptyList();
+            if (messageCache != null)
+                cached = messageCache.remove(channel, messages.stream().mapToLong(MiscUtil::parseSnowflake).toArray());
             getJDA().handleEvent(
                 new MessageBulkDeleteEvent(
                     getJDA(), responseNumber,
-                    channel, messages));
+                    channel, messages, cached));
         }
         return null;
     }
@@ -28,6 +28,7 @@ import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.entities.channel.concrete.ThreadChannelImpl;
 import net.dv8tion.jda.internal.entities.channel.mixin.middleman.MessageChannelMixin;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 public class MessageCreateHandler extends SocketHandler
 {
@@ -133,6 +134,10 @@ public class MessageCreateHandler extends SocketHandler
             api.usedPrivateChannel(channel.getIdLong());
         }
 
+        MessageCache messageCache = jda.getMessageCache();
+        if (messageCache != null)
+            messageCache.put(channel, content);
+
         jda.handleEvent(new MessageReceivedEvent( jda, responseNumber, message));
         return null;
     }
@@ -16,6 +16,7 @@
 package net.dv8tion.jda.internal.handle;
 
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
@@ -23,6 +24,7 @@ import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.channel.concrete.ThreadChannelImpl;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 public class MessageDeleteHandler extends SocketHandler
 {
@@ -81,7 +83,10 @@ public class MessageDeleteHandler extends SocketHandler
             // Not decrementing totalMessageCount since that should include deleted as well
         }
 
-        getJDA().handleEvent(new MessageDeleteEvent(getJDA(), responseNumber, messageId, channel));
+        MessageCache messageCache = getJDA().getMessageCache();
+        Message cached = messageCache == null ? null : messageCache.remove(channel, messageId);
+
+        getJDA().handleEvent(new MessageDeleteEvent(getJDA(), responseNumber, messageId, channel, cached));
         return null;
     }
 }
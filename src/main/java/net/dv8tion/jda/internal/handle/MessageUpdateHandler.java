@@ -29,6 +29,7 @@ import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 import java.util.LinkedList;
 
@@ -129,10 +130,13 @@ public class MessageUpdateHandler extends SocketHandler
         if (message.getChannelType() == ChannelType.PRIVATE)
             getJDA().usedPrivateChannel(message.getChannel().getIdLong());
 
+        MessageCache messageCache = getJDA().getMessageCache();
+        Message previous = messageCache == null ? null : messageCache.put(message.getChannel(), content);
+
         getJDA().handleEvent(
                 new MessageUpdateEvent(
                         getJDA(), responseNumber,
-                        message));
+                        message, previous));
         return null;
     }
 
@@ -37,20 +37,133 @@ import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.UnlockHook;
 import org.slf4j.Logger;
 
-import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.EnumSet;
-import java.util.List;
+import java.util.*;
 
 public class PresenceUpdateHandler extends SocketHandler
 {
     private static final Logger log = JDALogger.getLog(PresenceUpdateHandler.class);
 
+    // Coalesced updates by guild and user, in order of their first arrival
+    // Every access to pending and flushScheduled is guarded by the pending map
+    private final Map<PendingKey, PendingUpdate> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    // Only used while handling events, which is serialized by the client
+    private boolean flushing;
+
     public PresenceUpdateHandler(JDAImpl api)
     {
         super(api);
     }
 
+    /**
+     * Handles the coalesced updates whose window has passed.
+     * <br>This must be called while handling gateway events, like any other handler invocation.
+     */
+    public void flushPending()
+    {
+        List<PendingUpdate> due;
+        synchronized (pending)
+        {
+            if (pending.isEmpty())
+                return;
+            due = collectDue(System.currentTimeMillis());
+        }
+        handleDue(due);
+    }
+
+    /**
+     * Handles the coalesced updates whose window has passed and schedules the next flush if updates are still pending.
+     * <br>This is queued as a gateway task by the scheduler of the client, so updates are not held back while the gateway is quiet.
+     */
+    public void onScheduledFlush()
+    {
+        List<PendingUpdate> due;
+        synchronized (pending)
+        {
+            due = collectDue(System.currentTimeMillis());
+        }
+        handleDue(due);
+
+        long delay;
+        synchronized (pending)
+        {
+            if (pending.isEmpty())
+            {
+                flushScheduled = false;
+                return;
+            }
+            long elapsed = System.currentTimeMillis() - pending.values().iterator().next().time;
+            delay = Math.max(0, getJDA().getPresenceCoalescingWindow() - elapsed);
+        }
+        getJDA().getClient().schedulePresenceFlush(delay);
+    }
+
+    public void clearPending()
+    {
+        synchronized (pending)
+        {
+            pending.clear();
+        }
+    }
+
+    public void removePending(long guildId)
+    {
+        synchronized (pending)
+        {
+            pending.keySet().removeIf(key -> key.guildId == guildId);
+        }
+    }
+
+    public void removePending(long guildId, long userId)
+    {
+        synchronized (pending)
+        {
+            pending.remove(new PendingKey(guildId, userId));
+        }
+    }
+
+    // Must hold the pending lock
+    private List<PendingUpdate> collectDue(long now)
+    {
+        long window = getJDA().getPresenceCoalescingWindow();
+        List<PendingUpdate> due = new ArrayList<>();
+        // Updates are in order of their first arrival, later updates only replace the payload
+        for (Iterator<PendingUpdate> it = pending.values().iterator(); it.hasNext(); )
+        {
+            PendingUpdate update = it.next();
+            if (now - update.time < window)
+                break;
+            it.remove();
+            due.add(update);
+        }
+        return due;
+    }
+
+    private void handleDue(List<PendingUpdate> due)
+    {
+        if (due.isEmpty())
+            return;
+        flushing = true;
+        try
+        {
+            for (PendingUpdate update : due)
+            {
+                try
+                {
+                    handle(update.responseNumber, update.event);
+                }
+                catch (Exception ex)
+                {
+                    log.error("Failed to handle coalesced presence update. JSON: {}", update.event, ex);
+                }
+            }
+        }
+        finally
+        {
+            flushing = false;
+        }
+    }
+
     @Override
     protected Long handleInternally(DataObject content)
     {
@@ -63,6 +176,27 @@ public class PresenceUpdateHandler extends SocketHandler
         if (api.getCacheFlags().stream().noneMatch(CacheFlag::isPresence))
             return null;
 
+        long window = getJDA().getPresenceCoalescingWindow();
+        if (!flushing && window > 0)
+        {
+            // Only keep the latest update of a burst, it is handled once the window has passed
+            PendingKey key = new PendingKey(content.getUnsignedLong("guild_id"), content.getObject("user").getUnsignedLong("id"));
+            boolean schedule = false;
+            synchronized (pending)
+            {
+                PendingUpdate update = pending.get(key);
+                if (update == null)
+                    pending.put(key, new PendingUpdate(responseNumber, allContent));
+                else
+                    update.replace(responseNumber, allContent);
+                if (!flushScheduled)
+                    schedule = flushScheduled = true;
+            }
+            if (schedule)
+                getJDA().getClient().schedulePresenceFlush(window);
+            return null;
+        }
+
         //Do a pre-check to see if this is for a Guild, and if it is, if the guild is currently locked or not cached.
         final long guildId = content.getUnsignedLong("guild_id");
         if (getJDA().getGuildSetupController().isLocked(guildId))
@@ -83,6 +217,15 @@ public class PresenceUpdateHandler extends SocketHandler
         final long userId = jsonUser.getUnsignedLong("id");
         MemberImpl member = (MemberImpl) guild.getMemberById(userId);
         MemberPresenceImpl presence = presences.get(userId);
+
+        //We set the activities to null to prevent parsing if the cache was disabled
+        final DataArray activityArray = !getJDA().isCacheFlagSet(CacheFlag.ACTIVITY) || content.isNull("activities") ? null : content.getArray("activities");
+        final DataObject clientStatus = !getJDA().isCacheFlagSet(CacheFlag.CLIENT_STATUS) || content.isNull("client_status") ? null : content.getObject("client_status");
+        // Most updates are repeated heartbeats of the same presence, those don't change anything we cache
+        final long fingerprint = fingerprint(content.getString("status"), clientStatus, activityArray);
+        if (presence != null && presence.getFingerprint() == fingerprint)
+            return null;
+
         OnlineStatus status = OnlineStatus.fromKey(content.getString("status"));
         if (status == OnlineStatus.OFFLINE)
             presences.remove(userId);
@@ -98,19 +241,28 @@ public class PresenceUpdateHandler extends SocketHandler
             }
         }
 
+        presence.setFingerprint(fingerprint);
+
         //Now that we've update the User's info, lets see if we need to set the specific Presence information.
         // This is stored in the Member objects.
-        //We set the activities to null to prevent parsing if the cache was disabled
-        final DataArray activityArray = !getJDA().isCacheFlagSet(CacheFlag.ACTIVITY) || content.isNull("activities") ? null : content.getArray("activities");
-        List<Activity> newActivities = new ArrayList<>();
-        boolean parsedActivity = parseActivities(userId, activityArray, newActivities);
+        if (clientStatus != null)
+            handleClientStatus(clientStatus, presence);
 
-        if (getJDA().isCacheFlagSet(CacheFlag.CLIENT_STATUS) && !content.isNull("client_status"))
-            handleClientStatus(content, presence);
-
-        // Check if activities changed
-        if (parsedActivity)
-            handleActivities(newActivities, member, presence);
+        if (activityArray != null)
+        {
+            if (member == null)
+            {
+                // Nobody can access these activities until the member is cached, so they are parsed on first access
+                presence.setRawActivities(activityArray);
+            }
+            else
+            {
+                // Check if activities changed
+                List<Activity> newActivities = new ArrayList<>(activityArray.length());
+                if (parseActivities(userId, activityArray, newActivities))
+                    handleActivities(newActivities, member, presence);
+            }
+        }
 
         //The member is already cached, so modify the presence values and fire events as needed.
 
@@ -135,12 +287,9 @@ public class PresenceUpdateHandler extends SocketHandler
         boolean parsedActivity = false;
         try
         {
-            if (activityArray != null)
-            {
-                for (int i = 0; i < activityArray.length(); i++)
-                    newActivities.add(EntityBuilder.createActivity(activityArray.getObject(i)));
-                parsedActivity = true;
-            }
+            for (int i = 0; i < activityArray.length(); i++)
+                newActivities.add(EntityBuilder.createInternedActivity(activityArray.getObject(i)));
+            parsedActivity = true;
         }
         catch (Exception ex)
         {
@@ -152,12 +301,10 @@ public class PresenceUpdateHandler extends SocketHandler
         return parsedActivity;
     }
 
-    private void handleActivities(List<Activity> newActivities, @Nullable MemberImpl member, MemberPresenceImpl presence)
+    private void handleActivities(List<Activity> newActivities, MemberImpl member, MemberPresenceImpl presence)
     {
         List<Activity> oldActivities = presence.getActivities();
-        presence.setActivities(newActivities);
-        if (member == null)
-            return;
+        presence.setActivities(Collections.unmodifiableList(newActivities));
         boolean unorderedEquals = Helpers.deepEqualsUnordered(oldActivities, newActivities);
         if (unorderedEquals)
         {
@@ -204,9 +351,8 @@ public class PresenceUpdateHandler extends SocketHandler
         }
     }
 
-    private void handleClientStatus(DataObject content, MemberPresenceImpl presence)
+    private void handleClientStatus(DataObject json, MemberPresenceImpl presence)
     {
-        DataObject json = content.getObject("client_status");
         EnumSet<ClientType> types = EnumSet.of(ClientType.UNKNOWN);
         for (String key : json.keys())
         {
@@ -219,4 +365,100 @@ public class PresenceUpdateHandler extends SocketHandler
         for (ClientType type : EnumSet.complementOf(types))
             presence.setOnlineStatus(type, null); // set remaining types to offline
     }
+
+    private static long fingerprint(String status, DataObject clientStatus, DataArray activities)
+    {
+        long hash = fingerprint(status);
+        hash = hash * 31 + (clientStatus == null ? 0 : fingerprint(clientStatus.toMap()));
+        hash = hash * 31 + (activities == null ? 0 : fingerprint(activities.toList()));
+        return hash;
+    }
+
+    // 64-bit hash over the parsed json, collisions would drop an update so the 32-bit hashCode is not good enough
+    private static long fingerprint(Object value)
+    {
+        if (value == null)
+            return 0;
+        if (value instanceof String)
+        {
+            String string = (String) value;
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < string.length(); i++)
+                hash = (hash ^ string.charAt(i)) * 0x100000001b3L;
+            return mix(hash);
+        }
+        if (value instanceof Map)
+        {
+            // Order independent, the key order of the payload is not guaranteed
+            long hash = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+                hash += mix(fingerprint(entry.getKey()) * 31 + fingerprint(entry.getValue()));
+            return mix(hash ^ 0x4d4150L);
+        }
+        if (value instanceof List)
+        {
+            long hash = 1;
+            for (Object element : (List<?>) value)
+                hash = hash * 31 + fingerprint(element);
+            return mix(hash ^ 0x4c495354L);
+        }
+        if (value instanceof Number)
+            return mix(((Number) value).longValue() ^ Double.doubleToLongBits(((Number) value).doubleValue()));
+        return mix(value.hashCode());
+    }
+
+    private static long mix(long hash)
+    {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class PendingKey
+    {
+        private final long guildId, userId;
+
+        private PendingKey(long guildId, long userId)
+        {
+            this.guildId = guildId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof PendingKey))
+                return false;
+            PendingKey other = (PendingKey) obj;
+            return other.guildId == guildId && other.userId == userId;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * Long.hashCode(guildId) + Long.hashCode(userId);
+        }
+    }
+
+    private static final class PendingUpdate
+    {
+        private final long time = System.currentTimeMillis();
+        private long responseNumber;
+        private DataObject event;
+
+        private PendingUpdate(long responseNumber, DataObject event)
+        {
+            this.responseNumber = responseNumber;
+            this.event = event;
+        }
+
+        private void replace(long responseNumber, DataObject event)
+        {
+            this.responseNumber = responseNumber;
+            this.event = event;
+        }
+    }
 }
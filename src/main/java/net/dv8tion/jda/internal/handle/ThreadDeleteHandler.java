@@ -22,6 +22,7 @@ import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.GuildImpl;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 public class ThreadDeleteHandler extends SocketHandler
 {
@@ -40,14 +41,16 @@ public class ThreadDeleteHandler extends SocketHandler
         GuildImpl guild = (GuildImpl) getJDA().getGuildById(guildId);
         final long threadId = content.getLong("id");
 
-        ThreadChannel thread = getJDA().getThreadChannelsView().remove(threadId);
+        ThreadChannel thread = getJDA().getThreadChannelsView().get(threadId);
+        if (thread != null)
+            getJDA().getChannelsView().remove(threadId);
         if (thread == null || guild == null)
         {
             WebSocketClient.LOG.debug("THREAD_DELETE attempted to delete a thread that is not yet cached. JSON: {}", content);
             return null;
         }
 
-        guild.getThreadChannelsView().remove(threadId);
+        guild.getChannelView().remove(threadId);
 
         getJDA().handleEvent(
             new ChannelDeleteEvent(
@@ -55,6 +58,9 @@ public class ThreadDeleteHandler extends SocketHandler
                 thread));
 
         getJDA().getEventCache().clear(EventCache.Type.CHANNEL, threadId);
+        MessageCache messageCache = getJDA().getMessageCache();
+        if (messageCache != null)
+            messageCache.removeChannel(threadId);
         return null;
     }
 }
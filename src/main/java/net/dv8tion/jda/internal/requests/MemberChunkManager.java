@@ -16,8 +16,12 @@
 
 package net.dv8tion.jda.internal.requests;
 
+import gnu.trove.map.TLongIntMap;
 import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.data.DataArray;
@@ -36,9 +40,15 @@ import java.util.function.BiConsumer;
 public class MemberChunkManager
 {
     private static final long MAX_CHUNK_AGE = 10 * 1000; // 10 seconds
+    private static final long BATCH_DELAY = 50; // milliseconds
+    private static final int BATCH_LIMIT = 100;
     private final WebSocketClient client;
     private final ReentrantLock lock = new ReentrantLock();
     private final TLongObjectMap<ChunkRequest> requests = new TLongObjectHashMap<>();
+    // Member lookups by id which have not been sent yet, by guild id
+    private final TLongObjectMap<MemberBatch> batches = new TLongObjectHashMap<>();
+    // Amount of sent member lookups which have not been answered yet, by guild id
+    private final TLongIntMap inFlight = new TLongIntHashMap();
     private Future<?> timeoutHandle;
 
     public MemberChunkManager(WebSocketClient client)
@@ -53,7 +63,16 @@ public class MemberChunkManager
 
     public void clear()
     {
-        MiscUtil.locked(lock, requests::clear);
+        MiscUtil.locked(lock, () -> {
+            requests.clear();
+            batches.forEachValue(batch -> {
+                if (batch.handle != null)
+                    batch.handle.cancel(false);
+                return true;
+            });
+            batches.clear();
+            inFlight.clear();
+        });
     }
 
     private void init()
@@ -72,42 +91,113 @@ public class MemberChunkManager
 
     public CompletableFuture<Void> chunkGuild(GuildImpl guild, boolean presence, BiConsumer<Boolean, List<Member>> handler)
     {
-        init();
-        DataObject request = DataObject.empty()
-                .put("guild_id", guild.getId())
-                .put("presences", presence)
-                .put("limit", 0)
-                .put("query", "");
-
-        ChunkRequest chunkRequest = new ChunkRequest(handler, guild, request);
-        makeRequest(chunkRequest);
-        return chunkRequest;
+        return requestChunks(guild, presence, (last, chunk) -> handler.accept(last, toMembers(guild, chunk)));
     }
 
     public CompletableFuture<Void> chunkGuild(GuildImpl guild, String query, int limit, BiConsumer<Boolean, List<Member>> handler)
     {
-        init();
         DataObject request = DataObject.empty()
                 .put("guild_id", guild.getId())
                 .put("limit", Math.min(100, Math.max(1, limit)))
                 .put("query", query);
 
-        ChunkRequest chunkRequest = new ChunkRequest(handler, guild, request);
-        makeRequest(chunkRequest);
-        return chunkRequest;
+        return requestChunks(request, (last, chunk) -> handler.accept(last, toMembers(guild, chunk)));
     }
 
     public CompletableFuture<Void> chunkGuild(GuildImpl guild, boolean presence, long[] userIds, BiConsumer<Boolean, List<Member>> handler)
     {
-        init();
         DataObject request = DataObject.empty()
                 .put("guild_id", guild.getId())
                 .put("presences", presence)
                 .put("user_ids", userIds);
 
-        ChunkRequest chunkRequest = new ChunkRequest(handler, guild, request);
-        makeRequest(chunkRequest);
-        return chunkRequest;
+        return requestChunks(request, (last, chunk) -> handler.accept(last, toMembers(guild, chunk)));
+    }
+
+    /**
+     * Retrieves the members with the provided ids.
+     * <br>If no lookup for the same guild is pending, the request is sent right away.
+     * Otherwise, concurrent lookups for the same guild are collected for a short delay,
+     * and sent as a single request for up to 100 distinct ids.
+     * The request of a batch is cancelled once all of its lookups have been cancelled.
+     *
+     * @param  guild
+     *         The guild
+     * @param  presence
+     *         Whether to include presences
+     * @param  userIds
+     *         The user ids, at most 100
+     *
+     * @return The future completed with the members which have been found
+     */
+    public CompletableFuture<List<Member>> retrieveMembers(GuildImpl guild, boolean presence, long[] userIds)
+    {
+        MemberLookup lookup = new MemberLookup(userIds);
+        MiscUtil.locked(lock, () -> {
+            long guildId = guild.getIdLong();
+            MemberBatch batch = batches.get(guildId);
+            if (batch != null && !batch.canAdd(userIds))
+            {
+                sendBatch(batch);
+                batch = null;
+            }
+            if (batch == null)
+            {
+                MemberBatch created = new MemberBatch(guild);
+                batches.put(guildId, created);
+                created.add(lookup, presence);
+                // Nothing to wait for, only delay lookups while another one is in flight
+                if (inFlight.get(guildId) == 0)
+                {
+                    sendBatch(created);
+                    return;
+                }
+                created.handle = client.getJDA().getGatewayPool().schedule(
+                    () -> MiscUtil.locked(lock, () -> sendBatch(created)), BATCH_DELAY, TimeUnit.MILLISECONDS);
+                return;
+            }
+            batch.add(lookup, presence);
+        });
+        return lookup;
+    }
+
+    /**
+     * Requests all members of the guild, without decoding the received chunks.
+     *
+     * @param  guild
+     *         The guild
+     * @param  presence
+     *         Whether to include presences in the chunks
+     * @param  handler
+     *         The handler for the raw chunk payloads, called on the gateway thread
+     *
+     * @return The future completed after the last chunk
+     */
+    public CompletableFuture<Void> requestChunks(GuildImpl guild, boolean presence, BiConsumer<Boolean, DataObject> handler)
+    {
+        DataObject request = DataObject.empty()
+                .put("guild_id", guild.getId())
+                .put("presences", presence)
+                .put("limit", 0)
+                .put("query", "");
+
+        return requestChunks(request, handler);
+    }
+
+    private static TLongObjectMap<DataObject> getPresences(DataObject chunk)
+    {
+        return chunk.optArray("presences").map(it ->
+            Helpers.convertToMap(o -> o.getObject("user").getUnsignedLong("id"), it)
+        ).orElseGet(TLongObjectHashMap::new);
+    }
+
+    private static MemberImpl createMember(GuildImpl guild, DataObject json, TLongObjectMap<DataObject> presences)
+    {
+        EntityBuilder builder = guild.getJDA().getEntityBuilder();
+        long userId = json.getObject("user").getUnsignedLong("id");
+        MemberImpl member = builder.createMember(guild, json, null, presences.get(userId));
+        builder.updateMemberCache(member);
+        return member;
     }
 
     public boolean handleChunk(long guildId, DataObject response)
@@ -139,6 +229,80 @@ public class MemberChunkManager
         });
     }
 
+    private CompletableFuture<Void> requestChunks(DataObject request, BiConsumer<Boolean, DataObject> handler)
+    {
+        init();
+        // The guild might still be in setup, which should be chunked before anything waits for its members
+        client.getChunkScheduler().prioritize(request.getUnsignedLong("guild_id"));
+        ChunkRequest chunkRequest = new ChunkRequest(handler, request);
+        makeRequest(chunkRequest);
+        return chunkRequest;
+    }
+
+    private void sendBatch(MemberBatch batch)
+    {
+        // The batch might already have been sent because it was full
+        if (batches.get(batch.guild.getIdLong()) != batch)
+            return;
+        long guildId = batch.guild.getIdLong();
+        batches.remove(guildId);
+        if (batch.handle != null)
+            batch.handle.cancel(false);
+        batch.lookups.removeIf(CompletableFuture::isDone);
+        if (batch.lookups.isEmpty())
+            return;
+
+        TLongObjectMap<Member> found = new TLongObjectHashMap<>(batch.userIds.size());
+        CompletableFuture<Void> request = chunkGuild(batch.guild, batch.presence, batch.userIds.toArray(), (last, list) -> {
+            for (Member member : list)
+                found.put(member.getIdLong(), member);
+            if (last)
+                batch.lookups.forEach(lookup -> lookup.resolve(found));
+        });
+        batch.request = request;
+        inFlight.adjustOrPutValue(guildId, 1, 1);
+
+        request.whenComplete((v, ex) -> {
+            MiscUtil.locked(lock, () -> {
+                if (inFlight.adjustOrPutValue(guildId, -1, 0) <= 0)
+                    inFlight.remove(guildId);
+            });
+            if (ex != null)
+                batch.lookups.forEach(lookup -> lookup.completeExceptionally(ex));
+        });
+    }
+
+    private void onCancel(MemberBatch batch)
+    {
+        MiscUtil.locked(lock, () -> {
+            for (MemberLookup lookup : batch.lookups)
+            {
+                if (!lookup.isCancelled())
+                    return;
+            }
+            // Every waiter of this batch is gone, the request is no longer needed
+            long guildId = batch.guild.getIdLong();
+            if (batches.get(guildId) == batch)
+            {
+                batches.remove(guildId);
+                if (batch.handle != null)
+                    batch.handle.cancel(false);
+            }
+            if (batch.request != null)
+                batch.request.cancel(false);
+        });
+    }
+
+    static List<Member> toMembers(GuildImpl guild, DataObject chunk)
+    {
+        DataArray memberArray = chunk.getArray("members");
+        TLongObjectMap<DataObject> presences = getPresences(chunk);
+        List<Member> collect = new ArrayList<>(memberArray.length());
+        for (int i = 0; i < memberArray.length(); i++)
+            collect.add(createMember(guild, memberArray.getObject(i), presences));
+        return collect;
+    }
+
     private void makeRequest(ChunkRequest request)
     {
         MiscUtil.locked(lock, () -> {
@@ -154,16 +318,14 @@ public class MemberChunkManager
 
     private class ChunkRequest extends CompletableFuture<Void>
     {
-        private final BiConsumer<Boolean, List<Member>> handler;
-        private final GuildImpl guild;
+        private final BiConsumer<Boolean, DataObject> handler;
         private final DataObject request;
         private final long nonce;
         private long startTime;
 
-        public ChunkRequest(BiConsumer<Boolean, List<Member>> handler, GuildImpl guild, DataObject request)
+        public ChunkRequest(BiConsumer<Boolean, DataObject> handler, DataObject request)
         {
             this.handler = handler;
-            this.guild = guild;
             this.nonce = ThreadLocalRandom.current().nextLong() & ~1;
             this.request = request.put("nonce", getNonce());
         }
@@ -189,32 +351,12 @@ public class MemberChunkManager
             return request;
         }
 
-        private List<Member> toMembers(DataObject chunk)
-        {
-            EntityBuilder builder = guild.getJDA().getEntityBuilder();
-            DataArray memberArray = chunk.getArray("members");
-            TLongObjectMap<DataObject> presences = chunk.optArray("presences").map(it ->
-                Helpers.convertToMap(o -> o.getObject("user").getUnsignedLong("id"), it)
-            ).orElseGet(TLongObjectHashMap::new);
-            List<Member> collect = new ArrayList<>(memberArray.length());
-            for (int i = 0; i < memberArray.length(); i++)
-            {
-                DataObject json = memberArray.getObject(i);
-                long userId = json.getObject("user").getUnsignedLong("id");
-                DataObject presence = presences.get(userId);
-                MemberImpl member = builder.createMember(guild, json, null, presence);
-                builder.updateMemberCache(member);
-                collect.add(member);
-            }
-            return collect;
-        }
-
         public void handleChunk(boolean last, DataObject chunk)
         {
             try
             {
                 if (!isDone())
-                    handler.accept(last, toMembers(chunk));
+                    handler.accept(last, chunk);
             }
             catch (Throwable ex)
             {
@@ -233,6 +375,73 @@ public class MemberChunkManager
         }
     }
 
+    private static class MemberBatch
+    {
+        private final GuildImpl guild;
+        private final TLongSet userIds = new TLongHashSet();
+        private final List<MemberLookup> lookups = new ArrayList<>();
+        private boolean presence;
+        private Future<?> handle;
+        private CompletableFuture<Void> request;
+
+        private MemberBatch(GuildImpl guild)
+        {
+            this.guild = guild;
+        }
+
+        private boolean canAdd(long[] ids)
+        {
+            int size = userIds.size();
+            for (long id : ids)
+            {
+                if (!userIds.contains(id))
+                    size++;
+            }
+            return size <= BATCH_LIMIT;
+        }
+
+        private void add(MemberLookup lookup, boolean presence)
+        {
+            userIds.addAll(lookup.userIds);
+            lookups.add(lookup);
+            lookup.batch = this;
+            this.presence |= presence;
+        }
+    }
+
+    private class MemberLookup extends CompletableFuture<List<Member>>
+    {
+        private final long[] userIds;
+        private MemberBatch batch;
+
+        private MemberLookup(long[] userIds)
+        {
+            this.userIds = userIds;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning)
+        {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && batch != null)
+                onCancel(batch);
+            return cancelled;
+        }
+
+        private void resolve(TLongObjectMap<Member> found)
+        {
+            List<Member> members = new ArrayList<>(userIds.length);
+            TLongSet seen = new TLongHashSet(userIds.length);
+            for (long id : userIds)
+            {
+                Member member = found.get(id);
+                if (member != null && seen.add(id))
+                    members.add(member);
+            }
+            complete(members);
+        }
+    }
+
     private class TimeoutHandler implements Runnable
     {
         @Override
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedules the member chunk requests of guilds in setup.
+ *
+ * <p>Pending guilds are requested by priority. Guilds with interactions or member requests waiting for their setup come first,
+ * followed by the smallest guilds, since those complete their setup the fastest.
+ * Only {@link #BUDGET} messages of each rate limit window are used for these requests,
+ * which leaves headroom for heartbeats, voice connects, and presence updates.
+ *
+ * <p>Discord only accepts a single guild id per request, so these requests cannot be batched.
+ */
+public class MemberChunkScheduler
+{
+    public static final Logger LOG = JDALogger.getLog(MemberChunkScheduler.class);
+    // Of the 115 messages the client sends per window before limiting itself
+    public static final int BUDGET = 100;
+    private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TLongObjectMap<Entry> entries = new TLongObjectHashMap<>();
+    private final TreeSet<Entry> queue = new TreeSet<>();
+    private long sequence;
+
+    // Progress since the first request after the last clear
+    private long startTime;
+    private long lastProgressLog;
+    private int requestedGuilds;
+    private long loadedMembers;
+
+    public void schedule(long guildId, int memberCount, boolean priority)
+    {
+        MiscUtil.locked(lock, () -> {
+            Entry previous = entries.get(guildId);
+            if (previous != null)
+                queue.remove(previous);
+            // Rescheduling a guild never drops its priority
+            Entry entry = new Entry(guildId, memberCount, priority || previous != null && previous.priority, sequence++);
+            entries.put(guildId, entry);
+            queue.add(entry);
+        });
+    }
+
+    /**
+     * Moves the guild to the front of the queue, if its request is still pending.
+     *
+     * @param guildId
+     *        The guild id
+     */
+    public void prioritize(long guildId)
+    {
+        MiscUtil.locked(lock, () -> {
+            Entry entry = entries.get(guildId);
+            if (entry == null || entry.priority)
+                return;
+            queue.remove(entry);
+            entry = new Entry(guildId, entry.memberCount, true, entry.sequence);
+            entries.put(guildId, entry);
+            queue.add(entry);
+        });
+    }
+
+    public void cancel(long guildId)
+    {
+        MiscUtil.locked(lock, () -> {
+            Entry entry = entries.remove(guildId);
+            if (entry != null)
+                queue.remove(entry);
+        });
+    }
+
+    public void clear()
+    {
+        MiscUtil.locked(lock, () -> {
+            entries.clear();
+            queue.clear();
+            startTime = lastProgressLog = 0;
+            requestedGuilds = 0;
+            loadedMembers = 0;
+        });
+    }
+
+    /**
+     * The next request to send, if the budget of the current window allows it.
+     * <br>The request stays queued until {@link #markSent(long)} is called.
+     *
+     * @param  messagesSent
+     *         The amount of messages sent in the current rate limit window
+     *
+     * @return The request payload, or null if nothing should be sent right now
+     */
+    @Nullable
+    public DataObject next(int messagesSent)
+    {
+        if (messagesSent >= BUDGET)
+            return null;
+        return MiscUtil.locked(lock, () -> queue.isEmpty() ? null : queue.first().toRequest());
+    }
+
+    public void markSent(long guildId)
+    {
+        MiscUtil.locked(lock, () -> {
+            Entry entry = entries.remove(guildId);
+            if (entry == null)
+                return;
+            queue.remove(entry);
+            if (startTime == 0)
+                startTime = lastProgressLog = System.currentTimeMillis();
+            requestedGuilds++;
+        });
+    }
+
+    public void onChunk(int memberCount)
+    {
+        MiscUtil.locked(lock, () -> {
+            loadedMembers += memberCount;
+            long now = System.currentTimeMillis();
+            if (startTime == 0 || now - lastProgressLog < PROGRESS_INTERVAL)
+                return;
+            lastProgressLog = now;
+            LOG.debug("Member chunking progress: {} guilds pending, {} guilds requested, {} members loaded ({} members/s)",
+                queue.size(), requestedGuilds, loadedMembers, loadedMembers * 1000 / Math.max(now - startTime, 1));
+        });
+    }
+
+    private static class Entry implements Comparable<Entry>
+    {
+        private final long guildId;
+        private final int memberCount;
+        private final boolean priority;
+        private final long sequence;
+
+        private Entry(long guildId, int memberCount, boolean priority, long sequence)
+        {
+            this.guildId = guildId;
+            this.memberCount = memberCount;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        private DataObject toRequest()
+        {
+            return DataObject.empty()
+                .put("guild_id", guildId)
+                .put("query", "")
+                .put("limit", 0);
+        }
+
+        @Override
+        public int compareTo(@Nonnull Entry o)
+        {
+            if (priority != o.priority)
+                return priority ? -1 : 1;
+            if (memberCount != o.memberCount)
+                return Integer.compare(memberCount, o.memberCount);
+            return Long.compare(sequence, o.sequence);
+        }
+    }
+}
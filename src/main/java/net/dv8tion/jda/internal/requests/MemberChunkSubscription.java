@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.utils.concurrent.MemberSubscriber;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Member stream of a guild, see {@link net.dv8tion.jda.api.entities.Guild#subscribeMembers(MemberSubscriber)}.
+ *
+ * <p>The chunk request is only sent once members are requested.
+ * Received chunks are decoded on the gateway thread, like every other chunk, so the member cache is only ever updated by that thread.
+ * The decoded members are queued until they are requested.
+ * All signals are emitted by {@link #drain()}, which is only ever run by one thread at a time.
+ * The gateway thread never drains, it hands the drain off to the callback pool, so a slow subscriber can't stall the shard.
+ */
+public class MemberChunkSubscription implements MemberSubscriber.Subscription
+{
+    private final GuildImpl guild;
+    private final MemberSubscriber subscriber;
+    private final boolean presences;
+    // Members of a loaded guild are streamed from the cache instead
+    private final Iterator<Member> cached;
+
+    private final Queue<Member> members = new ConcurrentLinkedQueue<>();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile CompletableFuture<Void> request;
+    private volatile boolean received;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+    private boolean done;
+
+    public MemberChunkSubscription(GuildImpl guild, MemberSubscriber subscriber, boolean presences)
+    {
+        this.guild = guild;
+        this.subscriber = subscriber;
+        this.presences = presences;
+        this.cached = guild.isLoaded() ? guild.getMemberCache().iterator() : null;
+    }
+
+    public void start()
+    {
+        subscriber.onSubscribe(this);
+    }
+
+    @Override
+    public void request(long n)
+    {
+        Checks.positive(n, "Amount");
+        demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+        if (cached == null && request == null)
+            sendRequest();
+        drain();
+    }
+
+    @Override
+    public void cancel()
+    {
+        cancelled = true;
+        CompletableFuture<Void> request = this.request;
+        if (request != null)
+            request.cancel(false);
+        members.clear();
+    }
+
+    private synchronized void sendRequest()
+    {
+        if (request != null || cancelled)
+            return;
+        MemberChunkManager chunkManager = guild.getJDA().getClient().getChunkManager();
+        request = chunkManager.requestChunks(guild, presences, (last, chunk) -> {
+            if (!cancelled)
+                members.addAll(MemberChunkManager.toMembers(guild, chunk));
+            if (last)
+                received = true;
+            scheduleDrain();
+        });
+        request.whenComplete((v, ex) -> {
+            if (ex != null && !cancelled)
+            {
+                error = ex;
+                scheduleDrain();
+            }
+        });
+    }
+
+    private void scheduleDrain()
+    {
+        try
+        {
+            guild.getJDA().getCallbackPool().execute(this::drain);
+        }
+        catch (RejectedExecutionException ignored) {} // JDA has been shutdown
+    }
+
+    private void drain()
+    {
+        if (wip.getAndIncrement() != 0)
+            return;
+        int missed = 1;
+        do
+        {
+            emit();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emit()
+    {
+        while (!done)
+        {
+            if (cancelled)
+            {
+                done = true;
+                members.clear();
+                return;
+            }
+
+            Member next = demand.get() > 0 ? poll() : null;
+            if (next != null)
+            {
+                if (demand.get() != Long.MAX_VALUE)
+                    demand.decrementAndGet();
+                subscriber.onNext(next);
+                continue;
+            }
+
+            Throwable error = this.error;
+            if (error != null)
+            {
+                done = true;
+                members.clear();
+                subscriber.onError(error);
+            }
+            else if (isExhausted())
+            {
+                done = true;
+                subscriber.onComplete();
+            }
+            return;
+        }
+    }
+
+    private Member poll()
+    {
+        if (cached != null)
+            return cached.hasNext() ? cached.next() : null;
+        return members.poll();
+    }
+
+    private boolean isExhausted()
+    {
+        if (cached != null)
+            return !cached.hasNext();
+        return received && members.isEmpty();
+    }
+}
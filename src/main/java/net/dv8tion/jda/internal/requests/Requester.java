@@ -20,12 +20,14 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDAInfo;
 import net.dv8tion.jda.api.requests.Request;
 import net.dv8tion.jda.api.requests.Response;
+import net.dv8tion.jda.api.requests.RestResponseCache;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.requests.ratelimit.BotRateLimiter;
 import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
@@ -33,6 +35,7 @@ import okhttp3.internal.http.HttpMethod;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 
+import javax.annotation.Nonnull;
 import javax.net.ssl.SSLPeerUnverifiedException;
 import java.io.IOException;
 import java.net.SocketException;
@@ -42,8 +45,11 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class Requester
 {
@@ -68,6 +74,8 @@ public class Requester
 
     private volatile boolean retryOnTimeout = false;
 
+    private final ConcurrentMap<Route.CompiledRoute, SingleFlightRequest<?>> flights = new ConcurrentHashMap<>();
+
     public Requester(JDA api)
     {
         this(api, ((JDAImpl) api).getAuthorizationConfig());
@@ -108,12 +116,116 @@ public class Requester
         if (rateLimiter.isStopped)
             throw new RejectedExecutionException("The Requester has been stopped! No new requests can be requested!");
 
-        if (apiRequest.shouldQueue())
+        if (handleCached(apiRequest))
+            return;
+
+        if (api.isRequestDeduplication() && SingleFlightRequest.isEligible(apiRequest))
+            requestShared(apiRequest);
+        else if (apiRequest.shouldQueue())
             rateLimiter.queueRequest(apiRequest);
         else
             execute(apiRequest, true);
     }
 
+    private <T> void requestShared(Request<T> apiRequest)
+    {
+        Route.CompiledRoute route = apiRequest.getRoute();
+        while (true)
+        {
+            SingleFlightRequest<?> flight = flights.get(route);
+            if (flight != null && flight.join(apiRequest))
+                return;
+
+            // The previous flight is already handling its response, replace it with a new one
+            SingleFlightRequest<T> created = new SingleFlightRequest<>(apiRequest, flights);
+            boolean started = flight == null
+                ? flights.putIfAbsent(route, created) == null
+                : flights.replace(route, flight, created);
+            if (started)
+            {
+                rateLimiter.queueRequest(created);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Whether the request is a plain GET request, which can share its response with other requests for the same route.
+     *
+     * @param  apiRequest
+     *         The request
+     *
+     * @return True, if the request has no body or additional headers
+     */
+    public static boolean isPlainGet(Request<?> apiRequest)
+    {
+        return apiRequest.getRoute().getMethod() == Method.GET
+            && apiRequest.getBody() == null
+            && apiRequest.getRawBody() == null
+            && (apiRequest.getHeaders() == null || apiRequest.getHeaders().isEmpty());
+    }
+
+    private boolean handleCached(Request<?> apiRequest)
+    {
+        RestResponseCache cache = api.getResponseCache();
+        if (cache == null || !isPlainGet(apiRequest))
+            return false;
+
+        RestResponseCache.CachedResponse cached = cache.get(apiRequest.getRoute());
+        if (cached == null || cached.isExpired())
+            return false;
+
+        LOG.trace("Using cached response for {} {}", apiRequest.getRoute().getMethod(), apiRequest.getRoute().getCompiledRoute());
+        // Handle the response like a response from the network, instead of parsing it on the thread which queued the request
+        api.getRateLimitPool().execute(() -> {
+            if (!apiRequest.isSkipped())
+                apiRequest.handleResponse(new Response(cached.toResponse(), -1, Collections.emptySet()));
+        });
+        return true;
+    }
+
+    private okhttp3.Response updateCache(Request<?> apiRequest, okhttp3.Response response)
+    {
+        RestResponseCache cache = api.getResponseCache();
+        if (cache == null)
+            return response;
+
+        Route.CompiledRoute route = apiRequest.getRoute();
+        if (route.getMethod() != Method.GET)
+        {
+            if (response.isSuccessful())
+                cache.invalidate(route);
+            return response;
+        }
+
+        // Compare against the state of the cache at the time the request was sent, it might have changed since then
+        CacheSnapshot snapshot = response.request().tag(CacheSnapshot.class);
+        if (snapshot == null)
+            return response;
+
+        long timeToLive = cache.getTimeToLive(route);
+        if (response.code() == 304 && snapshot.cached != null)
+        {
+            // Revalidated with the entity tag, the cached body is still up-to-date
+            if (timeToLive > 0)
+                cache.put(route, snapshot.cached.refresh(timeToLive), snapshot.generation);
+            return snapshot.cached.toResponse();
+        }
+
+        if (timeToLive > 0 && response.isSuccessful())
+        {
+            try
+            {
+                cache.put(route, RestResponseCache.CachedResponse.of(response, timeToLive), snapshot.generation);
+            }
+            catch (IOException e)
+            {
+                LOG.debug("Failed to cache response for {} {}", route.getMethod(), route.getCompiledRoute(), e);
+            }
+        }
+        return response;
+    }
+
     private static boolean isRetry(Throwable e)
     {
         return e instanceof SocketException             // Socket couldn't be created or access failed
@@ -154,15 +266,7 @@ public class Requester
             return retryAfter;
         }
 
-        okhttp3.Request.Builder builder = new okhttp3.Request.Builder();
-
-        String url = DISCORD_API_PREFIX + route.getCompiledRoute();
-        builder.url(url);
-
-        applyBody(apiRequest, builder);
-        applyHeaders(apiRequest, builder, url.startsWith(DISCORD_API_PREFIX));
-
-        okhttp3.Request request = builder.build();
+        okhttp3.Request request = buildRequest(apiRequest);
 
         Set<String> rays = new LinkedHashSet<>();
         okhttp3.Response[] responses = new okhttp3.Response[4];
@@ -171,7 +275,7 @@ public class Requester
         okhttp3.Response lastResponse = null;
         try
         {
-            LOG.trace("Executing request {} {}", apiRequest.getRoute().getMethod(), url);
+            LOG.trace("Executing request {} {}", apiRequest.getRoute().getMethod(), request.url());
             for (int attempt = 0; attempt < responses.length; attempt++)
             {
                 if (apiRequest.isSkipped())
@@ -190,7 +294,7 @@ public class Requester
 
                 LOG.debug("Requesting {} -> {} returned status {}... retrying (attempt {})",
                         apiRequest.getRoute().getMethod(),
-                        url, lastResponse.code(), attempt + 1);
+                        request.url(), lastResponse.code(), attempt + 1);
                 try
                 {
                     Thread.sleep(500 << attempt);
@@ -201,45 +305,18 @@ public class Requester
                 }
             }
 
-            LOG.trace("Finished Request {} {} with code {}", route.getMethod(), lastResponse.request().url(), lastResponse.code());
-
-            if (shouldRetry(lastResponse.code()))
-            {
-                //Epic failure from other end. Attempted 4 times.
-                Response response = new Response(lastResponse, -1, rays);
-                apiRequest.handleResponse(response);
-                return null;
-            }
-
-            retryAfter = rateLimiter.handleResponse(route, lastResponse);
-            if (!rays.isEmpty())
-                LOG.debug("Received response with following cf-rays: {}", rays);
-
-            if (retryAfter == null)
-                apiRequest.handleResponse(new Response(lastResponse, -1, rays));
-            else if (handleOnRatelimit)
-                apiRequest.handleResponse(new Response(lastResponse, retryAfter, rays));
-
-            return retryAfter;
-        }
-        catch (UnknownHostException e)
-        {
-            LOG.error("DNS resolution failed: {}", e.getMessage());
-            apiRequest.handleResponse(new Response(e, rays));
-            return null;
+            return handleResponse(apiRequest, lastResponse, rays, handleOnRatelimit);
         }
         catch (IOException e)
         {
             if (retryOnTimeout && !retried && isRetry(e))
                 return execute(apiRequest, true, handleOnRatelimit);
-            LOG.error("There was an I/O error while executing a REST request: {}", e.getMessage());
-            apiRequest.handleResponse(new Response(e, rays));
+            handleError(apiRequest, e, rays);
             return null;
         }
         catch (Exception e)
         {
-            LOG.error("There was an unexpected error while executing a REST request", e);
-            apiRequest.handleResponse(new Response(e, rays));
+            handleError(apiRequest, e, rays);
             return null;
         }
         finally
@@ -253,6 +330,99 @@ public class Requester
         }
     }
 
+    /**
+     * Asynchronous version of {@link #execute(Request)}, which doesn't block the calling thread during the network round-trip.
+     * <br>The call is enqueued on the dispatcher of the http client, and the response is handled on its threads.
+     *
+     * @param  apiRequest
+     *         The API request that needs to be sent
+     *
+     * @return Future completed once the response has been handled, with the same result as {@link #execute(Request)}
+     */
+    public CompletableFuture<Long> executeAsync(Request<?> apiRequest)
+    {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        Long retryAfter = rateLimiter.getRateLimit(apiRequest.getRoute());
+        if (retryAfter != null && retryAfter > 0)
+        {
+            future.complete(retryAfter);
+            return future;
+        }
+
+        try
+        {
+            new AsyncCall(apiRequest, buildRequest(apiRequest), future).start();
+        }
+        catch (Exception e)
+        {
+            handleError(apiRequest, e, Collections.emptySet());
+            future.complete(null);
+        }
+        return future;
+    }
+
+    private okhttp3.Request buildRequest(Request<?> apiRequest)
+    {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder();
+
+        String url = DISCORD_API_PREFIX + apiRequest.getRoute().getCompiledRoute();
+        builder.url(url);
+
+        applyBody(apiRequest, builder);
+        applyHeaders(apiRequest, builder, url.startsWith(DISCORD_API_PREFIX));
+
+        RestResponseCache cache = api.getResponseCache();
+        if (cache != null && isPlainGet(apiRequest))
+        {
+            // The generation has to be read first, to notice invalidations which happen after the response was read
+            long generation = cache.getGeneration();
+            RestResponseCache.CachedResponse cached = cache.get(apiRequest.getRoute());
+            if (cached != null && cached.getEntityTag() == null)
+                cached = null;
+            if (cached != null)
+                builder.header("if-none-match", cached.getEntityTag());
+            builder.tag(CacheSnapshot.class, new CacheSnapshot(cached, generation));
+        }
+
+        return builder.build();
+    }
+
+    private Long handleResponse(Request<?> apiRequest, okhttp3.Response lastResponse, Set<String> rays, boolean handleOnRatelimit)
+    {
+        Route.CompiledRoute route = apiRequest.getRoute();
+        LOG.trace("Finished Request {} {} with code {}", route.getMethod(), lastResponse.request().url(), lastResponse.code());
+
+        if (shouldRetry(lastResponse.code()))
+        {
+            //Epic failure from other end. Attempted 4 times.
+            Response response = new Response(lastResponse, -1, rays);
+            apiRequest.handleResponse(response);
+            return null;
+        }
+
+        Long retryAfter = rateLimiter.handleResponse(route, lastResponse);
+        if (!rays.isEmpty())
+            LOG.debug("Received response with following cf-rays: {}", rays);
+
+        if (retryAfter == null)
+            apiRequest.handleResponse(new Response(updateCache(apiRequest, lastResponse), -1, rays));
+        else if (handleOnRatelimit)
+            apiRequest.handleResponse(new Response(lastResponse, retryAfter, rays));
+
+        return retryAfter;
+    }
+
+    private void handleError(Request<?> apiRequest, Exception e, Set<String> rays)
+    {
+        if (e instanceof UnknownHostException)
+            LOG.error("DNS resolution failed: {}", e.getMessage());
+        else if (e instanceof IOException)
+            LOG.error("There was an I/O error while executing a REST request: {}", e.getMessage());
+        else
+            LOG.error("There was an unexpected error while executing a REST request", e);
+        apiRequest.handleResponse(new Response(e, rays));
+    }
+
     private void applyBody(Request<?> apiRequest, okhttp3.Request.Builder builder)
     {
         String method = apiRequest.getRoute().getMethod().toString();
@@ -313,4 +483,101 @@ public class Requester
     {
         return code == 502 || code == 504 || code == 529;
     }
+
+    // State of the response cache at the time a request was built
+    private static final class CacheSnapshot
+    {
+        // The response which was revalidated with the If-None-Match header, if any
+        private final RestResponseCache.CachedResponse cached;
+        private final long generation;
+
+        private CacheSnapshot(RestResponseCache.CachedResponse cached, long generation)
+        {
+            this.cached = cached;
+            this.generation = generation;
+        }
+    }
+
+    // Mirrors the retry behavior of execute, using the rate limit pool to delay the retries instead of sleeping
+    private class AsyncCall implements Callback
+    {
+        private final Request<?> apiRequest;
+        private final okhttp3.Request request;
+        private final CompletableFuture<Long> future;
+        private final Set<String> rays = new LinkedHashSet<>();
+        private int attempt = 0;
+        private boolean retried = false;
+
+        private AsyncCall(Request<?> apiRequest, okhttp3.Request request, CompletableFuture<Long> future)
+        {
+            this.apiRequest = apiRequest;
+            this.request = request;
+            this.future = future;
+        }
+
+        private void start()
+        {
+            if (apiRequest.isSkipped())
+            {
+                future.complete(null);
+                return;
+            }
+
+            LOG.trace("Executing request {} {}", apiRequest.getRoute().getMethod(), request.url());
+            httpClient.newCall(request).enqueue(this);
+        }
+
+        @Override
+        public void onResponse(@Nonnull Call call, @Nonnull okhttp3.Response response)
+        {
+            try (okhttp3.Response ignored = response)
+            {
+                String cfRay = response.header("CF-RAY");
+                if (cfRay != null)
+                    rays.add(cfRay);
+
+                // Retry a few specific server errors that are related to server issues
+                if (shouldRetry(response.code()) && ++attempt < 4)
+                {
+                    LOG.debug("Requesting {} -> {} returned status {}... retrying (attempt {})",
+                            apiRequest.getRoute().getMethod(),
+                            request.url(), response.code(), attempt);
+                    api.getRateLimitPool().schedule(this::start, 500L << (attempt - 1), TimeUnit.MILLISECONDS);
+                    return;
+                }
+
+                future.complete(handleResponse(apiRequest, response, rays, false));
+            }
+            catch (Exception e)
+            {
+                handleError(apiRequest, e, rays);
+                future.complete(null);
+            }
+            catch (Throwable e)
+            {
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void onFailure(@Nonnull Call call, @Nonnull IOException e)
+        {
+            if (retryOnTimeout && !retried && isRetry(e))
+            {
+                retried = true;
+                start();
+                return;
+            }
+
+            try
+            {
+                handleError(apiRequest, e, rays);
+            }
+            finally
+            {
+                future.complete(null);
+            }
+        }
+    }
 }
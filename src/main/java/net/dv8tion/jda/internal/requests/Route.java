@@ -22,8 +22,8 @@ import net.dv8tion.jda.internal.utils.Helpers;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 import static net.dv8tion.jda.internal.requests.Method.*;
 
@@ -361,6 +361,12 @@ public class Route
     private final String route;
     private final Method method;
     private final int paramCount;
+    // The route split around its parameters, compiling only has to append these
+    private final String[] segments;
+    private final int segmentsLength;
+    // Indices and names of the major parameters
+    private final int[] majorIndices;
+    private final String[] majorNames;
 
     private Route(Method method, String route)
     {
@@ -370,6 +376,33 @@ public class Route
 
         if (paramCount != Helpers.countMatches(route, '}'))
             throw new IllegalArgumentException("An argument does not have both {}'s for route: " + method + "  " + route);
+
+        this.segments = new String[paramCount + 1];
+        List<String> majors = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        int length = 0;
+        int segmentStart = 0;
+        for (int i = 0; i < paramCount; i++)
+        {
+            int paramStart = route.indexOf('{', segmentStart);
+            int paramEnd = route.indexOf('}', paramStart);
+            if (paramEnd < 0)
+                throw new IllegalArgumentException("An argument does not have both {}'s for route: " + method + "  " + route);
+            segments[i] = route.substring(segmentStart, paramStart);
+            length += segments[i].length();
+
+            String paramName = route.substring(paramStart + 1, paramEnd);
+            if (majorParameters.contains(paramName))
+            {
+                majors.add(paramName);
+                indices.add(i);
+            }
+            segmentStart = paramEnd + 1;
+        }
+        segments[paramCount] = route.substring(segmentStart);
+        this.segmentsLength = length + segments[paramCount].length();
+        this.majorNames = majors.toArray(new String[0]);
+        this.majorIndices = indices.stream().mapToInt(Integer::intValue).toArray();
     }
 
     public Method getMethod()
@@ -396,31 +429,50 @@ public class Route
         }
 
         //Compile the route for interfacing with discord.
-        Set<String> major = new HashSet<>();
-        StringBuilder compiledRoute = new StringBuilder(route);
+        int length = segmentsLength;
+        for (String param : params)
+            length += param.length();
+
+        StringBuilder compiledRoute = new StringBuilder(length).append(segments[0]);
         for (int i = 0; i < paramCount; i++)
-        {
-            int paramStart = compiledRoute.indexOf("{");
-            int paramEnd = compiledRoute.indexOf("}");
-            String paramName = compiledRoute.substring(paramStart+1, paramEnd);
-            if (majorParameters.contains(paramName))
-            {
-                if (params[i].length() > 30) // probably a long interaction_token, hash it to keep logs clean (not useful anyway)
-                    major.add(paramName + "=" + Integer.toUnsignedString(params[i].hashCode()));
-                else
-                    major.add(paramName + "=" + params[i]);
-            }
+            compiledRoute.append(params[i]).append(segments[i + 1]);
 
-            compiledRoute.replace(paramStart, paramEnd + 1, params[i]);
+        // Routes have at most two major parameters, any further ones are folded into the second id
+        long majorId = 0, secondaryMajorId = 0;
+        for (int i = 0; i < majorIndices.length; i++)
+        {
+            long id = toMajorId(params[majorIndices[i]]);
+            if (i == 0)
+                majorId = id;
+            else
+                secondaryMajorId = 31 * secondaryMajorId + id;
         }
 
-        return new CompiledRoute(this, compiledRoute.toString(), major.isEmpty() ? "n/a" : String.join(":", major));
+        return new CompiledRoute(this, compiledRoute.toString(), majorId, secondaryMajorId, false);
+    }
+
+    private static long toMajorId(String param)
+    {
+        // Snowflakes are used as is, anything else (like an interaction token) is hashed
+        int length = param.length();
+        if (length == 0 || length > 19)
+            return Integer.toUnsignedLong(param.hashCode());
+
+        long id = 0;
+        for (int i = 0; i < length; i++)
+        {
+            char c = param.charAt(i);
+            if (c < '0' || c > '9')
+                return Integer.toUnsignedLong(param.hashCode());
+            id = id * 10 + (c - '0');
+        }
+        return id;
     }
 
     @Override
     public int hashCode()
     {
-        return (route + method.toString()).hashCode();
+        return 31 * route.hashCode() + method.hashCode();
     }
 
     @Override
@@ -445,23 +497,22 @@ public class Route
     public class CompiledRoute
     {
         private final Route baseRoute;
-        private final String major;
+        private final long majorId;
+        private final long secondaryMajorId;
         private final String compiledRoute;
         private final boolean hasQueryParams;
+        // Cached by the rate-limiter, so the bucket of this route is not resolved again for every lookup
+        private volatile Object bucketKey;
 
-        private CompiledRoute(Route baseRoute, String compiledRoute, String major, boolean hasQueryParams)
+        private CompiledRoute(Route baseRoute, String compiledRoute, long majorId, long secondaryMajorId, boolean hasQueryParams)
         {
             this.baseRoute = baseRoute;
             this.compiledRoute = compiledRoute;
-            this.major = major;
+            this.majorId = majorId;
+            this.secondaryMajorId = secondaryMajorId;
             this.hasQueryParams = hasQueryParams;
         }
 
-        private CompiledRoute(Route baseRoute, String compiledRoute, String major)
-        {
-            this(baseRoute, compiledRoute, major, false);
-        }
-
         @Nonnull
         @CheckReturnValue
         public CompiledRoute withQueryParams(String... params)
@@ -469,19 +520,54 @@ public class Route
             Checks.check(params.length >= 2, "params length must be at least 2");
             Checks.check(params.length % 2 == 0, "params length must be a multiple of 2");
 
-            StringBuilder newRoute = new StringBuilder(compiledRoute);
+            int length = compiledRoute.length() + params.length;
+            for (String param : params)
+                length += param.length();
+            StringBuilder newRoute = new StringBuilder(length).append(compiledRoute);
 
             for (int i = 0; i < params.length; i++)
                 newRoute.append(!hasQueryParams && i == 0 ? '?' : '&').append(params[i]).append('=').append(params[++i]);
 
-            return new CompiledRoute(baseRoute, newRoute.toString(), major, true);
+            return new CompiledRoute(baseRoute, newRoute.toString(), majorId, secondaryMajorId, true);
         }
 
         public String getMajorParameters()
         {
+            String[] names = baseRoute.majorNames;
+            if (names.length == 0)
+                return "n/a";
+            String major = names[0] + "=" + Long.toUnsignedString(majorId);
+            if (names.length > 1)
+                major += ":" + names[1] + "=" + Long.toUnsignedString(secondaryMajorId);
             return major;
         }
 
+        /**
+         * The id of the first major parameter, such as the guild or channel id.
+         * <br>Parameters which are not snowflakes, like interaction tokens, are represented by their hash.
+         *
+         * @return The major id, or 0 if this route has no major parameters
+         */
+        public long getMajorId()
+        {
+            return majorId;
+        }
+
+        public long getSecondaryMajorId()
+        {
+            return secondaryMajorId;
+        }
+
+        public Object getBucketKey()
+        {
+            return bucketKey;
+        }
+
+        public void setBucketKey(Object bucketKey)
+        {
+            this.bucketKey = bucketKey;
+        }
+
         public String getCompiledRoute()
         {
             return compiledRoute;
@@ -500,7 +586,7 @@ public class Route
         @Override
         public int hashCode()
         {
-            return (compiledRoute + method.toString()).hashCode();
+            return 31 * compiledRoute.hashCode() + getMethod().hashCode();
         }
 
         @Override
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.Response;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carrier of identical GET requests which are in flight at the same time.
+ *
+ * <p>Only this carrier is queued in the rate limiter, the response is then handled by every request that joined it.
+ * Each request keeps its own callbacks, checks, deadline, and cancellation.
+ * The carrier is only skipped once every joined request has been skipped.
+ *
+ * @param <T>
+ *        The result type of the first request
+ */
+public class SingleFlightRequest<T> extends Request<T>
+{
+    private final Map<Route.CompiledRoute, SingleFlightRequest<?>> flights;
+    private final List<Request<?>> requests = new ArrayList<>();
+    private boolean closed = false;
+
+    public SingleFlightRequest(Request<T> first, Map<Route.CompiledRoute, SingleFlightRequest<?>> flights)
+    {
+        super((RestActionImpl<T>) first.getRestAction(), null, null, null, true, null, null, 0, first.isPriority(), first.getRoute(), null);
+        this.flights = flights;
+        this.requests.add(first);
+    }
+
+    public static boolean isEligible(Request<?> request)
+    {
+        return request.shouldQueue() && Requester.isPlainGet(request);
+    }
+
+    /**
+     * Adds the request to this flight, unless the response is already being handled.
+     *
+     * @param  request
+     *         The request to add
+     *
+     * @return True, if the request was added
+     */
+    public synchronized boolean join(Request<?> request)
+    {
+        if (closed)
+            return false;
+        requests.add(request);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isSkipped()
+    {
+        // Request#isSkipped already notifies the request about its cancellation or timeout
+        requests.removeIf(Request::isSkipped);
+        if (!requests.isEmpty())
+            return false;
+        close();
+        return true;
+    }
+
+    @Override
+    public synchronized void cancel()
+    {
+        requests.forEach(Request::cancel);
+    }
+
+    @Override
+    public synchronized boolean isCancelled()
+    {
+        return requests.stream().allMatch(Request::isCancelled);
+    }
+
+    @Override
+    public void onFailure(Throwable failException)
+    {
+        for (Request<?> request : close())
+            request.onFailure(failException);
+    }
+
+    @Override
+    public void handleResponse(@Nonnull Response response)
+    {
+        for (Request<?> request : close())
+        {
+            if (!request.isSkipped())
+                request.handleResponse(response);
+        }
+    }
+
+    private synchronized List<Request<?>> close()
+    {
+        // Requests for this route which arrive from now on start a new flight
+        closed = true;
+        flights.remove(getRoute(), this);
+        return new ArrayList<>(requests);
+    }
+}
@@ -30,6 +30,7 @@ import net.dv8tion.jda.api.events.session.*;
 import net.dv8tion.jda.api.exceptions.ParsingException;
 import net.dv8tion.jda.api.managers.AudioManager;
 import net.dv8tion.jda.api.requests.CloseCode;
+import net.dv8tion.jda.api.requests.RestResponseCache;
 import net.dv8tion.jda.api.utils.Compression;
 import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.SessionController;
@@ -48,6 +49,7 @@ import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.ShutdownReason;
 import net.dv8tion.jda.internal.utils.UnlockHook;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 import net.dv8tion.jda.internal.utils.compress.Decompressor;
 import net.dv8tion.jda.internal.utils.compress.ZlibDecompressor;
 import org.slf4j.Logger;
@@ -87,6 +89,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     protected final Compression compression;
     protected final int gatewayIntents;
     protected final MemberChunkManager chunkManager;
+    protected final MemberChunkScheduler chunkScheduler = new MemberChunkScheduler();
     protected final GatewayEncoding encoding;
 
     public WebSocket socket;
@@ -96,6 +99,10 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     protected String resumeUrl = null;
 
     protected final ReentrantLock queueLock = new ReentrantLock();
+    // Held while handling events, so tasks of the scheduler can run handlers as if they were on the gateway thread
+    protected final ReentrantLock eventLock = new ReentrantLock();
+    // Tasks which have to run while holding the event lock, see queueGatewayTask
+    protected final Queue<Runnable> gatewayTasks = new ConcurrentLinkedQueue<>();
     protected final ScheduledExecutorService executor;
     protected WebSocketSendingThread ratelimitThread;
     protected volatile Future<?> keepAliveThread;
@@ -180,6 +187,11 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         return chunkManager;
     }
 
+    public MemberChunkScheduler getChunkScheduler()
+    {
+        return chunkScheduler;
+    }
+
     public void ready()
     {
         if (initiating)
@@ -522,6 +534,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             if (decompressor != null)
                 decompressor.shutdown();
 
+            gatewayTasks.clear();
             api.shutdownInternals();
             api.handleEvent(new ShutdownEvent(api, OffsetDateTime.now(), rawCloseCode));
         }
@@ -770,20 +783,24 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
         locked("Interrupted while trying to invalidate chunk/sync queue", chunkSyncQueue::clear);
 
-        api.getTextChannelsView().clear();
-        api.getVoiceChannelsView().clear();
-        api.getCategoriesView().clear();
-        api.getNewsChannelView().clear();
-        api.getPrivateChannelsView().clear();
-        api.getStageChannelView().clear();
-        api.getThreadChannelsView().clear();
-        api.getForumChannelsView().clear();
+        // The message cache can be shared by all shards, so only the entries of this shard are removed
+        MessageCache messageCache = api.getMessageCache();
+        if (messageCache != null)
+        {
+            api.getGuildsView().forEachUnordered(guild -> messageCache.removeGuild(guild.getIdLong()));
+            api.getPrivateChannelsView().forEachUnordered(channel -> messageCache.removeChannel(channel.getIdLong()));
+        }
+
+        api.getChannelsView().clear();
 
+        api.getGuildsView().forEachUnordered(guild -> api.onGuildRemoved(guild.getIdLong()));
         api.getGuildsView().clear();
         api.getUsersView().clear();
+        api.getMutualGuildIndex().clear();
 
         api.getEventCache().clear();
         api.getGuildSetupController().clearCache();
+        this.<PresenceUpdateHandler>getHandler("PRESENCE_UPDATE").clearPending();
         chunkManager.clear();
 
         api.handleEvent(new SessionInvalidateEvent(api));
@@ -843,6 +860,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     protected void handleEvent(DataObject content)
     {
+        eventLock.lock();
         try
         {
             onEvent(content);
@@ -852,6 +870,81 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             LOG.error("Encountered exception on lifecycle level\nJSON: {}", content, ex);
             api.handleEvent(new ExceptionEvent(api, ex, true));
         }
+        finally
+        {
+            eventLock.unlock();
+        }
+        // Tasks queued while the event was handled
+        runGatewayTasks();
+    }
+
+    /**
+     * Runs the provided task while holding the event lock, like the handlers of gateway events.
+     * <br>If an event is handled right now, the task runs on the gateway thread once the event is done.
+     * Otherwise, it runs on the callback pool. This never blocks the calling thread.
+     *
+     * @param task
+     *        The task to run
+     */
+    public void queueGatewayTask(Runnable task)
+    {
+        gatewayTasks.add(task);
+        // The gateway thread runs the task once it releases the lock
+        if (eventLock.isHeldByCurrentThread())
+            return;
+        try
+        {
+            api.getCallbackPool().execute(this::runGatewayTasks);
+        }
+        catch (RejectedExecutionException ignored) {} // The task runs after the next event instead
+    }
+
+    protected void runGatewayTasks()
+    {
+        // If the lock is held by another thread, that thread runs the tasks after releasing it
+        while (!gatewayTasks.isEmpty() && eventLock.tryLock())
+        {
+            boolean wsThread = WS_THREAD.get();
+            WS_THREAD.set(true);
+            try
+            {
+                Runnable task;
+                while ((task = gatewayTasks.poll()) != null)
+                {
+                    try
+                    {
+                        task.run();
+                    }
+                    catch (Exception ex)
+                    {
+                        LOG.error("Encountered exception while running a gateway task", ex);
+                        api.handleEvent(new ExceptionEvent(api, ex, true));
+                    }
+                }
+            }
+            finally
+            {
+                WS_THREAD.set(wsThread);
+                eventLock.unlock();
+            }
+        }
+    }
+
+    public void schedulePresenceFlush(long delay)
+    {
+        if (executor.isShutdown())
+            return;
+        try
+        {
+            // The gateway pool also sends heartbeats, so it only hands the flush off instead of waiting for the event lock
+            executor.schedule(() -> queueGatewayTask(this::flushPresences), delay, TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException ignored) {}
+    }
+
+    protected void flushPresences()
+    {
+        this.<PresenceUpdateHandler>getHandler("PRESENCE_UPDATE").onScheduledFlush();
     }
 
     protected void onEvent(DataObject content)
@@ -906,6 +999,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             default:
                 LOG.debug("Got unknown op-code: {} with content: {}", opCode, content);
         }
+
+        // Coalesced presence updates have to be handled while holding the event lock, like every other event
+        this.<PresenceUpdateHandler>getHandler("PRESENCE_UPDATE").flushPending();
     }
 
     protected void onDispatch(DataObject raw)
@@ -979,6 +1075,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                         LOG.debug("Ignoring {} for unavailable guild with id {}. JSON: {}", type, guildId, content);
                         break;
                     }
+                    invalidateResponses(type, content);
                     SocketHandler handler = handlers.get(type);
                     if (handler != null)
                         handler.handle(responseTotal, raw);
@@ -1004,6 +1101,36 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             jda.getEventCache().timeout(responseTotal);
     }
 
+    protected void invalidateResponses(String type, DataObject content)
+    {
+        RestResponseCache cache = api.getResponseCache();
+        if (cache == null)
+            return;
+
+        switch (type)
+        {
+            case "GUILD_UPDATE":
+            case "GUILD_DELETE":
+                cache.invalidate(content.getUnsignedLong("id"));
+                break;
+            case "GUILD_EMOJIS_UPDATE":
+            case "GUILD_STICKERS_UPDATE":
+            case "GUILD_BAN_ADD":
+            case "GUILD_BAN_REMOVE":
+            case "APPLICATION_COMMAND_PERMISSIONS_UPDATE":
+                cache.invalidate(content.getUnsignedLong("guild_id"));
+                break;
+            case "WEBHOOKS_UPDATE":
+            case "INVITE_CREATE":
+            case "INVITE_DELETE":
+                // Both the guild and channel routes list these
+                cache.invalidate(content.getUnsignedLong("channel_id"));
+                if (!content.isNull("guild_id"))
+                    cache.invalidate(content.getUnsignedLong("guild_id"));
+                break;
+        }
+    }
+
     @Override
     public void onTextMessage(WebSocket websocket, byte[] data)
     {
@@ -94,7 +94,9 @@ class WebSocketSendingThread implements Runnable
     {
         if (shutdown)
             return;
-        handle = executor.schedule(this, 1, TimeUnit.MINUTES);
+        // Resume as soon as the current window resets
+        long delay = Math.max(0, client.ratelimitResetTime - System.currentTimeMillis());
+        handle = executor.schedule(this, delay, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -132,8 +134,13 @@ class WebSocketSendingThread implements Runnable
                 handleChunkSync(chunkRequest);
             else if (audioRequest != null)
                 handleAudioRequest(audioRequest);
-            else
+            else if (!ratelimitQueue.isEmpty())
                 handleNormalRequest();
+            else
+            {
+                // Setup chunk requests are paced by the scheduler and must not delay voice connects or other queued requests
+                handleSetupChunk();
+            }
         }
         catch (InterruptedException ignored)
         {
@@ -200,6 +207,25 @@ class WebSocketSendingThread implements Runnable
             chunkQueue.remove();
     }
 
+    private void handleSetupChunk()
+    {
+        MemberChunkScheduler scheduler = client.getChunkScheduler();
+        // The counter is only reset on the next send, so it is stale once the rate limit window has passed
+        int messagesSent = client.ratelimitResetTime <= System.currentTimeMillis() ? 0 : client.messagesSent.get();
+        DataObject request = scheduler.next(messagesSent);
+        if (request == null)
+            return;
+        LOG.debug("Sending setup chunk request {}", request);
+        boolean success = send(
+            DataObject.empty()
+                .put("op", WebSocketCode.MEMBER_CHUNK_REQUEST)
+                .put("d", request)
+        );
+
+        if (success)
+            scheduler.markSent(request.getUnsignedLong("guild_id"));
+    }
+
     private void handleAudioRequest(ConnectionRequest audioRequest)
     {
         long channelId = audioRequest.getChannelId();
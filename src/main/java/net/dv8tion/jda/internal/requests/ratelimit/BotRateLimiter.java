@@ -16,8 +16,8 @@
 
 package net.dv8tion.jda.internal.requests.ratelimit;
 
+import net.dv8tion.jda.api.requests.RateLimitStore;
 import net.dv8tion.jda.api.requests.Request;
-import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.internal.requests.RateLimiter;
 import net.dv8tion.jda.internal.requests.Requester;
 import net.dv8tion.jda.internal.requests.Route;
@@ -26,8 +26,8 @@ import org.jetbrains.annotations.Contract;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantLock;
 
 /*
 
@@ -38,18 +38,20 @@ A bucket is determined via the Path+Method+Major in the following way:
     1. Get Hash from Path+Method (we call this route)
     2. Get bucket from Hash+Major (we call this bucketid)
 
-If no hash is known we default to the constant "unlimited" hash. The hash is loaded from HTTP responses using the "X-RateLimit-Bucket" response header.
+If no hash is known we default to an "unlimited" hash for the route. The hash is loaded from HTTP responses using the "X-RateLimit-Bucket" response header.
 This hash is per Method+Path and can be stored indefinitely once received.
 Some endpoints don't return a hash, this means that the endpoint is **unlimited** and will be in queue with only the major parameter.
 
 To explain this further, lets look at the example of message history. The endpoint to fetch message history is "GET/channels/{channel.id}/messages".
 This endpoint does not have any rate limit (unlimited) and will thus use the hash "unlimited+GET/channels/{channel.id}/messages".
-The bucket id for this will be "unlimited+GET/channels/{channel.id}/messages:guild_id:{channel.id}:webhook_id" where "{channel.id}" would be replaced with the respective id.
+The bucket id for this will be "unlimited+GET/channels/{channel.id}/messages:{channel.id}" where "{channel.id}" would be replaced with the respective id.
 This means you can fetch history concurrently for multiple channels but it will be in sequence for the same channel.
 
 If the endpoint is not unlimited we will receive a hash on the first response.
 Once this happens every unlimited bucket will start moving its queue to the correct bucket.
 This is done during the queue work iteration so many requests to one endpoint would be moved correctly.
+If a RateLimitStore is configured, the hashes and limits learned in a previous session are loaded on startup,
+so the first requests are placed into their correct buckets right away.
 
 For example, the first message sending:
 
@@ -60,10 +62,21 @@ For example, the first message sending:
       }
     }
 
-This will send 100 messages on startup. At this point we don't yet know the hash for this route so we put them all in "unlimited+POST/channels/{channel.id}/messages:guild_id:123:webhook_id".
+This will send 100 messages on startup. At this point we don't yet know the hash for this route so we put them all in "unlimited+POST/channels/{channel.id}/messages:123".
 The bucket iterates the requests in sync and gets the first response. This response provides the hash for this route and we create a bucket for it.
 Once the response is handled we continue with the next request in the unlimited bucket and notice the new bucket. We then move all related requests to this bucket.
 
+Bucket ids are not built as strings. A BucketKey holds the hash (or the route itself while the hash is unknown)
+and the major parameters of the compiled route as primitive ids. The key is cached on the compiled route,
+so resolving the bucket of a request only allocates once, and not for every lookup.
+
+** Concurrency **
+
+There is no global lock. Buckets are created, filled, and removed through atomic operations on the bucket map,
+which only lock the map entry of that bucket id. Each bucket has a scheduled flag, a bucket worker is only scheduled
+by whoever flips it, and the worker clears it before checking its queue one last time. The rate limit state of a bucket
+is guarded by the bucket itself, since the worker of an unlimited bucket can update the bucket it is migrating to.
+
  */
 public class BotRateLimiter extends RateLimiter
 {
@@ -74,17 +87,18 @@ public class BotRateLimiter extends RateLimiter
     private static final String GLOBAL_HEADER = "X-RateLimit-Global";
     private static final String HASH_HEADER = "X-RateLimit-Bucket";
     private static final String RETRY_AFTER_HEADER = "Retry-After";
-    private static final String UNLIMITED_BUCKET = "unlimited"; // we generate an unlimited bucket for every major parameter configuration
 
-    private final ReentrantLock bucketLock = new ReentrantLock();
     // Route -> Should we print warning for 429? AKA did we already hit it once before
     private final Set<Route> hitRatelimit = ConcurrentHashMap.newKeySet(5);
     // Route -> Hash
     private final Map<Route, String> hashes = new ConcurrentHashMap<>();
+    // Hash -> Last known limit, only tracked for the RateLimitStore
+    private final Map<String, Integer> limits = new ConcurrentHashMap<>();
+    // Whether the hashes or limits changed since the last snapshot was saved
+    private volatile boolean snapshotChanged = false;
     // Hash + Major Parameter -> Bucket
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
-    // Bucket -> Rate-Limit Worker
-    private final Map<Bucket, Future<?>> rateLimitQueue = new ConcurrentHashMap<>();
+    private final ConcurrentMap<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean requesterShutdown = new AtomicBoolean();
     private Future<?> cleanupWorker;
 
     public BotRateLimiter(Requester requester)
@@ -95,6 +109,7 @@ public class BotRateLimiter extends RateLimiter
     @Override
     public void init()
     {
+        loadSnapshot();
         cleanupWorker = getScheduler().scheduleAtFixedRate(this::cleanup, 30, 30, TimeUnit.SECONDS);
     }
 
@@ -106,91 +121,107 @@ public class BotRateLimiter extends RateLimiter
     @Override
     public int cancelRequests()
     {
-        return MiscUtil.locked(bucketLock, () -> {
-            // Empty buckets will be removed by the cleanup worker, which also checks for rate limit parameters
-            AtomicInteger count = new AtomicInteger(0);
-            buckets.values()
-                .stream()
-                .map(Bucket::getRequests)
-                .flatMap(Collection::stream)
-                .filter(request -> !request.isPriority() && !request.isCancelled())
-                .forEach(request -> {
-                    request.cancel();
-                    count.incrementAndGet();
-                });
-
-            int cancelled = count.get();
-            if (cancelled == 1)
-                RateLimiter.log.warn("Cancelled 1 request!");
-            else if (cancelled > 1)
-                RateLimiter.log.warn("Cancelled {} requests!", cancelled);
-            return cancelled;
-        });
+        // Empty buckets will be removed by the cleanup worker, which also checks for rate limit parameters
+        AtomicInteger count = new AtomicInteger(0);
+        buckets.values()
+            .stream()
+            .map(Bucket::getRequests)
+            .flatMap(Collection::stream)
+            .filter(request -> !request.isPriority() && !request.isCancelled())
+            .forEach(request -> {
+                request.cancel();
+                count.incrementAndGet();
+            });
+
+        int cancelled = count.get();
+        if (cancelled == 1)
+            RateLimiter.log.warn("Cancelled 1 request!");
+        else if (cancelled > 1)
+            RateLimiter.log.warn("Cancelled {} requests!", cancelled);
+        return cancelled;
     }
 
     private void cleanup()
     {
         // This will remove buckets that are no longer needed every 30 seconds to avoid memory leakage
         // We will keep the hashes in memory since they are very limited (by the amount of possible routes)
-        MiscUtil.locked(bucketLock, () -> {
-            int size = buckets.size();
-            Iterator<Map.Entry<String, Bucket>> entries = buckets.entrySet().iterator();
-
-            while (entries.hasNext())
-            {
-                Map.Entry<String, Bucket> entry = entries.next();
-                String key = entry.getKey();
-                Bucket bucket = entry.getValue();
+        int size = buckets.size();
+        for (BucketKey key : buckets.keySet())
+        {
+            // This only locks the entry of this bucket, which prevents concurrent enqueues while we check it
+            buckets.computeIfPresent(key, (k, bucket) -> {
                 // Remove cancelled requests
                 bucket.requests.removeIf(Request::isSkipped);
+                return bucket.isExpired() ? null : bucket;
+            });
+        }
+        // Log how many buckets were removed
+        size -= buckets.size();
+        if (size > 0)
+            log.debug("Removed {} expired buckets", size);
+        saveSnapshot();
+    }
 
-                // Check if the bucket is empty
-                if (bucket.isUnlimited() && bucket.requests.isEmpty())
-                    entries.remove(); // remove unlimited if requests are empty
-                // If the requests of the bucket are drained and the reset is expired the bucket has no valuable information
-                else if (bucket.requests.isEmpty() && bucket.reset <= getNow())
-                    entries.remove();
-                // Remove empty buckets when the rate limiter is stopped
-                else if (bucket.requests.isEmpty() && isStopped)
-                    entries.remove();
-            }
-            // Log how many buckets were removed
-            size -= buckets.size();
-            if (size > 0)
-                log.debug("Removed {} expired buckets", size);
+    private void loadSnapshot()
+    {
+        RateLimitStore store = requester.getJDA().getRateLimitStore();
+        if (store == null)
+            return;
+
+        RateLimitStore.Snapshot snapshot = store.load();
+        snapshot.getHashes().forEach((key, hash) -> {
+            Route route = RateLimitStore.Snapshot.parseKey(key);
+            if (route == null)
+                log.debug("Ignoring invalid route {} in rate-limit snapshot", key);
+            else
+                hashes.putIfAbsent(route, hash);
         });
+        limits.putAll(snapshot.getLimits());
+        log.debug("Loaded {} bucket hashes from rate-limit snapshot", hashes.size());
     }
 
-    private String getRouteHash(Route route)
+    private void saveSnapshot()
     {
-        return hashes.getOrDefault(route, UNLIMITED_BUCKET + "+" + route);
+        RateLimitStore store = requester.getJDA().getRateLimitStore();
+        if (store == null || !snapshotChanged)
+            return;
+        snapshotChanged = false;
+
+        Map<String, String> hashes = new HashMap<>();
+        this.hashes.forEach((route, hash) -> hashes.put(RateLimitStore.Snapshot.toKey(route), hash));
+        try
+        {
+            store.save(new RateLimitStore.Snapshot(hashes, new HashMap<>(limits)));
+        }
+        catch (Exception e)
+        {
+            log.error("Failed to save rate-limit snapshot", e);
+        }
     }
 
     @Override
-    protected boolean stop()
+    protected synchronized boolean stop()
     {
-        return MiscUtil.locked(bucketLock, () -> {
-            if (isStopped)
-                return false;
-            super.stop();
-            if (cleanupWorker != null)
-                cleanupWorker.cancel(false);
-            cleanup();
-            int size = buckets.size();
-            if (!isShutdown && size > 0) // Tell user about active buckets so they don't get confused by the longer shutdown
-            {
-                int average = (int) Math.ceil(
-                        buckets.values().stream()
-                            .map(Bucket::getRequests)
-                            .mapToInt(Collection::size)
-                            .average().orElse(0)
-                );
-
-                log.info("Waiting for {} bucket(s) to finish. Average queue size of {} requests", size, average);
-            }
-            // No more requests to process?
-            return size < 1;
-        });
+        if (isStopped)
+            return false;
+        super.stop();
+        if (cleanupWorker != null)
+            cleanupWorker.cancel(false);
+        cleanup();
+        int size = buckets.size();
+        if (!isShutdown && size > 0) // Tell user about active buckets so they don't get confused by the longer shutdown
+        {
+            int average = (int) Math.ceil(
+                    buckets.values().stream()
+                        .map(Bucket::getRequests)
+                        .mapToInt(Collection::size)
+                        .average().orElse(0)
+            );
+
+            log.info("Waiting for {} bucket(s) to finish. Average queue size of {} requests", size, average);
+        }
+        // No more requests to process?
+        return size < 1;
     }
 
     @Override
@@ -205,126 +236,152 @@ public class BotRateLimiter extends RateLimiter
     protected void queueRequest(Request request)
     {
         // Create bucket and enqueue request
-        MiscUtil.locked(bucketLock, () -> {
-            Bucket bucket = getBucket(request.getRoute(), true);
-            bucket.enqueue(request);
-            runBucket(bucket);
-        });
+        runBucket(enqueue(getBucketKey(request.getRoute()), request));
     }
 
     @Override
     protected Long handleResponse(Route.CompiledRoute route, okhttp3.Response response)
     {
-        return MiscUtil.locked(bucketLock, () -> {
-            long rateLimit = updateBucket(route, response).getRateLimit();
-            if (response.code() == 429)
-                return rateLimit;
-            else
-                return null;
-        });
+        long rateLimit = updateBucket(route, response).getRateLimit();
+        if (response.code() == 429)
+            return rateLimit;
+        else
+            return null;
     }
 
     private Bucket updateBucket(Route.CompiledRoute route, okhttp3.Response response)
     {
-        return MiscUtil.locked(bucketLock, () -> {
-            try
-            {
-                Bucket bucket = getBucket(route, true);
-                Headers headers = response.headers();
+        try
+        {
+            Headers headers = response.headers();
 
-                boolean global = headers.get(GLOBAL_HEADER) != null;
-                boolean cloudflare = headers.get("via") == null;
-                String hash = headers.get(HASH_HEADER);
-                long now = getNow();
+            boolean global = headers.get(GLOBAL_HEADER) != null;
+            boolean cloudflare = headers.get("via") == null;
+            String hash = headers.get(HASH_HEADER);
+            long now = getNow();
 
-                // Create a new bucket for the hash if needed
-                Route baseRoute = route.getBaseRoute();
-                if (hash != null)
-                {
-                    if (!this.hashes.containsKey(baseRoute))
-                    {
-                        this.hashes.put(baseRoute, hash);
-                        log.debug("Caching bucket hash {} -> {}", baseRoute, hash);
-                    }
+            // Create a new bucket for the hash if needed, queued requests are moved to it by the worker of the unlimited bucket
+            // The hash of a route can change, for instance if it was loaded from an outdated snapshot
+            Route baseRoute = route.getBaseRoute();
+            String previousHash = hash == null ? null : this.hashes.put(baseRoute, hash);
+            if (hash != null && !hash.equals(previousHash))
+            {
+                if (previousHash == null)
+                    log.debug("Caching bucket hash {} -> {}", baseRoute, hash);
+                else
+                    log.debug("Replacing bucket hash {} -> {} with {}", baseRoute, previousHash, hash);
+                snapshotChanged = true;
+            }
 
-                    bucket = getBucket(route, true);
+            Bucket bucket = getBucket(route, true);
+            if (response.code() == 429)
+            {
+                String retryAfterHeader = headers.get(RETRY_AFTER_HEADER);
+                long retryAfter = parseLong(retryAfterHeader) * 1000; // seconds precision
+                // Handle global rate limit if necessary
+                if (global)
+                {
+                    requester.getJDA().getSessionController().setGlobalRatelimit(now + retryAfter);
+                    log.error("Encountered global rate limit! Retry-After: {} ms", retryAfter);
                 }
-
-                if (response.code() == 429)
+                // Handle cloudflare rate limits, this applies to all routes and uses seconds for retry-after
+                else if (cloudflare)
                 {
-                    String retryAfterHeader = headers.get(RETRY_AFTER_HEADER);
-                    long retryAfter = parseLong(retryAfterHeader) * 1000; // seconds precision
-                    // Handle global rate limit if necessary
-                    if (global)
-                    {
-                        requester.getJDA().getSessionController().setGlobalRatelimit(now + retryAfter);
-                        log.error("Encountered global rate limit! Retry-After: {} ms", retryAfter);
-                    }
-                    // Handle cloudflare rate limits, this applies to all routes and uses seconds for retry-after
-                    else if (cloudflare)
-                    {
-                        requester.getJDA().getSessionController().setGlobalRatelimit(now + retryAfter);
-                        log.error("Encountered cloudflare rate limit! Retry-After: {} s", retryAfter / 1000);
-                    }
-                    // Handle hard rate limit, pretty much just log that it happened
-                    else
+                    requester.getJDA().getSessionController().setGlobalRatelimit(now + retryAfter);
+                    log.error("Encountered cloudflare rate limit! Retry-After: {} s", retryAfter / 1000);
+                }
+                // Handle hard rate limit, pretty much just log that it happened
+                else
+                {
+                    boolean firstHit = hitRatelimit.add(baseRoute) && retryAfter < 60000;
+                    // Update the bucket to the new information
+                    synchronized (bucket)
                     {
-                        boolean firstHit = hitRatelimit.add(baseRoute) && retryAfter < 60000;
-                        // Update the bucket to the new information
                         bucket.remaining = 0;
                         bucket.reset = getNow() + retryAfter;
-                        // don't log warning if we hit the rate limit for the first time, likely due to initialization of the bucket
-                        // unless its a long retry-after delay (more than a minute)
-                        if (firstHit)
-                            log.debug("Encountered 429 on route {} with bucket {} Retry-After: {} ms", baseRoute, bucket.bucketId, retryAfter);
-                        else
-                            log.warn("Encountered 429 on route {} with bucket {} Retry-After: {} ms", baseRoute, bucket.bucketId, retryAfter);
                     }
-                    return bucket;
+                    // don't log warning if we hit the rate limit for the first time, likely due to initialization of the bucket
+                    // unless its a long retry-after delay (more than a minute)
+                    if (firstHit)
+                        log.debug("Encountered 429 on route {} with bucket {} Retry-After: {} ms", baseRoute, bucket.bucketId, retryAfter);
+                    else
+                        log.warn("Encountered 429 on route {} with bucket {} Retry-After: {} ms", baseRoute, bucket.bucketId, retryAfter);
                 }
+                return bucket;
+            }
 
-                // If hash is null this means we didn't get enough information to update a bucket
-                if (hash == null)
-                    return bucket;
+            // If hash is null this means we didn't get enough information to update a bucket
+            if (hash == null)
+                return bucket;
 
-                // Update the bucket parameters with new information
-                String limitHeader = headers.get(LIMIT_HEADER);
-                String remainingHeader = headers.get(REMAINING_HEADER);
-                String resetAfterHeader = headers.get(RESET_AFTER_HEADER);
-                String resetHeader = headers.get(RESET_HEADER);
+            // Update the bucket parameters with new information
+            String limitHeader = headers.get(LIMIT_HEADER);
+            String remainingHeader = headers.get(REMAINING_HEADER);
+            String resetAfterHeader = headers.get(RESET_AFTER_HEADER);
+            String resetHeader = headers.get(RESET_HEADER);
 
+            synchronized (bucket)
+            {
                 bucket.limit = (int) Math.max(1L, parseLong(limitHeader));
+                // The limit is stored for the hash of this bucket, which is used to look it up once the bucket is created again
+                if (requester.getJDA().getRateLimitStore() != null && !bucket.isUnlimited()
+                        && !Objects.equals(limits.put((String) bucket.bucketId.hash, bucket.limit), bucket.limit))
+                    snapshotChanged = true;
                 bucket.remaining = (int) parseLong(remainingHeader);
                 if (requester.getJDA().isRelativeRateLimit())
                     bucket.reset = now + parseDouble(resetAfterHeader);
                 else
                     bucket.reset = parseDouble(resetHeader);
                 log.trace("Updated bucket {} to ({}/{}, {})", bucket.bucketId, bucket.remaining, bucket.limit, bucket.reset - now);
-                return bucket;
-            }
-            catch (Exception e)
-            {
-                Bucket bucket = getBucket(route, true);
-                log.error("Encountered Exception while updating a bucket. Route: {} Bucket: {} Code: {} Headers:\n{}",
-                        route.getBaseRoute(), bucket, response.code(), response.headers(), e);
-                return bucket;
             }
-        });
+            return bucket;
+        }
+        catch (Exception e)
+        {
+            Bucket bucket = getBucket(route, true);
+            log.error("Encountered Exception while updating a bucket. Route: {} Bucket: {} Code: {} Headers:\n{}",
+                    route.getBaseRoute(), bucket, response.code(), response.headers(), e);
+            return bucket;
+        }
+    }
+
+    private BucketKey getBucketKey(Route.CompiledRoute route)
+    {
+        // Retrieve the hash via the route, unlimited routes are identified by the route itself
+        Route baseRoute = route.getBaseRoute();
+        Object hash = hashes.get(baseRoute);
+        if (hash == null)
+            hash = baseRoute;
+
+        // The cached key is only valid as long as the hash didn't change
+        Object cached = route.getBucketKey();
+        if (cached instanceof BucketKey && ((BucketKey) cached).hash == hash)
+            return (BucketKey) cached;
+
+        // Bucket is identified by the hash + major parameters
+        BucketKey key = new BucketKey(hash, route.getMajorId(), route.getSecondaryMajorId());
+        route.setBucketKey(key);
+        return key;
     }
 
     @Contract("_,true->!null")
     private Bucket getBucket(Route.CompiledRoute route, boolean create)
     {
-        return MiscUtil.locked(bucketLock, () ->
-        {
-            // Retrieve the hash via the route
-            String hash = getRouteHash(route.getBaseRoute());
-            // Get or create a bucket for the hash + major parameters
-            String bucketId = hash + ":" + route.getMajorParameters();
-            Bucket bucket = this.buckets.get(bucketId);
-            if (bucket == null && create)
-                this.buckets.put(bucketId, bucket = new Bucket(bucketId));
+        BucketKey key = getBucketKey(route);
+        Bucket bucket = this.buckets.get(key);
+        if (bucket == null && create)
+            bucket = this.buckets.computeIfAbsent(key, Bucket::new);
+        return bucket;
+    }
 
+    @SuppressWarnings("rawtypes")
+    private Bucket enqueue(BucketKey key, Request request)
+    {
+        // Adding the request while holding the map entry ensures the cleanup can't remove the bucket in between
+        return this.buckets.compute(key, (k, bucket) -> {
+            if (bucket == null)
+                bucket = new Bucket(k);
+            bucket.enqueue(request);
             return bucket;
         });
     }
@@ -334,9 +391,8 @@ public class BotRateLimiter extends RateLimiter
         if (isShutdown)
             return;
         // Schedule a new bucket worker if no worker is running
-        MiscUtil.locked(bucketLock, () ->
-            rateLimitQueue.computeIfAbsent(bucket,
-                (k) -> getScheduler().schedule(bucket, bucket.getRateLimit(), TimeUnit.MILLISECONDS)));
+        if (bucket.scheduled.compareAndSet(false, true))
+            getScheduler().schedule(bucket, bucket.getRateLimit(), TimeUnit.MILLISECONDS);
     }
 
     private long parseLong(String input)
@@ -359,16 +415,22 @@ public class BotRateLimiter extends RateLimiter
     @SuppressWarnings("rawtypes")
     private class Bucket implements IBucket, Runnable
     {
-        private final String bucketId;
+        private final BucketKey bucketId;
         private final Deque<Request> requests = new ConcurrentLinkedDeque<>();
+        // Whether a worker is scheduled or running for this bucket
+        private final AtomicBoolean scheduled = new AtomicBoolean();
 
-        private long reset = 0;
-        private int remaining = 1;
-        private int limit = 1;
+        private volatile long reset = 0;
+        private volatile int remaining = 1;
+        private volatile int limit = 1;
 
-        public Bucket(String bucketId)
+        public Bucket(BucketKey bucketId)
         {
             this.bucketId = bucketId;
+            // Start with the limit of the previous session, the remaining uses are only known after the first response
+            Integer limit = bucketId.isUnlimited() ? null : limits.get((String) bucketId.hash);
+            if (limit != null)
+                this.limit = limit;
         }
 
         public void enqueue(Request request)
@@ -386,7 +448,7 @@ public class BotRateLimiter extends RateLimiter
             return requester.getJDA().getSessionController().getGlobalRatelimit() > getNow();
         }
 
-        public long getRateLimit()
+        public synchronized long getRateLimit()
         {
             long now = getNow();
             long global = requester.getJDA().getSessionController().getGlobalRatelimit();
@@ -422,21 +484,29 @@ public class BotRateLimiter extends RateLimiter
 
         private boolean isUnlimited()
         {
-            return bucketId.startsWith("unlimited");
+            return bucketId.isUnlimited();
+        }
+
+        // Called with the map entry of this bucket locked
+        private boolean isExpired()
+        {
+            if (!requests.isEmpty() || scheduled.get())
+                return false;
+            // Unlimited buckets and buckets with an expired reset have no valuable information, all buckets are removed once stopped
+            return isUnlimited() || reset <= getNow() || isStopped;
         }
 
         private void backoff()
         {
+            // Allow a new worker to be scheduled, this has to happen before checking the queue to not miss a concurrent enqueue
+            scheduled.set(false);
             // Schedule backoff if requests are not done
-            MiscUtil.locked(bucketLock, () -> {
-                rateLimitQueue.remove(this);
-                if (!requests.isEmpty())
-                    runBucket(this);
-                else if (isStopped)
-                    buckets.remove(bucketId);
-                if (isStopped && buckets.isEmpty())
-                    requester.getJDA().shutdownRequester();
-            });
+            if (!requests.isEmpty())
+                runBucket(this);
+            else if (isStopped)
+                buckets.computeIfPresent(bucketId, (k, bucket) -> bucket.requests.isEmpty() && !bucket.scheduled.get() ? null : bucket);
+            if (isStopped && buckets.isEmpty() && requesterShutdown.compareAndSet(false, true))
+                requester.getJDA().shutdownRequester();
         }
 
         @Override
@@ -462,18 +532,26 @@ public class BotRateLimiter extends RateLimiter
                     continue;
                 if (isUnlimited())
                 {
-                    boolean shouldSkip = MiscUtil.locked(bucketLock, () -> {
-                        // Attempt moving request to correct bucket if it has been created
-                        Bucket bucket = getBucket(request.getRoute(), true);
-                        if (bucket != this)
-                        {
-                            bucket.enqueue(request);
-                            runBucket(bucket);
-                            return true;
-                        }
-                        return false;
-                    });
-                    if (shouldSkip) continue;
+                    // Attempt moving request to correct bucket if the hash is known by now
+                    BucketKey targetId = getBucketKey(request.getRoute());
+                    if (!targetId.equals(bucketId))
+                    {
+                        runBucket(BotRateLimiter.this.enqueue(targetId, request));
+                        continue;
+                    }
+                }
+
+                if (requester.getJDA().isAsyncRequests())
+                {
+                    // The worker stays scheduled until the response is handled, which then continues with the next request
+                    requester.executeAsync(request).whenCompleteAsync((retryAfter, ex) -> {
+                        if (ex != null)
+                            log.error("Encountered exception trying to execute request", ex);
+                        else if (retryAfter != null)
+                            retry(request);
+                        run();
+                    }, getScheduler());
+                    return;
                 }
 
                 try
@@ -503,7 +581,53 @@ public class BotRateLimiter extends RateLimiter
         @Override
         public String toString()
         {
-            return bucketId;
+            return bucketId.toString();
+        }
+    }
+
+    private static final class BucketKey
+    {
+        // Either the hash string or the route, if the hash is not known yet
+        private final Object hash;
+        private final long majorId;
+        private final long secondaryMajorId;
+        private final int hashCode;
+
+        private BucketKey(Object hash, long majorId, long secondaryMajorId)
+        {
+            this.hash = hash;
+            this.majorId = majorId;
+            this.secondaryMajorId = secondaryMajorId;
+            this.hashCode = 31 * (31 * hash.hashCode() + Long.hashCode(majorId)) + Long.hashCode(secondaryMajorId);
+        }
+
+        private boolean isUnlimited()
+        {
+            return hash instanceof Route;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (obj == this)
+                return true;
+            if (!(obj instanceof BucketKey))
+                return false;
+            BucketKey other = (BucketKey) obj;
+            return majorId == other.majorId && secondaryMajorId == other.secondaryMajorId && hash.equals(other.hash);
+        }
+
+        @Override
+        public String toString()
+        {
+            String id = isUnlimited() ? "unlimited+" + hash : hash.toString();
+            return id + ":" + Long.toUnsignedString(majorId) + (secondaryMajorId == 0 ? "" : ":" + Long.toUnsignedString(secondaryMajorId));
         }
     }
 }
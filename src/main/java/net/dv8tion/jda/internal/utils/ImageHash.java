@@ -0,0 +1,166 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.utils;
+
+/**
+ * Immutable image hash, such as an avatar id, encoded as two longs.
+ *
+ * <p>Discord image hashes are 32 lowercase hex digits, with an {@code a_} prefix for animated images.
+ * Keeping those as primitives avoids holding a {@link String} and its backing array for every cached user and member.
+ * Hashes that don't follow this format are kept as {@link #RAW} strings.
+ * The string form is created for every call to {@link #toString()} and not kept,
+ * since caching it would hold the string in addition to the encoded hash.
+ *
+ * <p>Since instances are immutable, entities update their hash with a single field write,
+ * which means a concurrent reader never observes a partially updated hash.
+ */
+public final class ImageHash
+{
+    public static final byte NONE = 0;
+    public static final byte STATIC = 1;
+    public static final byte ANIMATED = 2;
+    public static final byte RAW = 3;
+
+    private static final String ANIMATED_PREFIX = "a_";
+    private static final int HEX_LENGTH = 32;
+
+    private final byte type;
+    private final long high, low;
+    // Only set for raw hashes
+    private final String string;
+
+    private ImageHash(byte type, long high, long low, String string)
+    {
+        this.type = type;
+        this.high = high;
+        this.low = low;
+        this.string = string;
+    }
+
+    /**
+     * Encodes the provided hash.
+     *
+     * @param  hash
+     *         The image hash, or null
+     *
+     * @return The encoded hash, or null if the provided hash is null
+     */
+    public static ImageHash of(String hash)
+    {
+        byte type = getType(hash);
+        switch (type)
+        {
+            case NONE:
+                return null;
+            case RAW:
+                return new ImageHash(type, 0, 0, hash);
+            default:
+                return new ImageHash(type, getHigh(hash), getLow(hash), null);
+        }
+    }
+
+    public static String toString(ImageHash hash)
+    {
+        return hash == null ? null : hash.toString();
+    }
+
+    public byte getType()
+    {
+        return type;
+    }
+
+    @Override
+    public String toString()
+    {
+        return type == RAW ? string : toString(type, high, low);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return type == RAW ? string.hashCode() : Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (obj == this)
+            return true;
+        if (!(obj instanceof ImageHash))
+            return false;
+        ImageHash other = (ImageHash) obj;
+        if (type != other.type)
+            return false;
+        return type == RAW ? string.equals(other.string) : high == other.high && low == other.low;
+    }
+
+    public static byte getType(String hash)
+    {
+        if (hash == null)
+            return NONE;
+        int offset = hash.startsWith(ANIMATED_PREFIX) ? ANIMATED_PREFIX.length() : 0;
+        if (hash.length() - offset != HEX_LENGTH)
+            return RAW;
+        for (int i = offset; i < hash.length(); i++)
+        {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f'))
+                return RAW;
+        }
+        return offset == 0 ? STATIC : ANIMATED;
+    }
+
+    public static long getHigh(String hash)
+    {
+        return parse(hash, hash.length() - HEX_LENGTH);
+    }
+
+    public static long getLow(String hash)
+    {
+        return parse(hash, hash.length() - HEX_LENGTH / 2);
+    }
+
+    public static String toString(byte type, long high, long low)
+    {
+        if (type != STATIC && type != ANIMATED)
+            return null;
+        int offset = type == ANIMATED ? ANIMATED_PREFIX.length() : 0;
+        char[] chars = new char[offset + HEX_LENGTH];
+        ANIMATED_PREFIX.getChars(0, offset, chars, 0);
+        write(chars, offset, high);
+        write(chars, offset + HEX_LENGTH / 2, low);
+        return new String(chars);
+    }
+
+    private static long parse(String hash, int start)
+    {
+        long value = 0;
+        for (int i = start; i < start + HEX_LENGTH / 2; i++)
+            value = (value << 4) | Character.digit(hash.charAt(i), 16);
+        return value;
+    }
+
+    private static void write(char[] chars, int offset, long value)
+    {
+        for (int i = offset + HEX_LENGTH / 2 - 1; i >= offset; i--)
+        {
+            chars[i] = Character.forDigit((int) (value & 0xF), 16);
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.utils;
+
+import net.dv8tion.jda.api.entities.GuildVoiceState;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Implemented by members which only create their voice state once they connect to an audio channel.
+ * <br>The static helpers check the voice state of any member, without creating it.
+ */
+public interface LazyVoiceState
+{
+    /**
+     * The voice state of this member, without creating it.
+     *
+     * @return The voice state, or null if the member has never been connected
+     */
+    @Nullable
+    GuildVoiceState getVoiceStateIfPresent();
+
+    /**
+     * Whether voice states are cached for this member.
+     *
+     * @return True, if voice states are cached
+     */
+    boolean isVoiceStateCached();
+
+    @Nullable
+    static GuildVoiceState getVoiceStateIfPresent(@Nonnull Member member)
+    {
+        return member instanceof LazyVoiceState ? ((LazyVoiceState) member).getVoiceStateIfPresent() : member.getVoiceState();
+    }
+
+    static boolean isVoiceStateCached(@Nonnull Member member)
+    {
+        return member instanceof LazyVoiceState ? ((LazyVoiceState) member).isVoiceStateCached() : member.getVoiceState() != null;
+    }
+
+    @Nullable
+    static AudioChannelUnion getConnectedChannel(@Nonnull Member member)
+    {
+        GuildVoiceState voiceState = getVoiceStateIfPresent(member);
+        return voiceState == null ? null : voiceState.getChannel();
+    }
+}
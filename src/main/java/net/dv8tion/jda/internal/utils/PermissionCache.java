@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.utils;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Effective permissions of a guild, shared by all members with the same set of roles.
+ * <br>Members without overrides of their own only differ by their roles, so this holds one entry per role set and channel
+ * instead of one entry per member and channel.
+ *
+ * <p>The entries are valid for a single {@link net.dv8tion.jda.internal.entities.GuildImpl#getPermissionEpoch() permission epoch}
+ * and are dropped as soon as a newer epoch is used.
+ */
+public final class PermissionCache
+{
+    // Upper bound of distinct role sets, further role sets are computed without caching
+    private static final int MAX_ROLE_SETS = 1024;
+
+    private final Map<RoleSet, TLongLongMap> permissions = new HashMap<>();
+    private long epoch;
+
+    /**
+     * The cached permissions of the role set in the channel.
+     *
+     * @param  roleIds
+     *         The sorted role ids
+     * @param  channelId
+     *         The channel id, or {@code 0} for the guild
+     * @param  epoch
+     *         The current permission epoch of the guild
+     *
+     * @return The permissions, or {@code -1} if they are not cached
+     */
+    public synchronized long get(long[] roleIds, long channelId, long epoch)
+    {
+        if (this.epoch != epoch)
+            return -1;
+        TLongLongMap channels = permissions.get(new RoleSet(roleIds));
+        return channels == null ? -1 : channels.get(channelId);
+    }
+
+    public synchronized void put(long[] roleIds, long channelId, long epoch, long permissions)
+    {
+        if (this.epoch > epoch)
+            return; // Computed before the latest invalidation
+        if (this.epoch != epoch)
+            this.permissions.clear();
+        this.epoch = epoch;
+
+        RoleSet key = new RoleSet(roleIds);
+        TLongLongMap channels = this.permissions.get(key);
+        if (channels == null)
+        {
+            if (this.permissions.size() >= MAX_ROLE_SETS)
+                return;
+            channels = new TLongLongHashMap(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, 0, -1);
+            this.permissions.put(key, channels);
+        }
+        channels.put(channelId, permissions);
+    }
+}
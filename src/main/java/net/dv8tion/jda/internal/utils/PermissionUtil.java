@@ -15,6 +15,8 @@
  */
 package net.dv8tion.jda.internal.utils;
 
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.attribute.ICategorizableChannel;
@@ -23,11 +25,14 @@ import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.entities.emoji.RichCustomEmoji;
+import net.dv8tion.jda.api.utils.PermissionMatrix;
 import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
 import org.apache.commons.collections4.CollectionUtils;
 
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 public class PermissionUtil
 {
@@ -304,6 +309,11 @@ public class PermissionUtil
     {
         Checks.notNull(member, "Member");
 
+        return getCachedPermission(member, null, () -> computeEffectivePermission(member));
+    }
+
+    private static long computeEffectivePermission(Member member)
+    {
         if (member.isOwner())
             return Permission.ALL_PERMISSIONS;
         //Default to binary OR of all global permissions in this guild
@@ -346,6 +356,11 @@ public class PermissionUtil
 
         Checks.check(channel.getGuild().equals(member.getGuild()), "Provided channel and provided member are not of the same guild!");
 
+        return getCachedPermission(member, channel, () -> computeEffectivePermission(channel, member));
+    }
+
+    private static long computeEffectivePermission(GuildChannel channel, Member member)
+    {
         if (member.isOwner())
         {
             // Owner effectively has all permissions
@@ -384,6 +399,76 @@ public class PermissionUtil
         return hasAccess ? permission : 0;
     }
 
+    /**
+     * Computes the effective permissions of all cached members of the guild in the provided channels.
+     * <br>Members with the same set of roles share their permissions, unless they own the guild, are timed out,
+     * or have a member override in any of the involved permission containers.
+     * Those members are computed individually, while every other member only costs a lookup of their role set.
+     *
+     * @param  guild
+     *         The {@link net.dv8tion.jda.api.entities.Guild Guild} of the channels
+     * @param  channels
+     *         The {@link GuildChannel GuildChannels} to compute the permissions for
+     *
+     * @throws IllegalArgumentException
+     *         if any of the provided parameters is {@code null}
+     *         or any of the channels is not from the provided guild
+     *
+     * @return The {@link PermissionMatrix} of all cached members and the provided channels
+     */
+    public static PermissionMatrix getPermissionMatrix(Guild guild, Collection<? extends GuildChannel> channels)
+    {
+        Checks.notNull(guild, "Guild");
+        Checks.noneNull(channels, "Channels");
+
+        List<GuildChannel> channelList = new ArrayList<>(new LinkedHashSet<>(channels));
+        for (GuildChannel channel : channelList)
+            checkGuild(guild, channel.getGuild(), "Channel");
+        channelList.sort(Comparator.comparingLong(GuildChannel::getIdLong));
+
+        // Members with an override of their own can't share the permissions of their role set
+        TLongSet individual = new TLongHashSet();
+        Set<IPermissionContainer> containers = new HashSet<>();
+        for (GuildChannel channel : channelList)
+        {
+            containers.add(channel.getPermissionContainer());
+            if (channel instanceof ICategorizableChannel && ((ICategorizableChannel) channel).getParentCategory() != null)
+                containers.add(((ICategorizableChannel) channel).getParentCategory());
+        }
+        for (IPermissionContainer container : containers)
+        {
+            for (PermissionOverride override : container.getMemberPermissionOverrides())
+                individual.add(override.getIdLong());
+        }
+
+        List<Member> members = new ArrayList<>(guild.getMemberCache().asList());
+        members.sort(Comparator.comparingLong(Member::getIdLong));
+
+        int width = channelList.size();
+        long[] permissions = new long[members.size() * width];
+        Map<RoleSet, long[]> rows = new HashMap<>();
+        for (int i = 0; i < members.size(); i++)
+        {
+            Member member = members.get(i);
+            long[] row;
+            if (!(member instanceof MemberImpl) || member.isOwner() || member.isTimedOut() || individual.contains(member.getIdLong()))
+                row = computeRow(channelList, member);
+            else
+                row = rows.computeIfAbsent(new RoleSet(((MemberImpl) member).getRoleIdsRaw()), k -> computeRow(channelList, member));
+            System.arraycopy(row, 0, permissions, i * width, width);
+        }
+
+        return new PermissionMatrix(members, channelList, permissions);
+    }
+
+    private static long[] computeRow(List<GuildChannel> channels, Member member)
+    {
+        long[] row = new long[channels.size()];
+        for (int i = 0; i < row.length; i++)
+            row[i] = getEffectivePermission(channels.get(i), member);
+        return row;
+    }
+
     /**
      * Gets the {@code long} representation of the effective permissions allowed for this {@link net.dv8tion.jda.api.entities.Role Role}
      * in this {@link IPermissionContainer GuildChannel}. This can be used in conjunction with
@@ -647,6 +732,45 @@ public class PermissionUtil
         deny.set(denyRaw);
     }
 
+    private static long getCachedPermission(Member member, GuildChannel channel, LongSupplier compute)
+    {
+        // Owners are cheap to compute, and timeouts expire without any update, so the permissions of timed out members can't be cached
+        if (!(member instanceof MemberImpl) || member.isOwner() || member.isTimedOut())
+            return compute.getAsLong();
+
+        MemberImpl impl = (MemberImpl) member;
+        // Guild-level permissions are cached with the id 0, since no channel can have that id
+        long channelId = channel == null ? 0L : channel.getIdLong();
+        long epoch = impl.getPermissionEpoch();
+        long permissions;
+
+        // Only members with an override of their own are cached individually, everyone else shares the entry of their role set
+        if (channel != null && channel.getPermissionContainer().getPermissionOverride(member) != null)
+        {
+            permissions = impl.getCachedPermissions(channelId, epoch);
+            if (permissions == -1)
+            {
+                permissions = compute.getAsLong();
+                impl.cachePermissions(channelId, epoch, permissions);
+            }
+            return permissions;
+        }
+
+        GuildImpl guild = impl.getGuild();
+        PermissionCache cache = guild.getPermissionCache();
+        long[] roleIds = impl.getRoleIdsRaw();
+        long guildEpoch = guild.getPermissionEpoch();
+        permissions = cache.get(roleIds, channelId, guildEpoch);
+        if (permissions == -1)
+        {
+            permissions = compute.getAsLong();
+            // The roles might have changed while computing, which would store the result under the wrong role set
+            if (impl.getPermissionEpoch() == epoch)
+                cache.put(roleIds, channelId, guildEpoch, permissions);
+        }
+        return permissions;
+    }
+
     /*
      * Check whether the specified permission is applied in the bits
      */
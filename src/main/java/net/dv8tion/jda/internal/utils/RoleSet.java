@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.utils;
+
+import java.util.Arrays;
+
+// Key for members with identical roles, the role ids are sorted so equal sets are equal arrays
+final class RoleSet
+{
+    private final long[] roleIds;
+    private final int hash;
+
+    RoleSet(long[] roleIds)
+    {
+        this.roleIds = roleIds;
+        this.hash = Arrays.hashCode(roleIds);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj instanceof RoleSet && Arrays.equals(roleIds, ((RoleSet) obj).roleIds);
+    }
+}
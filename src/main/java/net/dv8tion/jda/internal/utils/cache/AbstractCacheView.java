@@ -46,6 +46,13 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
     @SuppressWarnings("unchecked")
     protected AbstractCacheView(Class<T> type, Function<T, String> nameMapper)
     {
+        this(new ReentrantReadWriteLock(), type, nameMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected AbstractCacheView(ReentrantReadWriteLock lock, Class<T> type, Function<T, String> nameMapper)
+    {
+        super(lock);
         this.nameMapper = nameMapper;
         this.type = type;
         this.emptyArray = (T[]) Array.newInstance(type, 0);
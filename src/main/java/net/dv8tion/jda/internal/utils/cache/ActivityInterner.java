@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import net.dv8tion.jda.api.entities.Activity;
+import net.dv8tion.jda.api.utils.data.DataObject;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of parsed activities, keyed by the fields that many members have in common.
+ *
+ * <p>Many members share identical activities, such as the same game without timestamps.
+ * Those members share a single {@link Activity} instance instead of parsing and storing a copy for each of them.
+ * Activities are immutable, so instances can be shared freely, even between shards.
+ *
+ * <p>Only activities that consist of the name, type, url, application id, and assets are interned.
+ * Activities with per-member data, such as timestamps or a party, are parsed without going through the cache.
+ */
+public class ActivityInterner
+{
+    // Parsed fields which are specific to a single member, activities with these are not shared
+    private static final String[] MEMBER_FIELDS = {
+        "timestamps", "emoji", "state", "details", "party", "session_id", "sync_id", "flags"
+    };
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public ActivityInterner(int maxSize)
+    {
+        int stripeSize = Math.max(1, maxSize / STRIPES);
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new Stripe(stripeSize);
+    }
+
+    public Activity intern(DataObject json, Function<DataObject, Activity> parser)
+    {
+        for (String field : MEMBER_FIELDS)
+        {
+            if (json.hasKey(field))
+                return parser.apply(json);
+        }
+
+        Key key = new Key(json);
+        Stripe stripe = stripes[(key.hashCode & 0x7fffffff) % STRIPES];
+        synchronized (stripe)
+        {
+            Activity activity = stripe.get(key);
+            if (activity != null)
+                return activity;
+        }
+
+        // Parse outside the lock, if two threads race the later one just replaces an equal instance
+        Activity activity = parser.apply(json);
+        synchronized (stripe)
+        {
+            stripe.put(key, activity);
+        }
+        return activity;
+    }
+
+    private static String getValue(DataObject json, String key)
+    {
+        return json.isNull(key) ? null : String.valueOf(json.get(key));
+    }
+
+    private static class Stripe extends LinkedHashMap<Key, Activity>
+    {
+        private final int maxSize;
+
+        private Stripe(int maxSize)
+        {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Activity> eldest)
+        {
+            return size() > maxSize;
+        }
+    }
+
+    private static final class Key
+    {
+        private final String[] values;
+        private final int hashCode;
+
+        private Key(DataObject json)
+        {
+            DataObject assets = json.isNull("assets") ? null : json.getObject("assets");
+            this.values = new String[] {
+                getValue(json, "name"),
+                getValue(json, "type"),
+                getValue(json, "url"),
+                getValue(json, "application_id"),
+                assets == null ? null : getValue(assets, "large_image"),
+                assets == null ? null : getValue(assets, "large_text"),
+                assets == null ? null : getValue(assets, "small_image"),
+                assets == null ? null : getValue(assets, "small_text"),
+                // The presence of these keys decides between a rich presence and a plain activity
+                json.hasKey("application_id") ? "" : null,
+                json.hasKey("assets") ? "" : null,
+            };
+            this.hashCode = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (obj == this)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            return Arrays.equals(values, ((Key) obj).values);
+        }
+    }
+}
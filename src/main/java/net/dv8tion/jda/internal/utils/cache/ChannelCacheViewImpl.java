@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import net.dv8tion.jda.api.entities.channel.Channel;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Unified cache of all channels, keyed only by id.
+ *
+ * <p>The typed views created by this cache share its lock and are only written through {@link #put(Channel)} and {@link #remove(long)}.
+ * This means a lookup by id is a single hash probe, regardless of the channel type,
+ * and a channel changing its type is moved between the typed views within one write lock.
+ * A channel type can be covered by multiple views, for instance a view of all channels sorted in their canonical order.
+ *
+ * @param <T>
+ *        The common channel type of this cache
+ */
+public class ChannelCacheViewImpl<T extends Channel> extends SnowflakeCacheViewImpl<T>
+{
+    protected final EnumMap<ChannelType, List<SnowflakeCacheViewImpl<? extends T>>> typedViews = new EnumMap<>(ChannelType.class);
+    protected final List<SnowflakeCacheViewImpl<? extends T>> views = new ArrayList<>();
+    protected volatile ShardRoutingIndex.Partition routing;
+
+    public ChannelCacheViewImpl(Class<T> type)
+    {
+        super(type, Channel::getName);
+    }
+
+    public void setRoutingIndex(ShardRoutingIndex.Partition routing)
+    {
+        this.routing = routing;
+    }
+
+    public <C extends T> SnowflakeCacheViewImpl<C> createView(Class<C> type, ChannelType... channelTypes)
+    {
+        return register(new SnowflakeCacheViewImpl<>(lock, type, Channel::getName), channelTypes);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <C extends GuildChannel> SortedSnowflakeCacheViewImpl<C> createSortedView(Class<C> type, ChannelType... channelTypes)
+    {
+        SortedSnowflakeCacheViewImpl<C> view = new SortedSnowflakeCacheViewImpl<>(lock, type, Channel::getName, Comparator.naturalOrder());
+        register((SnowflakeCacheViewImpl<? extends T>) view, channelTypes);
+        return view;
+    }
+
+    public <C extends T> C getElementById(Class<C> type, long id)
+    {
+        T channel = getElementById(id);
+        return type.isInstance(channel) ? type.cast(channel) : null;
+    }
+
+    /**
+     * Adds the channel to this cache and its typed view.
+     * <br>If a channel with the same id but a different type was cached, it is replaced atomically.
+     *
+     * @param  channel
+     *         The channel to cache
+     *
+     * @return The previously cached channel with the same id, or null
+     */
+    @SuppressWarnings("unchecked")
+    public T put(T channel)
+    {
+        long id = channel.getIdLong();
+        try (UnlockHook hook = writeLock())
+        {
+            T previous = elements.put(id, channel);
+            if (previous != null)
+                removeTyped(previous);
+            List<SnowflakeCacheViewImpl<? extends T>> typed = typedViews.get(channel.getType());
+            if (typed != null)
+            {
+                for (SnowflakeCacheViewImpl<? extends T> view : typed)
+                    ((SnowflakeCacheViewImpl<T>) view).putElement(channel);
+            }
+            ShardRoutingIndex.Partition routing = this.routing;
+            if (routing != null)
+                routing.addChannel(id);
+            return previous;
+        }
+    }
+
+    @Override
+    public T remove(long id)
+    {
+        try (UnlockHook hook = writeLock())
+        {
+            T channel = elements.remove(id);
+            if (channel != null)
+                removeTyped(channel);
+            ShardRoutingIndex.Partition routing = this.routing;
+            if (channel != null && routing != null)
+                routing.removeChannel(id);
+            return channel;
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        try (UnlockHook hook = writeLock())
+        {
+            ShardRoutingIndex.Partition routing = this.routing;
+            if (routing != null)
+                elements.forEachKey(id -> { routing.removeChannel(id); return true; });
+            elements.clear();
+            for (SnowflakeCacheViewImpl<? extends T> view : views)
+                view.clearElements();
+        }
+    }
+
+    /**
+     * Marks all sorted views as unsorted.
+     * <br>This has to be called after the position or parent of a channel changed,
+     * since that can also change the order of other channels, such as the channels of a moved category.
+     */
+    public void markUnsorted()
+    {
+        try (UnlockHook hook = writeLock())
+        {
+            for (SnowflakeCacheViewImpl<? extends T> view : views)
+            {
+                if (view instanceof SortedSnowflakeCacheViewImpl)
+                    ((SortedSnowflakeCacheViewImpl<?>) view).unsorted = true;
+            }
+        }
+    }
+
+    @Override
+    protected void onAcquireWriteLock()
+    {
+        for (SnowflakeCacheViewImpl<? extends T> view : views)
+            view.clearCachedLists();
+    }
+
+    protected void removeTyped(T channel)
+    {
+        List<SnowflakeCacheViewImpl<? extends T>> typed = typedViews.get(channel.getType());
+        if (typed == null)
+            return;
+        for (SnowflakeCacheViewImpl<? extends T> view : typed)
+            view.removeElement(channel.getIdLong());
+    }
+
+    protected <V extends SnowflakeCacheViewImpl<? extends T>> V register(V view, ChannelType... channelTypes)
+    {
+        views.add(view);
+        for (ChannelType channelType : channelTypes)
+            typedViews.computeIfAbsent(channelType, k -> new ArrayList<>(2)).add(view);
+        return view;
+    }
+}
@@ -19,6 +19,7 @@ package net.dv8tion.jda.internal.utils.cache;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.utils.cache.MemberCacheView;
+import net.dv8tion.jda.internal.entities.MemberImpl;
 import net.dv8tion.jda.internal.utils.Checks;
 
 import javax.annotation.Nonnull;
@@ -99,11 +100,17 @@ public class MemberCacheViewImpl extends SnowflakeCacheViewImpl<Member> implemen
         if (rolesWithoutPublicRole.isEmpty())
             return asList();
 
+        long[] roleIds = rolesWithoutPublicRole.stream().mapToLong(Role::getIdLong).toArray();
         List<Member> members = new ArrayList<>();
         forEach(member ->
         {
-            if (member.getRoles().containsAll(rolesWithoutPublicRole))
-                members.add(member);
+            MemberImpl impl = (MemberImpl) member;
+            for (long roleId : roleIds)
+            {
+                if (!impl.hasRole(roleId))
+                    return;
+            }
+            members.add(member);
         });
         return members;
     }
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of received messages, used to provide the previous state of messages in update and delete events.
+ *
+ * <p>Messages are stored as their raw JSON payload and are only turned into {@link Message} instances when accessed.
+ * This keeps the cache compact and avoids retaining references to entities that might have been removed from the cache since.
+ * Each channel keeps at most {@link #getChannelLimit()} messages, and the whole cache keeps at most {@link #getTotalLimit()} messages.
+ * Once a limit is exceeded, the oldest messages are evicted first.
+ *
+ * <p>This cache can be shared between shards, since message ids are globally unique.
+ */
+public class MessageCache
+{
+    public static final Logger LOG = JDALogger.getLog(MessageCache.class);
+
+    protected final int channelLimit;
+    protected final int totalLimit;
+    protected final ReentrantLock lock = new ReentrantLock();
+    // Insertion ordered, the first entry is always the oldest message
+    protected final LinkedHashMap<Long, CachedMessage> messages = new LinkedHashMap<>();
+    protected final TLongObjectMap<ChannelMessages> channels = new TLongObjectHashMap<>();
+    // Channels with cached messages by guild, used to purge a guild when it is removed
+    protected final TLongObjectMap<TLongSet> guilds = new TLongObjectHashMap<>();
+
+    public MessageCache(int channelLimit, int totalLimit)
+    {
+        this.channelLimit = channelLimit;
+        this.totalLimit = totalLimit;
+    }
+
+    public int getChannelLimit()
+    {
+        return channelLimit;
+    }
+
+    public int getTotalLimit()
+    {
+        return totalLimit;
+    }
+
+    public int size()
+    {
+        try (UnlockHook hook = lock())
+        {
+            return messages.size();
+        }
+    }
+
+    /**
+     * Caches the provided message payload, replacing the previous payload of the same message.
+     * <br>Updates keep the original position of the message in the eviction order.
+     *
+     * @param  channel
+     *         The channel of the message
+     * @param  json
+     *         The full message payload
+     *
+     * @return The previously cached message, or null
+     */
+    public Message put(MessageChannel channel, DataObject json)
+    {
+        long channelId = channel.getIdLong();
+        long guildId = channel instanceof GuildChannel ? ((GuildChannel) channel).getGuild().getIdLong() : 0L;
+        long messageId = json.getUnsignedLong("id");
+        CachedMessage previous;
+        try (UnlockHook hook = lock())
+        {
+            previous = messages.put(messageId, new CachedMessage(channelId, json.toJson()));
+            if (previous == null)
+            {
+                ChannelMessages ids = channels.get(channelId);
+                if (ids == null)
+                {
+                    channels.put(channelId, ids = new ChannelMessages(guildId));
+                    if (guildId != 0L)
+                    {
+                        TLongSet guildChannels = guilds.get(guildId);
+                        if (guildChannels == null)
+                            guilds.put(guildId, guildChannels = new TLongHashSet());
+                        guildChannels.add(channelId);
+                    }
+                }
+                ids.add(messageId);
+                if (ids.size() > channelLimit)
+                    messages.remove(ids.removeOldest());
+                evict();
+            }
+        }
+        return previous == null ? null : materialize(channel, previous);
+    }
+
+    public Message get(MessageChannel channel, long messageId)
+    {
+        CachedMessage message;
+        try (UnlockHook hook = lock())
+        {
+            message = messages.get(messageId);
+        }
+        return message == null || message.channelId != channel.getIdLong() ? null : materialize(channel, message);
+    }
+
+    public Message remove(MessageChannel channel, long messageId)
+    {
+        CachedMessage message;
+        try (UnlockHook hook = lock())
+        {
+            message = messages.remove(messageId);
+            if (message == null)
+                return null;
+            removeFromChannel(message.channelId, messageId);
+        }
+        return message.channelId != channel.getIdLong() ? null : materialize(channel, message);
+    }
+
+    public List<Message> remove(MessageChannel channel, long... messageIds)
+    {
+        List<Message> removed = new ArrayList<>();
+        for (long messageId : messageIds)
+        {
+            Message message = remove(channel, messageId);
+            if (message != null)
+                removed.add(message);
+        }
+        return removed;
+    }
+
+    public void removeChannel(long channelId)
+    {
+        try (UnlockHook hook = lock())
+        {
+            ChannelMessages ids = channels.get(channelId);
+            if (ids != null)
+                purgeChannel(channelId, ids);
+        }
+    }
+
+    public void removeGuild(long guildId)
+    {
+        try (UnlockHook hook = lock())
+        {
+            TLongSet guildChannels = guilds.remove(guildId);
+            if (guildChannels == null)
+                return;
+            guildChannels.forEach(channelId -> {
+                ChannelMessages ids = channels.remove(channelId);
+                if (ids != null)
+                    ids.forEach(messages::remove);
+                return true;
+            });
+        }
+    }
+
+    public void clear()
+    {
+        try (UnlockHook hook = lock())
+        {
+            messages.clear();
+            channels.clear();
+            guilds.clear();
+        }
+    }
+
+    protected void evict()
+    {
+        Iterator<Map.Entry<Long, CachedMessage>> iterator = messages.entrySet().iterator();
+        while (messages.size() > totalLimit)
+        {
+            Map.Entry<Long, CachedMessage> oldest = iterator.next();
+            iterator.remove();
+            removeFromChannel(oldest.getValue().channelId, oldest.getKey());
+        }
+    }
+
+    protected void removeFromChannel(long channelId, long messageId)
+    {
+        ChannelMessages ids = channels.get(channelId);
+        if (ids == null)
+            return;
+        ids.remove(messageId);
+        if (ids.isEmpty())
+            purgeChannel(channelId, ids);
+    }
+
+    protected void purgeChannel(long channelId, ChannelMessages ids)
+    {
+        channels.remove(channelId);
+        ids.forEach(messages::remove);
+        if (ids.guildId == 0L)
+            return;
+        TLongSet guildChannels = guilds.get(ids.guildId);
+        if (guildChannels != null && guildChannels.remove(channelId) && guildChannels.isEmpty())
+            guilds.remove(ids.guildId);
+    }
+
+    protected Message materialize(MessageChannel channel, CachedMessage message)
+    {
+        JDAImpl jda = (JDAImpl) channel.getJDA();
+        try
+        {
+            return jda.getEntityBuilder().createMessageWithChannel(DataObject.fromJson(message.payload), channel, false);
+        }
+        catch (Exception e)
+        {
+            // The channel might have changed in a way that no longer allows building the message
+            LOG.debug("Failed to build cached message for channel {}", channel, e);
+            return null;
+        }
+    }
+
+    protected UnlockHook lock()
+    {
+        return MiscUtil.lock(lock);
+    }
+
+    // Message ids of a channel in insertion order, the linked set removes any message in constant time
+    protected static class ChannelMessages extends LinkedHashSet<Long>
+    {
+        protected final long guildId;
+
+        protected ChannelMessages(long guildId)
+        {
+            this.guildId = guildId;
+        }
+
+        protected long removeOldest()
+        {
+            Iterator<Long> iterator = iterator();
+            long oldest = iterator.next();
+            iterator.remove();
+            return oldest;
+        }
+    }
+
+    protected static class CachedMessage
+    {
+        protected final long channelId;
+        protected final byte[] payload;
+
+        protected CachedMessage(long channelId, byte[] payload)
+        {
+            this.channelId = channelId;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reverse index of the member caches, mapping user ids to the ids of the guilds that have them cached as a member.
+ */
+public class MutualGuildIndex
+{
+    protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Most users share exactly one guild with us, those don't need a set
+    protected final TLongLongMap single = new TLongLongHashMap(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, 0, 0);
+    protected final TLongObjectMap<TLongSet> multiple = new TLongObjectHashMap<>();
+
+    public void add(long userId, long guildId)
+    {
+        try (UnlockHook hook = MiscUtil.lock(lock.writeLock()))
+        {
+            TLongSet guilds = multiple.get(userId);
+            if (guilds != null)
+            {
+                guilds.add(guildId);
+                return;
+            }
+
+            long current = single.putIfAbsent(userId, guildId);
+            if (current == 0 || current == guildId)
+                return;
+
+            single.remove(userId);
+            guilds = new TLongHashSet(4);
+            guilds.add(current);
+            guilds.add(guildId);
+            multiple.put(userId, guilds);
+        }
+    }
+
+    public void remove(long userId, long guildId)
+    {
+        try (UnlockHook hook = MiscUtil.lock(lock.writeLock()))
+        {
+            if (single.get(userId) == guildId)
+            {
+                single.remove(userId);
+                return;
+            }
+
+            TLongSet guilds = multiple.get(userId);
+            if (guilds == null || !guilds.remove(guildId))
+                return;
+            if (guilds.size() == 1)
+            {
+                multiple.remove(userId);
+                single.put(userId, guilds.iterator().next());
+            }
+        }
+    }
+
+    public void clear()
+    {
+        try (UnlockHook hook = MiscUtil.lock(lock.writeLock()))
+        {
+            single.clear();
+            multiple.clear();
+        }
+    }
+
+    public int getGuildCount(long userId)
+    {
+        try (UnlockHook hook = MiscUtil.lock(lock.readLock()))
+        {
+            if (single.containsKey(userId))
+                return 1;
+            TLongSet guilds = multiple.get(userId);
+            return guilds == null ? 0 : guilds.size();
+        }
+    }
+
+    public boolean hasGuilds(long userId)
+    {
+        return getGuildCount(userId) > 0;
+    }
+
+    /**
+     * The ids of all guilds that have every one of the provided users cached as a member.
+     *
+     * @param  userIds
+     *         The user ids, must not be empty
+     *
+     * @return Modifiable set of guild ids
+     */
+    public TLongSet getMutualGuilds(long... userIds)
+    {
+        try (UnlockHook hook = MiscUtil.lock(lock.readLock()))
+        {
+            TLongSet[] sets = new TLongSet[userIds.length];
+            for (int i = 0; i < userIds.length; i++)
+            {
+                TLongSet guilds = getGuilds0(userIds[i]);
+                if (guilds.isEmpty())
+                    return new TLongHashSet();
+                sets[i] = guilds;
+            }
+
+            // Start with the smallest set, so we never copy more than we need
+            Arrays.sort(sets, Comparator.comparingInt(TLongSet::size));
+            TLongSet result = new TLongHashSet(sets[0]);
+            for (int i = 1; i < sets.length && !result.isEmpty(); i++)
+                result.retainAll(sets[i]);
+            return result;
+        }
+    }
+
+    protected TLongSet getGuilds0(long userId)
+    {
+        long guildId = single.get(userId);
+        if (guildId != 0)
+            return new TLongHashSet(new long[] { guildId });
+        TLongSet guilds = multiple.get(userId);
+        return guilds == null ? new TLongHashSet() : guilds;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maps channel and user ids to the shard which has them cached.
+ *
+ * <p>This index is maintained by the channel and user caches of each shard through their {@link Partition}.
+ * A user or private channel can be cached by multiple shards at once,
+ * so these ids are reference counted by the set of shards that cache them.
+ *
+ * <p>The ids are spread over several stripes, each with its own lock,
+ * so shards which populate their caches at the same time rarely wait for each other.
+ */
+public class ShardRoutingIndex
+{
+    public static final int NO_SHARD = -1;
+
+    // Must be a power of two
+    protected static final int STRIPES = 32;
+
+    protected final Stripe[] stripes = new Stripe[STRIPES];
+
+    public ShardRoutingIndex()
+    {
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new Stripe();
+    }
+
+    public Partition forShard(int shardId)
+    {
+        return new Partition(shardId);
+    }
+
+    public int getChannelShard(long channelId)
+    {
+        Stripe stripe = getStripe(channelId);
+        try (UnlockHook hook = MiscUtil.lock(stripe.lock.readLock()))
+        {
+            return getShard(stripe.channels, stripe.sharedChannels, channelId);
+        }
+    }
+
+    public int getUserShard(long userId)
+    {
+        Stripe stripe = getStripe(userId);
+        try (UnlockHook hook = MiscUtil.lock(stripe.lock.readLock()))
+        {
+            return getShard(stripe.users, stripe.sharedUsers, userId);
+        }
+    }
+
+    public int[] getUserShards(long userId)
+    {
+        Stripe stripe = getStripe(userId);
+        try (UnlockHook hook = MiscUtil.lock(stripe.lock.readLock()))
+        {
+            int shardId = stripe.users.get(userId);
+            if (shardId != NO_SHARD)
+                return new int[] { shardId };
+            TIntSet shards = stripe.sharedUsers.get(userId);
+            return shards == null ? new int[0] : shards.toArray();
+        }
+    }
+
+    /**
+     * Removes every entry pointing to the provided shard.
+     * <br>This is used when a shard is removed from the shard manager, since its caches won't report the removal anymore.
+     *
+     * @param shardId
+     *        The shard id
+     */
+    public void removeShard(int shardId)
+    {
+        for (Stripe stripe : stripes)
+        {
+            try (UnlockHook hook = MiscUtil.lock(stripe.lock.writeLock()))
+            {
+                removeShard(stripe.channels, stripe.sharedChannels, shardId);
+                removeShard(stripe.users, stripe.sharedUsers, shardId);
+            }
+        }
+    }
+
+    protected Stripe getStripe(long id)
+    {
+        // Snowflakes have their timestamp in the upper bits, mix them into the lower bits which increment per id
+        int hash = (int) (id ^ (id >>> 32));
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    protected void addChannel(long channelId, int shardId)
+    {
+        Stripe stripe = getStripe(channelId);
+        try (UnlockHook hook = MiscUtil.lock(stripe.lock.writeLock()))
+        {
+            add(stripe.channels, stripe.sharedChannels, channelId, shardId);
+        }
+    }
+
+    protected void removeChannel(long channelId, int shardId)
+    {
+        Stripe stripe = getStripe(channelId);
+        try (UnlockHook hook = MiscUtil.lock(stripe.lock.writeLock()))
+        {
+            remove(stripe.channels, stripe.sharedChannels, channelId, shardId);
+        }
+    }
+
+    protected void addUser(long userId, int shardId)
+    {
+        Stripe stripe = getStripe(userId);
+        try (UnlockHook hook = MiscUtil.lock(stripe.lock.writeLock()))
+        {
+            add(stripe.users, stripe.sharedUsers, userId, shardId);
+        }
+    }
+
+    protected void removeUser(long userId, int shardId)
+    {
+        Stripe stripe = getStripe(userId);
+        try (UnlockHook hook = MiscUtil.lock(stripe.lock.writeLock()))
+        {
+            remove(stripe.users, stripe.sharedUsers, userId, shardId);
+        }
+    }
+
+    // The following methods are called with the lock of the stripe held
+
+    protected static int getShard(TLongIntMap single, TLongObjectMap<TIntSet> shared, long id)
+    {
+        int shardId = single.get(id);
+        if (shardId != NO_SHARD)
+            return shardId;
+        TIntSet shards = shared.get(id);
+        return shards == null ? NO_SHARD : shards.iterator().next();
+    }
+
+    protected static void add(TLongIntMap single, TLongObjectMap<TIntSet> shared, long id, int shardId)
+    {
+        TIntSet shards = shared.get(id);
+        if (shards != null)
+        {
+            shards.add(shardId);
+            return;
+        }
+
+        int current = single.putIfAbsent(id, shardId);
+        if (current == NO_SHARD || current == shardId)
+            return;
+
+        // Another shard already caches this id, move it to the shared index
+        single.remove(id);
+        shards = new TIntHashSet(4);
+        shards.add(current);
+        shards.add(shardId);
+        shared.put(id, shards);
+    }
+
+    protected static void remove(TLongIntMap single, TLongObjectMap<TIntSet> shared, long id, int shardId)
+    {
+        if (single.get(id) == shardId)
+        {
+            single.remove(id);
+            return;
+        }
+
+        TIntSet shards = shared.get(id);
+        if (shards == null || !shards.remove(shardId))
+            return;
+        if (shards.size() == 1)
+        {
+            shared.remove(id);
+            single.put(id, shards.iterator().next());
+        }
+    }
+
+    protected static void removeShard(TLongIntMap single, TLongObjectMap<TIntSet> shared, int shardId)
+    {
+        single.retainEntries((id, shard) -> shard != shardId);
+        shared.retainEntries((id, shards) -> {
+            shards.remove(shardId);
+            if (shards.size() > 1)
+                return true;
+            if (shards.size() == 1)
+                single.put(id, shards.iterator().next());
+            return false;
+        });
+    }
+
+    protected static TLongIntMap newIntMap()
+    {
+        return new TLongIntHashMap(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, 0, NO_SHARD);
+    }
+
+    protected static class Stripe
+    {
+        protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // Channels cached by exactly one shard
+        protected final TLongIntMap channels = newIntMap();
+        // Private channels cached by more than one shard
+        protected final TLongObjectMap<TIntSet> sharedChannels = new TLongObjectHashMap<>();
+        // Users cached by exactly one shard
+        protected final TLongIntMap users = newIntMap();
+        // Users cached by more than one shard
+        protected final TLongObjectMap<TIntSet> sharedUsers = new TLongObjectHashMap<>();
+    }
+
+    /**
+     * The view of a single shard on the routing index, used by the caches of that shard.
+     */
+    public class Partition
+    {
+        protected final int shardId;
+
+        protected Partition(int shardId)
+        {
+            this.shardId = shardId;
+        }
+
+        public int getShardId()
+        {
+            return shardId;
+        }
+
+        public void addChannel(long channelId)
+        {
+            ShardRoutingIndex.this.addChannel(channelId, shardId);
+        }
+
+        public void removeChannel(long channelId)
+        {
+            ShardRoutingIndex.this.removeChannel(channelId, shardId);
+        }
+
+        public void addUser(long userId)
+        {
+            ShardRoutingIndex.this.addUser(userId, shardId);
+        }
+
+        public void removeUser(long userId)
+        {
+            ShardRoutingIndex.this.removeUser(userId, shardId);
+        }
+    }
+}
@@ -19,6 +19,7 @@ package net.dv8tion.jda.internal.utils.cache;
 import net.dv8tion.jda.api.entities.ISnowflake;
 import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
 
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 
 public class SnowflakeCacheViewImpl<T extends ISnowflake> extends AbstractCacheView<T> implements SnowflakeCacheView<T>
@@ -28,6 +29,11 @@ public class SnowflakeCacheViewImpl<T extends ISnowflake> extends AbstractCacheV
         super(type, nameMapper);
     }
 
+    public SnowflakeCacheViewImpl(ReentrantReadWriteLock lock, Class<T> type, Function<T, String> nameMapper)
+    {
+        super(lock, type, nameMapper);
+    }
+
     @Override
     public T getElementById(long id)
     {
@@ -35,4 +41,21 @@ public class SnowflakeCacheViewImpl<T extends ISnowflake> extends AbstractCacheV
             return null;
         return get(id);
     }
+
+    // The following methods require the write lock to be held by the caller
+
+    protected T putElement(T element)
+    {
+        return elements.put(element.getIdLong(), element);
+    }
+
+    protected T removeElement(long id)
+    {
+        return elements.remove(id);
+    }
+
+    protected void clearElements()
+    {
+        elements.clear();
+    }
 }
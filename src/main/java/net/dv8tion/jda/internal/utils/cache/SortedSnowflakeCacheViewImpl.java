@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.internal.utils.cache;
 
+import gnu.trove.map.TLongObjectMap;
 import net.dv8tion.jda.api.entities.ISnowflake;
 import net.dv8tion.jda.api.utils.cache.SortedSnowflakeCacheView;
 import net.dv8tion.jda.internal.utils.UnlockHook;
@@ -23,16 +24,28 @@ import org.apache.commons.collections4.iterators.ObjectArrayIterator;
 
 import javax.annotation.Nonnull;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+/**
+ * Snowflake cache which keeps a sorted snapshot of its elements.
+ *
+ * <p>The snapshot is an immutable array, which is updated with a binary search on {@link #put(ISnowflake)} and {@link #remove(long)}.
+ * Since the sort keys of the cached entities are mutable, entities have to call {@link #markUnsorted()} once their position changed.
+ * The next read will then restore the order of the previous snapshot, which is almost sorted and thus only takes linear time.
+ * Accessing the underlying map directly with {@link #getMap()} discards the snapshot entirely.
+ */
 public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? super T>>
         extends SnowflakeCacheViewImpl<T> implements SortedSnowflakeCacheView<T>
 {
     protected static final int SPLIT_CHARACTERISTICS = Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL;
 
     protected final Comparator<T> comparator;
+    // Null if the snapshot has to be rebuilt from the map
+    protected volatile T[] sorted;
+    protected volatile boolean unsorted;
 
     public SortedSnowflakeCacheViewImpl(Class<T> type, Comparator<T> comparator)
     {
@@ -43,17 +56,112 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
     {
         super(type, nameMapper);
         this.comparator = comparator;
+        this.sorted = emptyArray;
+    }
+
+    public SortedSnowflakeCacheViewImpl(ReentrantReadWriteLock lock, Class<T> type, Function<T, String> nameMapper, Comparator<T> comparator)
+    {
+        super(lock, type, nameMapper);
+        this.comparator = comparator;
+        this.sorted = emptyArray;
+    }
+
+    public T put(T element)
+    {
+        try (UnlockHook hook = writeLock())
+        {
+            return putElement(element);
+        }
     }
 
     @Override
-    public void forEach(@Nonnull Consumer<? super T> action)
+    public T remove(long id)
     {
-        try (UnlockHook hook = readLock())
+        try (UnlockHook hook = writeLock())
+        {
+            return removeElement(id);
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        try (UnlockHook hook = writeLock())
         {
-            iterator().forEachRemaining(action);
+            clearElements();
         }
     }
 
+    @Override
+    public TLongObjectMap<T> getMap()
+    {
+        TLongObjectMap<T> map = super.getMap();
+        sorted = null;
+        return map;
+    }
+
+    /**
+     * Marks the snapshot as unsorted, this has to be called after the sort key of a cached element changed.
+     */
+    public void markUnsorted()
+    {
+        try (UnlockHook hook = writeLock())
+        {
+            unsorted = true;
+        }
+    }
+
+    @Override
+    protected T putElement(T element)
+    {
+        T previous = super.putElement(element);
+        T[] snapshot = sorted;
+        if (snapshot == null)
+            return previous;
+        if (previous != null)
+            snapshot = without(snapshot, previous);
+
+        // Elements are appended while unsorted, the next read sorts them anyway
+        int index = snapshot.length;
+        if (!unsorted)
+        {
+            index = Arrays.binarySearch(snapshot, element, comparator);
+            if (index < 0)
+                index = -(index + 1);
+        }
+
+        T[] updated = Arrays.copyOf(snapshot, snapshot.length + 1);
+        System.arraycopy(snapshot, index, updated, index + 1, snapshot.length - index);
+        updated[index] = element;
+        sorted = updated;
+        return previous;
+    }
+
+    @Override
+    protected T removeElement(long id)
+    {
+        T removed = super.removeElement(id);
+        T[] snapshot = sorted;
+        if (removed != null && snapshot != null)
+            sorted = without(snapshot, removed);
+        return removed;
+    }
+
+    @Override
+    protected void clearElements()
+    {
+        super.clearElements();
+        sorted = emptyArray;
+        unsorted = false;
+    }
+
+    @Override
+    public void forEach(@Nonnull Consumer<? super T> action)
+    {
+        for (T element : snapshot())
+            action.accept(element);
+    }
+
     @Override
     public void forEachUnordered(@Nonnull Consumer<? super T> action)
     {
@@ -64,18 +172,10 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
     @Override
     public List<T> asList()
     {
-        if (isEmpty())
+        T[] snapshot = snapshot();
+        if (snapshot.length == 0)
             return Collections.emptyList();
-        try (UnlockHook hook = readLock())
-        {
-            List<T> list = getCachedList();
-            if (list != null)
-                return list;
-            list = new ArrayList<>(elements.size());
-            elements.forEachValue(list::add);
-            list.sort(comparator);
-            return cache(list);
-        }
+        return Collections.unmodifiableList(Arrays.asList(snapshot));
     }
 
     @Nonnull
@@ -90,7 +190,7 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
             if (set != null)
                 return set;
             set = new TreeSet<>(comparator);
-            elements.forEachValue(set::add);
+            Collections.addAll(set, snapshot());
             return cache(set);
         }
     }
@@ -107,10 +207,7 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
     @Override
     public Spliterator<T> spliterator()
     {
-        try (UnlockHook hook = readLock())
-        {
-            return Spliterators.spliterator(iterator(), elements.size(), SPLIT_CHARACTERISTICS);
-        }
+        return Spliterators.spliterator(snapshot(), SPLIT_CHARACTERISTICS);
     }
 
     @Nonnull
@@ -131,25 +228,71 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
     @Override
     public Stream<T> stream()
     {
-        return super.stream().sorted(comparator);
+        return Arrays.stream(snapshot());
     }
 
     @Nonnull
     @Override
     public Stream<T> parallelStream()
     {
-        return super.parallelStream().sorted(comparator);
+        return stream().parallel();
     }
 
     @Nonnull
     @Override
     public Iterator<T> iterator()
     {
+        return new ObjectArrayIterator<>(snapshot());
+    }
+
+    protected T[] snapshot()
+    {
+        T[] snapshot = sorted;
+        if (snapshot != null && !unsorted)
+            return snapshot;
         try (UnlockHook hook = readLock())
         {
-            T[] arr = elements.values(emptyArray);
-            Arrays.sort(arr, comparator);
-            return new ObjectArrayIterator<>(arr);
+            snapshot = sorted;
+            if (snapshot == null)
+            {
+                snapshot = elements.values(emptyArray);
+                Arrays.sort(snapshot, comparator);
+            }
+            else if (unsorted)
+            {
+                // The previous order is almost correct, which allows the merge sort to finish in linear time
+                snapshot = snapshot.clone();
+                Arrays.sort(snapshot, comparator);
+            }
+            else
+            {
+                return snapshot;
+            }
+            sorted = snapshot;
+            unsorted = false;
+            return snapshot;
         }
     }
+
+    protected T[] without(T[] snapshot, T element)
+    {
+        int index = -1;
+        if (!unsorted)
+        {
+            int found = Arrays.binarySearch(snapshot, element, comparator);
+            if (found >= 0 && snapshot[found] == element)
+                index = found;
+        }
+        for (int i = 0; index < 0 && i < snapshot.length; i++)
+        {
+            if (snapshot[i] == element)
+                index = i;
+        }
+        if (index < 0)
+            return snapshot;
+
+        T[] updated = Arrays.copyOf(snapshot, snapshot.length - 1);
+        System.arraycopy(snapshot, index + 1, updated, index, snapshot.length - index - 1);
+        return updated;
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+
+public class UserCacheViewImpl extends SnowflakeCacheViewImpl<User>
+{
+    protected volatile ShardRoutingIndex.Partition routing;
+
+    public UserCacheViewImpl()
+    {
+        super(User.class, User::getName);
+    }
+
+    public void setRoutingIndex(ShardRoutingIndex.Partition routing)
+    {
+        this.routing = routing;
+    }
+
+    public User put(User user)
+    {
+        try (UnlockHook hook = writeLock())
+        {
+            User previous = elements.put(user.getIdLong(), user);
+            ShardRoutingIndex.Partition routing = this.routing;
+            if (previous == null && routing != null)
+                routing.addUser(user.getIdLong());
+            return previous;
+        }
+    }
+
+    @Override
+    public User remove(long id)
+    {
+        try (UnlockHook hook = writeLock())
+        {
+            User removed = elements.remove(id);
+            ShardRoutingIndex.Partition routing = this.routing;
+            if (removed != null && routing != null)
+                routing.removeUser(id);
+            return removed;
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        try (UnlockHook hook = writeLock())
+        {
+            ShardRoutingIndex.Partition routing = this.routing;
+            if (routing != null)
+                elements.forEachKey(id -> { routing.removeUser(id); return true; });
+            elements.clear();
+        }
+    }
+}
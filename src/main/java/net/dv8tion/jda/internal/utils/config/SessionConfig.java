@@ -18,6 +18,8 @@ package net.dv8tion.jda.internal.utils.config;
 
 import com.neovisionaries.ws.client.WebSocketFactory;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
+import net.dv8tion.jda.api.requests.RateLimitStore;
+import net.dv8tion.jda.api.requests.RestResponseCache;
 import net.dv8tion.jda.api.utils.ConcurrentSessionController;
 import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
@@ -33,6 +35,8 @@ public class SessionConfig
     private final OkHttpClient httpClient;
     private final WebSocketFactory webSocketFactory;
     private final VoiceDispatchInterceptor interceptor;
+    private final RestResponseCache responseCache;
+    private final RateLimitStore rateLimitStore;
     private final int largeThreshold;
     private EnumSet<ConfigFlag> flags;
     private int maxReconnectDelay;
@@ -40,12 +44,14 @@ public class SessionConfig
     public SessionConfig(
         @Nullable SessionController sessionController, @Nullable OkHttpClient httpClient,
         @Nullable WebSocketFactory webSocketFactory, @Nullable VoiceDispatchInterceptor interceptor,
-        EnumSet<ConfigFlag> flags, int maxReconnectDelay, int largeThreshold)
+        @Nullable RestResponseCache responseCache, @Nullable RateLimitStore rateLimitStore, EnumSet<ConfigFlag> flags, int maxReconnectDelay, int largeThreshold)
     {
         this.sessionController = sessionController == null ? new ConcurrentSessionController() : sessionController;
         this.httpClient = httpClient;
         this.webSocketFactory = webSocketFactory == null ? newWebSocketFactory() : webSocketFactory;
         this.interceptor = interceptor;
+        this.responseCache = responseCache;
+        this.rateLimitStore = rateLimitStore;
         this.flags = flags;
         this.maxReconnectDelay = maxReconnectDelay;
         this.largeThreshold = largeThreshold;
@@ -88,6 +94,18 @@ public class SessionConfig
         return interceptor;
     }
 
+    @Nullable
+    public RestResponseCache getResponseCache()
+    {
+        return responseCache;
+    }
+
+    @Nullable
+    public RateLimitStore getRateLimitStore()
+    {
+        return rateLimitStore;
+    }
+
     public boolean isAutoReconnect()
     {
         return flags.contains(ConfigFlag.AUTO_RECONNECT);
@@ -103,6 +121,21 @@ public class SessionConfig
         return flags.contains(ConfigFlag.BULK_DELETE_SPLIT);
     }
 
+    public boolean isStreamingMemberSetup()
+    {
+        return flags.contains(ConfigFlag.STREAMING_MEMBER_SETUP);
+    }
+
+    public boolean isAsyncRequests()
+    {
+        return flags.contains(ConfigFlag.ASYNC_REQUESTS);
+    }
+
+    public boolean isRequestDeduplication()
+    {
+        return flags.contains(ConfigFlag.REQUEST_DEDUPLICATION);
+    }
+
     public boolean isRawEvents()
     {
         return flags.contains(ConfigFlag.RAW_EVENTS);
@@ -136,6 +169,6 @@ public class SessionConfig
     @Nonnull
     public static SessionConfig getDefault()
     {
-        return new SessionConfig(null, new OkHttpClient(), null, null, ConfigFlag.getDefault(), 900, 250);
+        return new SessionConfig(null, new OkHttpClient(), null, null, null, null, ConfigFlag.getDefault(), 900, 250);
     }
 }
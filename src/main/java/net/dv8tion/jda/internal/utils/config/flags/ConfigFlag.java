@@ -27,7 +27,10 @@ public enum ConfigFlag
     BULK_DELETE_SPLIT(true),
     SHUTDOWN_HOOK(true),
     MDC_CONTEXT(true),
-    AUTO_RECONNECT(true);
+    AUTO_RECONNECT(true),
+    STREAMING_MEMBER_SETUP,
+    ASYNC_REQUESTS,
+    REQUEST_DEDUPLICATION;
 
     private final boolean isDefault;
 
@@ -18,6 +18,7 @@ package net.dv8tion.jda.internal.utils.config.sharding;
 
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 import javax.annotation.Nonnull;
 
@@ -26,6 +27,8 @@ public class ShardingConfig
     private int shardsTotal;
     private int intents;
     private MemberCachePolicy memberCachePolicy;
+    private long presenceCoalescingWindow;
+    private MessageCache messageCache;
     private final boolean useShutdownNow;
 
     public ShardingConfig(int shardsTotal, boolean useShutdownNow, int intents, MemberCachePolicy memberCachePolicy)
@@ -56,6 +59,26 @@ public class ShardingConfig
         return memberCachePolicy;
     }
 
+    public void setPresenceCoalescingWindow(long presenceCoalescingWindow)
+    {
+        this.presenceCoalescingWindow = presenceCoalescingWindow;
+    }
+
+    public long getPresenceCoalescingWindow()
+    {
+        return presenceCoalescingWindow;
+    }
+
+    public void setMessageCache(MessageCache messageCache)
+    {
+        this.messageCache = messageCache;
+    }
+
+    public MessageCache getMessageCache()
+    {
+        return messageCache;
+    }
+
     public boolean isUseShutdownNow()
     {
         return useShutdownNow;
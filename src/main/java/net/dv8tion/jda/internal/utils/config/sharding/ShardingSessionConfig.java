@@ -19,6 +19,8 @@ package net.dv8tion.jda.internal.utils.config.sharding;
 import com.neovisionaries.ws.client.WebSocketFactory;
 import net.dv8tion.jda.api.audio.factory.IAudioSendFactory;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
+import net.dv8tion.jda.api.requests.RateLimitStore;
+import net.dv8tion.jda.api.requests.RestResponseCache;
 import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
@@ -40,10 +42,10 @@ public class ShardingSessionConfig extends SessionConfig
         @Nullable SessionController sessionController, @Nullable VoiceDispatchInterceptor interceptor,
         @Nullable OkHttpClient httpClient, @Nullable OkHttpClient.Builder httpClientBuilder,
         @Nullable WebSocketFactory webSocketFactory, @Nullable IAudioSendFactory audioSendFactory,
-        EnumSet<ConfigFlag> flags, EnumSet<ShardingConfigFlag> shardingFlags,
+        @Nullable RestResponseCache responseCache, @Nullable RateLimitStore rateLimitStore, EnumSet<ConfigFlag> flags, EnumSet<ShardingConfigFlag> shardingFlags,
         int maxReconnectDelay, int largeThreshold)
     {
-        super(sessionController, httpClient, webSocketFactory, interceptor, flags, maxReconnectDelay, largeThreshold);
+        super(sessionController, httpClient, webSocketFactory, interceptor, responseCache, rateLimitStore, flags, maxReconnectDelay, largeThreshold);
         if (httpClient == null)
             this.builder = httpClientBuilder == null ? IOUtil.newHttpClientBuilder() : httpClientBuilder;
         else
@@ -54,7 +56,7 @@ public class ShardingSessionConfig extends SessionConfig
 
     public SessionConfig toSessionConfig(OkHttpClient client)
     {
-        return new SessionConfig(getSessionController(), client, getWebSocketFactory(), getVoiceDispatchInterceptor(), getFlags(), getMaxReconnectDelay(), getLargeThreshold());
+        return new SessionConfig(getSessionController(), client, getWebSocketFactory(), getVoiceDispatchInterceptor(), getResponseCache(), getRateLimitStore(), getFlags(), getMaxReconnectDelay(), getLargeThreshold());
     }
 
     public EnumSet<ShardingConfigFlag> getShardingFlags()
@@ -77,6 +79,6 @@ public class ShardingSessionConfig extends SessionConfig
     @Nonnull
     public static ShardingSessionConfig getDefault()
     {
-        return new ShardingSessionConfig(null, null, new OkHttpClient(), null, null, null, ConfigFlag.getDefault(), ShardingConfigFlag.getDefault(), 900, 250);
+        return new ShardingSessionConfig(null, null, new OkHttpClient(), null, null, null, null, null, ConfigFlag.getDefault(), ShardingConfigFlag.getDefault(), 900, 250);
     }
 }
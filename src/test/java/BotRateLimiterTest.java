@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.Requester;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import net.dv8tion.jda.internal.requests.Route;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BotRateLimiterTest
+{
+    private static final int THREADS = 8;
+    private static final int CHANNELS = 16;
+    private static final int REQUESTS = 5000;
+
+    @Test
+    public void testConcurrentEnqueue() throws Exception
+    {
+        ScheduledExecutorService pool = Executors.newScheduledThreadPool(4);
+        ThreadingConfig threading = ThreadingConfig.getDefault();
+        threading.setRateLimitPool(pool, true);
+        JDAImpl api = new JDAImpl(new AuthorizationConfig("token"), null, threading, null);
+
+        CountDownLatch done = new CountDownLatch(THREADS * REQUESTS);
+        AtomicInteger executed = new AtomicInteger();
+        // Channel -> Thread -> Last executed sequence number
+        Map<Long, Map<Integer, Integer>> order = new ConcurrentHashMap<>();
+        List<String> errors = new CopyOnWriteArrayList<>();
+        Requester requester = new Requester(api)
+        {
+            @Override
+            public Long execute(Request<?> apiRequest)
+            {
+                TestRequest request = (TestRequest) apiRequest;
+                Map<Integer, Integer> last = order.computeIfAbsent(request.channel, k -> new ConcurrentHashMap<>());
+                Integer previous = last.put(request.thread, request.sequence);
+                if (previous != null && previous >= request.sequence)
+                    errors.add("Request " + request.sequence + " of thread " + request.thread + " executed after " + previous);
+                executed.incrementAndGet();
+                done.countDown();
+                return null;
+            }
+
+            @Override
+            public CompletableFuture<Long> executeAsync(Request<?> apiRequest)
+            {
+                return CompletableFuture.completedFuture(execute(apiRequest));
+            }
+        };
+
+        ExecutorService producers = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            for (int i = 0; i < THREADS; i++)
+            {
+                int thread = i;
+                producers.execute(() -> {
+                    for (int sequence = 0; sequence < REQUESTS; sequence++)
+                    {
+                        long channel = 1 + sequence % CHANNELS;
+                        requester.request(new TestRequest(api, channel, thread, sequence));
+                    }
+                });
+            }
+
+            Assertions.assertTrue(done.await(30, TimeUnit.SECONDS), "Only executed " + executed.get() + " requests");
+            Assertions.assertEquals(THREADS * REQUESTS, executed.get());
+            Assertions.assertEquals(CHANNELS, order.size());
+            Assertions.assertTrue(errors.isEmpty(), () -> String.join("\n", errors));
+        }
+        finally
+        {
+            producers.shutdownNow();
+            pool.shutdownNow();
+        }
+    }
+
+    private static class TestRequest extends Request<Void>
+    {
+        private final long channel;
+        private final int thread;
+        private final int sequence;
+
+        private TestRequest(JDAImpl api, long channel, int thread, int sequence)
+        {
+            super(new RestActionImpl<>(api, Route.Messages.SEND_MESSAGE.compile(Long.toString(channel))),
+                null, null, null, true, null, null, 0, false,
+                Route.Messages.SEND_MESSAGE.compile(Long.toString(channel)), null);
+            this.channel = channel;
+            this.thread = thread;
+            this.sequence = sequence;
+        }
+    }
+}
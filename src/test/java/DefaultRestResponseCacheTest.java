@@ -0,0 +1,202 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.requests.DefaultRestResponseCache;
+import net.dv8tion.jda.api.requests.RestResponseCache;
+import net.dv8tion.jda.internal.requests.Route;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class DefaultRestResponseCacheTest
+{
+    private static final Route GET_BANS = Route.get("guilds/{guild_id}/bans");
+    private static final Route GET_CHANNEL = Route.get("channels/{channel_id}");
+    private static final Route GET_MESSAGE = Route.get("channels/{channel_id}/messages/{message_id}");
+
+    @Test
+    public void testTimeToLive()
+    {
+        DefaultRestResponseCache cache = new DefaultRestResponseCache(10)
+            .setTimeToLive(GET_BANS, 5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(5000L, cache.getTimeToLive(GET_BANS.compile("1")));
+        Assertions.assertEquals(5000L, cache.getTimeToLive(GET_BANS.compile("2").withQueryParams("limit", "10")));
+        Assertions.assertEquals(0L, cache.getTimeToLive(GET_CHANNEL.compile("1")));
+
+        cache.setTimeToLive(GET_BANS, 0, TimeUnit.SECONDS);
+        Assertions.assertEquals(0L, cache.getTimeToLive(GET_BANS.compile("1")));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cache.setTimeToLive(Route.put("guilds/{guild_id}/bans/{user_id}"), 5, TimeUnit.SECONDS));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cache.setTimeToLive(GET_BANS, -1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testExpiry() throws IOException
+    {
+        RestResponseCache.CachedResponse expired = response("[]", "etag", -1);
+        Assertions.assertTrue(expired.isExpired());
+        Assertions.assertEquals("etag", expired.getEntityTag());
+
+        RestResponseCache.CachedResponse refreshed = expired.refresh(60000);
+        Assertions.assertFalse(refreshed.isExpired());
+        Assertions.assertEquals("[]", refreshed.toResponse().body().string());
+        Assertions.assertNull(response("[]", null, 60000).getEntityTag());
+    }
+
+    @Test
+    public void testPrefixInvalidation() throws IOException
+    {
+        DefaultRestResponseCache cache = new DefaultRestResponseCache(10);
+        Route.CompiledRoute bans = GET_BANS.compile("1");
+        Route.CompiledRoute otherBans = GET_BANS.compile("10");
+        Route.CompiledRoute channel = GET_CHANNEL.compile("2");
+        Route.CompiledRoute message = GET_MESSAGE.compile("2", "3");
+        put(cache, bans, otherBans, channel, message);
+
+        // Adding a ban invalidates the ban list of the same guild
+        cache.invalidate(Route.put("guilds/{guild_id}/bans/{user_id}").compile("1", "5"));
+        Assertions.assertNull(cache.get(bans));
+        Assertions.assertNotNull(cache.get(otherBans));
+
+        // Deleting the channel invalidates all routes below it
+        cache.invalidate(Route.delete("channels/{channel_id}").compile("2"));
+        Assertions.assertNull(cache.get(channel));
+        Assertions.assertNull(cache.get(message));
+        Assertions.assertNotNull(cache.get(otherBans));
+    }
+
+    @Test
+    public void testIdInvalidation() throws IOException
+    {
+        DefaultRestResponseCache cache = new DefaultRestResponseCache(10);
+        Route.CompiledRoute bans = GET_BANS.compile("1");
+        Route.CompiledRoute channel = GET_CHANNEL.compile("2");
+        Route.CompiledRoute message = GET_MESSAGE.compile("2", "1");
+        Route.CompiledRoute otherMessage = GET_MESSAGE.compile("3", "4");
+        put(cache, bans, channel, message, otherMessage);
+
+        cache.invalidate(1L);
+        Assertions.assertNull(cache.get(bans));
+        Assertions.assertNull(cache.get(message));
+        Assertions.assertNotNull(cache.get(channel));
+        Assertions.assertNotNull(cache.get(otherMessage));
+
+        // Query parameters are not part of the path
+        Route.CompiledRoute limited = GET_BANS.compile("5").withQueryParams("after", "6");
+        put(cache, limited);
+        cache.invalidate(6L);
+        Assertions.assertNotNull(cache.get(limited));
+        cache.invalidate(5L);
+        Assertions.assertNull(cache.get(limited));
+    }
+
+    @Test
+    public void testEviction() throws IOException
+    {
+        DefaultRestResponseCache cache = new DefaultRestResponseCache(2);
+        Route.CompiledRoute first = GET_CHANNEL.compile("1");
+        Route.CompiledRoute second = GET_CHANNEL.compile("2");
+        Route.CompiledRoute third = GET_CHANNEL.compile("3");
+        put(cache, first, second);
+        Assertions.assertNotNull(cache.get(first));
+        put(cache, third);
+
+        // The least recently used response is evicted and no longer indexed by its id
+        Assertions.assertNull(cache.get(second));
+        Assertions.assertNotNull(cache.get(first));
+        Assertions.assertNotNull(cache.get(third));
+        put(cache, second);
+        cache.invalidate(2L);
+        Assertions.assertNull(cache.get(second));
+    }
+
+    @Test
+    public void testGeneration() throws IOException
+    {
+        DefaultRestResponseCache cache = new DefaultRestResponseCache(10);
+        Route.CompiledRoute channel = GET_CHANNEL.compile("1");
+        long generation = cache.getGeneration();
+
+        // Responses of requests which were sent before an invalidation of their route are discarded
+        cache.invalidate(1L);
+        Assertions.assertNotEquals(generation, cache.getGeneration());
+        cache.put(channel, response("{}", null, 60000), generation);
+        Assertions.assertNull(cache.get(channel));
+
+        cache.put(channel, response("{}", null, 60000), cache.getGeneration());
+        Assertions.assertNotNull(cache.get(channel));
+        cache.clear();
+        Assertions.assertNull(cache.get(channel));
+    }
+
+    @Test
+    public void testScopedGeneration() throws IOException
+    {
+        DefaultRestResponseCache cache = new DefaultRestResponseCache(10);
+        Route.CompiledRoute bans = GET_BANS.compile("1");
+        Route.CompiledRoute otherBans = GET_BANS.compile("10");
+        Route.CompiledRoute channel = GET_CHANNEL.compile("2");
+        Route.CompiledRoute message = GET_MESSAGE.compile("2", "3");
+        long generation = cache.getGeneration();
+
+        // Only requests for affected routes are discarded
+        cache.invalidate(Route.put("guilds/{guild_id}/bans/{user_id}").compile("1", "5"));
+        cache.invalidate(Route.delete("channels/{channel_id}/messages/{message_id}").compile("3", "4"));
+        cache.put(bans, response("{}", null, 60000), generation);
+        cache.put(otherBans, response("{}", null, 60000), generation);
+        cache.put(channel, response("{}", null, 60000), generation);
+        cache.put(message, response("{}", null, 60000), generation);
+        Assertions.assertNull(cache.get(bans));
+        Assertions.assertNotNull(cache.get(otherBans));
+        Assertions.assertNotNull(cache.get(channel));
+        Assertions.assertNotNull(cache.get(message));
+
+        // Deleting the channel affects everything below it
+        generation = cache.getGeneration();
+        cache.invalidate(Route.delete("channels/{channel_id}").compile("2"));
+        cache.put(message, response("{}", null, 60000), generation);
+        Assertions.assertNull(cache.get(message));
+        Assertions.assertNull(cache.get(channel));
+        Assertions.assertNotNull(cache.get(otherBans));
+    }
+
+    private static void put(DefaultRestResponseCache cache, Route.CompiledRoute... routes) throws IOException
+    {
+        for (Route.CompiledRoute route : routes)
+            cache.put(route, response("{}", null, 60000), cache.getGeneration());
+    }
+
+    @SuppressWarnings("deprecation")
+    private static RestResponseCache.CachedResponse response(String body, String etag, long timeToLive) throws IOException
+    {
+        okhttp3.Response.Builder builder = new okhttp3.Response.Builder()
+            .request(new okhttp3.Request.Builder().url("https://discord.com/api/").build())
+            .protocol(Protocol.HTTP_1_1)
+            .code(200)
+            .message("OK")
+            .body(ResponseBody.create(MediaType.parse("application/json"), body));
+        if (etag != null)
+            builder.header("etag", etag);
+        return RestResponseCache.CachedResponse.of(builder.build(), timeToLive);
+    }
+}
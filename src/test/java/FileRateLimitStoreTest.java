@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.requests.FileRateLimitStore;
+import net.dv8tion.jda.api.requests.RateLimitStore;
+import net.dv8tion.jda.internal.requests.Method;
+import net.dv8tion.jda.internal.requests.Route;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class FileRateLimitStoreTest
+{
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTrip()
+    {
+        Path path = directory.resolve("cache/ratelimits.json");
+        Map<String, String> hashes = new HashMap<>();
+        hashes.put(RateLimitStore.Snapshot.toKey(Route.Messages.SEND_MESSAGE), "abc");
+        hashes.put(RateLimitStore.Snapshot.toKey(Route.Channels.MODIFY_CHANNEL), "def");
+        Map<String, Integer> limits = Collections.singletonMap("abc", 5);
+
+        Assertions.assertTrue(new FileRateLimitStore(path).load().isEmpty());
+        new FileRateLimitStore(path).save(new RateLimitStore.Snapshot(hashes, limits));
+        Assertions.assertTrue(Files.exists(path));
+
+        RateLimitStore.Snapshot loaded = new FileRateLimitStore(path).load();
+        Assertions.assertEquals(hashes, loaded.getHashes());
+        Assertions.assertEquals(limits, loaded.getLimits());
+    }
+
+    @Test
+    public void testMerge()
+    {
+        Path path = directory.resolve("ratelimits.json");
+        FileRateLimitStore first = new FileRateLimitStore(path);
+        FileRateLimitStore second = new FileRateLimitStore(path);
+        first.load();
+        second.load();
+
+        // Snapshots of different shards are merged, newer information replaces older information
+        first.save(new RateLimitStore.Snapshot(Collections.singletonMap("GET a", "1"), Collections.singletonMap("1", 5)));
+        second.save(new RateLimitStore.Snapshot(Collections.singletonMap("GET b", "2"), Collections.emptyMap()));
+        first.save(new RateLimitStore.Snapshot(Collections.singletonMap("GET a", "3"), Collections.singletonMap("1", 10)));
+
+        RateLimitStore.Snapshot loaded = new FileRateLimitStore(path).load();
+        Assertions.assertEquals("3", loaded.getHashes().get("GET a"));
+        Assertions.assertEquals(10, loaded.getLimits().get("1"));
+        Assertions.assertEquals(2, loaded.getHashes().size());
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException
+    {
+        Path path = directory.resolve("ratelimits.json");
+        Files.write(path, "{\"hashes\":".getBytes());
+        Assertions.assertTrue(new FileRateLimitStore(path).load().isEmpty());
+    }
+
+    @Test
+    public void testKeys()
+    {
+        Route route = Route.Messages.SEND_MESSAGE;
+        Assertions.assertEquals("POST channels/{channel_id}/messages", RateLimitStore.Snapshot.toKey(route));
+        Assertions.assertEquals(route, RateLimitStore.Snapshot.parseKey(RateLimitStore.Snapshot.toKey(route)));
+        Assertions.assertEquals(Route.custom(Method.GET, "guilds/{guild_id}"), RateLimitStore.Snapshot.parseKey("GET guilds/{guild_id}"));
+
+        Assertions.assertNull(RateLimitStore.Snapshot.parseKey("GET"));
+        Assertions.assertNull(RateLimitStore.Snapshot.parseKey("FETCH guilds/{guild_id}"));
+        Assertions.assertNull(RateLimitStore.Snapshot.parseKey("get guilds/{guild_id}"));
+        Assertions.assertNull(RateLimitStore.Snapshot.parseKey("GET "));
+        Assertions.assertNull(RateLimitStore.Snapshot.parseKey("GET guilds/{guild_id} extra"));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.dv8tion.jda.internal.utils.ImageHash;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ImageHashTest
+{
+    @Test
+    public void testRoundTrip()
+    {
+        String hash = "0123456789abcdeffedcba9876543210";
+        Assertions.assertEquals(ImageHash.STATIC, ImageHash.getType(hash));
+        Assertions.assertEquals(hash, ImageHash.toString(ImageHash.STATIC, ImageHash.getHigh(hash), ImageHash.getLow(hash)));
+
+        String animated = "a_ffffffffffffffff0000000000000001";
+        Assertions.assertEquals(ImageHash.ANIMATED, ImageHash.getType(animated));
+        Assertions.assertEquals(animated, ImageHash.toString(ImageHash.ANIMATED, ImageHash.getHigh(animated), ImageHash.getLow(animated)));
+    }
+
+    @Test
+    public void testUnusualHashes()
+    {
+        Assertions.assertEquals(ImageHash.NONE, ImageHash.getType(null));
+        Assertions.assertEquals(ImageHash.RAW, ImageHash.getType("0"));
+        Assertions.assertEquals(ImageHash.RAW, ImageHash.getType("0123456789ABCDEFFEDCBA9876543210"));
+        Assertions.assertEquals(ImageHash.RAW, ImageHash.getType("a_0123456789abcdeffedcba987654321"));
+        Assertions.assertNull(ImageHash.toString(ImageHash.RAW, 0, 0));
+    }
+
+    @Test
+    public void testValue()
+    {
+        Assertions.assertNull(ImageHash.of(null));
+        Assertions.assertNull(ImageHash.toString(null));
+
+        String hash = "a_0123456789abcdeffedcba9876543210";
+        ImageHash value = ImageHash.of(hash);
+        Assertions.assertEquals(ImageHash.ANIMATED, value.getType());
+        Assertions.assertEquals(hash, value.toString());
+        Assertions.assertEquals(value, ImageHash.of(hash));
+        Assertions.assertEquals(value.hashCode(), ImageHash.of(hash).hashCode());
+
+        ImageHash raw = ImageHash.of("unusual");
+        Assertions.assertEquals(ImageHash.RAW, raw.getType());
+        Assertions.assertEquals("unusual", raw.toString());
+        Assertions.assertNotEquals(value, raw);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.dv8tion.jda.internal.requests.Route;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RouteTest
+{
+    @Test
+    public void testCompile()
+    {
+        Route route = Route.get("channels/{channel_id}/messages/{message_id}");
+        Route.CompiledRoute compiled = route.compile("123", "456");
+        Assertions.assertEquals("channels/123/messages/456", compiled.getCompiledRoute());
+        Assertions.assertEquals(123L, compiled.getMajorId());
+        Assertions.assertEquals("channel_id=123", compiled.getMajorParameters());
+
+        Assertions.assertEquals("guilds/1/emojis", Route.Emojis.GET_EMOJIS.compile("1").getCompiledRoute());
+        Assertions.assertEquals("gateway", Route.Misc.GATEWAY.compile().getCompiledRoute());
+        Assertions.assertEquals("n/a", Route.Misc.GATEWAY.compile().getMajorParameters());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> route.compile("123"));
+    }
+
+    @Test
+    public void testQueryParams()
+    {
+        Route.CompiledRoute compiled = Route.get("guilds/{guild_id}/bans").compile("1").withQueryParams("limit", "10", "after", "5");
+        Assertions.assertEquals("guilds/1/bans?limit=10&after=5", compiled.getCompiledRoute());
+        Assertions.assertEquals("guilds/1/bans?limit=10&after=5&before=9", compiled.withQueryParams("before", "9").getCompiledRoute());
+        Assertions.assertEquals(1L, compiled.getMajorId());
+    }
+
+    @Test
+    public void testMajorId()
+    {
+        Route route = Route.post("interactions/{interaction_id}/{interaction_token}/callback");
+        Route.CompiledRoute first = route.compile("1", "token");
+        Route.CompiledRoute second = route.compile("2", "token");
+        Assertions.assertEquals(first.getMajorId(), second.getMajorId());
+        Assertions.assertNotEquals(first.getMajorId(), route.compile("1", "other").getMajorId());
+    }
+
+    @Test
+    public void testEquality()
+    {
+        Route route = Route.get("channels/{channel_id}");
+        Assertions.assertEquals(route, Route.get("channels/{channel_id}"));
+        Assertions.assertEquals(route.hashCode(), Route.get("channels/{channel_id}").hashCode());
+        Assertions.assertNotEquals(route, Route.delete("channels/{channel_id}"));
+        Assertions.assertEquals(route.compile("1"), route.compile("1"));
+        Assertions.assertEquals(route.compile("1").hashCode(), route.compile("1").hashCode());
+        Assertions.assertNotEquals(route.compile("1"), route.compile("2"));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.internal.utils.cache.SortedSnowflakeCacheViewImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+public class SortedCacheViewTest
+{
+    @Test
+    public void testIncrementalOrder()
+    {
+        SortedSnowflakeCacheViewImpl<Entity> view = new SortedSnowflakeCacheViewImpl<>(Entity.class, Comparator.naturalOrder());
+        Entity a = new Entity(1, 5), b = new Entity(2, 1), c = new Entity(3, 3);
+        view.put(a);
+        view.put(b);
+        view.put(c);
+        Assertions.assertEquals(Arrays.asList(b, c, a), view.asList());
+
+        view.remove(c.getIdLong());
+        Assertions.assertEquals(Arrays.asList(b, a), view.asList());
+
+        b.position = 10;
+        view.markUnsorted();
+        view.put(c);
+        Assertions.assertEquals(Arrays.asList(c, a, b), view.asList());
+        Assertions.assertEquals(Arrays.asList(c, a, b), view.stream().collect(Collectors.toList()));
+        Assertions.assertSame(view.asList().get(0), view.iterator().next());
+    }
+
+    private static class Entity implements ISnowflake, Comparable<Entity>
+    {
+        private final long id;
+        private int position;
+
+        private Entity(long id, int position)
+        {
+            this.id = id;
+            this.position = position;
+        }
+
+        @Override
+        public long getIdLong()
+        {
+            return id;
+        }
+
+        @Override
+        public int compareTo(@Nonnull Entity o)
+        {
+            return position != o.position ? Integer.compare(position, o.position) : Long.compare(id, o.id);
+        }
+    }
+}